@@ -0,0 +1,114 @@
+package org.tquadrat.foundation.lang;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.tquadrat.foundation.lang.internal.AsyncLazyImpl;
+
+/**
+ *  <p>{@summary A
+ *  {@link Lazy}
+ *  whose value is computed asynchronously.}</p>
+ *  <p>The supplier will be called on a thread provided by an
+ *  {@link Executor}
+ *  (by default, a new virtual thread), either immediately when the
+ *  instance is created, or on the first call to
+ *  {@link #get()}
+ *  or
+ *  {@link #future()}.
+ *  Callers of
+ *  {@link #get()}
+ *  wait on a
+ *  {@link CompletableFuture}
+ *  until the value is available; this parks virtual threads cheaply,
+ *  instead of blocking a carrier thread on a lock.</p>
+ *  <p>When the supplier fails,
+ *  {@link #get()}
+ *  throws the exception that was thrown by the supplier. Whether a
+ *  subsequent call will retry the computation or will throw the same
+ *  exception again is determined by the
+ *  {@link FailurePolicy}.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @param  <T> The type of the value for this instance of
+ *      {@code AsyncLazy}.
+ */
+public sealed interface AsyncLazy<T> extends Lazy<T>
+    permits org.tquadrat.foundation.lang.internal.AsyncLazyImpl
+{
+        /*------------------*\
+    ====** Enum Declaration **=======================================
+        \*------------------*/
+    /**
+     *  The policies for the handling of a failed computation.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    public enum FailurePolicy
+    {
+        /**
+         *  The failure is memoised; all subsequent calls to
+         *  {@link AsyncLazy#get()}
+         *  will throw the same exception.
+         */
+        MEMOISE,
+
+        /**
+         *  The failure is reported to all callers that are waiting
+         *  for the current computation; the next access will start a
+         *  new computation.
+         */
+        RETRY
+    }
+    //  enum FailurePolicy
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  <p>{@summary Returns a
+     *  {@link CompletableFuture}
+     *  for the value; the computation will be started if that did not
+     *  happen yet.}</p>
+     *  <p>The returned future is a
+     *  {@linkplain CompletableFuture#copy() copy}
+     *  of the internal one, so completing it will not affect this
+     *  {@code AsyncLazy} instance.</p>
+     *
+     *  @return The future for the value.
+     */
+    public CompletableFuture<T> future();
+
+    /**
+     *  {@inheritDoc}
+     *  <p>For an {@code AsyncLazy}, this returns {@code true} only when
+     *  the computation has completed successfully.</p>
+     */
+    @Override
+    public boolean isPresent();
+
+    /**
+     *  Creates a new {@code AsyncLazy} instance.
+     *
+     *  @param  <T> The type of the value for the new instance of
+     *      {@code AsyncLazy}.
+     *  @param  supplier    The supplier for the value.
+     *  @param  executor    The executor that runs the supplier.
+     *  @param  eager   {@code true} if the computation should be
+     *      started immediately, {@code false} if it should be started
+     *      on the first access.
+     *  @param  failurePolicy   The policy for failed computations.
+     *  @return The new instance.
+     */
+    public static <T> AsyncLazy<T> use( final Supplier<T> supplier, final Executor executor, final boolean eager, final FailurePolicy failurePolicy )
+    {
+        final var retValue = new AsyncLazyImpl<>( supplier, executor, failurePolicy );
+        if( eager ) retValue.start();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  use()
+}
+//  interface AsyncLazy
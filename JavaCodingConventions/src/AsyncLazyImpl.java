@@ -0,0 +1,267 @@
+package org.tquadrat.foundation.lang.internal;
+
+import static org.tquadrat.foundation.lang.AsyncLazy.FailurePolicy.RETRY;
+import static org.tquadrat.foundation.lang.CommonConstants.NULL_STRING;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.tquadrat.foundation.lang.AsyncLazy;
+import org.tquadrat.foundation.lang.Lazy;
+import org.tquadrat.foundation.lang.Objects;
+
+/**
+ *  <p>{@summary The implementation of the interface
+ *  {@link AsyncLazy}.}</p>
+ *  <p>The
+ *  {@link CompletableFuture}
+ *  for the value is installed through a
+ *  {@link VarHandle};
+ *  only the thread that succeeds in installing it will submit the
+ *  supplier to the executor, so the supplier is called at most once
+ *  per computation.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @param  <T> The type of the value for this instance of
+ *      {@code AsyncLazy}.
+ */
+public final class AsyncLazyImpl<T> implements AsyncLazy<T>
+{
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The executor that runs the supplier.
+     */
+    private final Executor m_Executor;
+
+    /**
+     *  The policy for failed computations.
+     */
+    private final FailurePolicy m_FailurePolicy;
+
+    /**
+     *  The future for the value; it is {@code null} if the computation
+     *  was not yet started. It will be accessed only through
+     *  {@link #m_FutureHandle}.
+     */
+    @SuppressWarnings( "unused" )
+    private CompletableFuture<T> m_Future;
+
+    /**
+     *  The supplier for the value.
+     */
+    private final Supplier<T> m_Supplier;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The handle for
+     *  {@link #m_Future}.
+     */
+    private static final VarHandle m_FutureHandle;
+
+    static
+    {
+        try
+        {
+            m_FutureHandle = MethodHandles.lookup().findVarHandle( AsyncLazyImpl.class, "m_Future", CompletableFuture.class );
+        }
+        catch( final NoSuchFieldException | IllegalAccessException e )
+        {
+            throw new ExceptionInInitializerError( e );
+        }
+    }
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code AsyncLazyImpl} instance.
+     *
+     *  @param  supplier    The supplier for the value.
+     *  @param  executor    The executor that runs the supplier.
+     *  @param  failurePolicy   The policy for failed computations.
+     */
+    public AsyncLazyImpl( final Supplier<T> supplier, final Executor executor, final FailurePolicy failurePolicy )
+    {
+        m_Supplier = requireNonNullArgument( supplier, "supplier" );
+        m_Executor = requireNonNullArgument( executor, "executor" );
+        m_FailurePolicy = requireNonNullArgument( failurePolicy, "failurePolicy" );
+    }   //  AsyncLazyImpl()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Calls the supplier and completes the given future with the
+     *  result.
+     *
+     *  @param  future  The future to complete.
+     */
+    private final void compute( final CompletableFuture<T> future )
+    {
+        try
+        {
+            future.complete( m_Supplier.get() );
+        }
+        catch( final Throwable t )
+        {
+            fail( future, t );
+        }
+    }   //  compute()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean equals( final Object obj )
+    {
+        var retValue = this == obj;
+        if( !retValue && nonNull( obj ) )
+        {
+            if( obj instanceof Lazy<?> other )
+            {
+                retValue = get().equals( other.get() );
+            }
+            else
+            {
+                retValue = get().equals( obj );
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  equals()
+
+    /**
+     *  Completes the given future exceptionally, and removes it when
+     *  the
+     *  {@linkplain #m_FailurePolicy failure policy}
+     *  requests a retry.
+     *
+     *  @param  future  The future to complete.
+     *  @param  t   The failure.
+     */
+    private final void fail( final CompletableFuture<T> future, final Throwable t )
+    {
+        if( m_FailurePolicy == RETRY ) m_FutureHandle.compareAndSet( this, future, null );
+        future.completeExceptionally( t );
+    }   //  fail()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final CompletableFuture<T> future() { return start().copy(); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final T get()
+    {
+        final T retValue;
+        try
+        {
+            retValue = start().join();
+        }
+        catch( final CompletionException e )
+        {
+            if( e.getCause() instanceof final RuntimeException cause ) throw cause;
+            if( e.getCause() instanceof final Error cause ) throw cause;
+            throw e;
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  get()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final int hashCode() { return get().hashCode(); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean isPresent()
+    {
+        @SuppressWarnings( "unchecked" )
+        final var future = (CompletableFuture<T>) m_FutureHandle.getAcquire( this );
+        final var retValue = nonNull( future ) && future.isDone() && !future.isCompletedExceptionally();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  isPresent()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @SuppressWarnings( "unchecked" )
+    @Override
+    public <X extends Throwable> T orElseThrow( final Supplier<? extends X> exceptionSupplier ) throws X
+    {
+        if( !isPresent() ) throw exceptionSupplier.get();
+
+        //---* Done *------------------------------------------------
+        return ((CompletableFuture<T>) m_FutureHandle.getAcquire( this )).join();
+    }   //  orElseThrow()
+
+    /**
+     *  Starts the computation if that did not happen yet.
+     *
+     *  @return The internal future for the value.
+     */
+    @SuppressWarnings( "unchecked" )
+    public final CompletableFuture<T> start()
+    {
+        var retValue = (CompletableFuture<T>) m_FutureHandle.getAcquire( this );
+        if( isNull( retValue ) )
+        {
+            final var future = new CompletableFuture<T>();
+            retValue = (CompletableFuture<T>) m_FutureHandle.compareAndExchangeRelease( this, null, future );
+            if( isNull( retValue ) )
+            {
+                retValue = future;
+                try
+                {
+                    m_Executor.execute( () -> compute( future ) );
+                }
+                catch( final RuntimeException e )
+                {
+                    fail( future, e );
+                }
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  start()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String toString()
+    {
+        final var retValue = isPresent()
+            ? Objects.toString( ((CompletableFuture<?>) m_FutureHandle.getAcquire( this )).join(), NULL_STRING )
+            : "[Not initialized]";
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toString()
+}
+//  class AsyncLazyImpl
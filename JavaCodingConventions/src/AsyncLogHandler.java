@@ -0,0 +1,639 @@
+package org.tquadrat.foundation.logging;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+
+import org.tquadrat.foundation.exception.ValidationException;
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
+/**
+ *  <p>{@summary A
+ *  {@link Handler}
+ *  that passes the log records through a bounded ring buffer to a
+ *  target handler that runs on a dedicated writer thread.} So the
+ *  threads that log do not have to wait for the disk.</p>
+ *  <p>The ring buffer is allocated when the handler is created; any
+ *  number of threads can add records to it without locking. The
+ *  writer thread takes up to
+ *  {@value #BATCH_SIZE}
+ *  records at once, passes them to the target, and flushes the target
+ *  after each batch. The writer thread can be a virtual thread.</p>
+ *  <p>When the buffer is full, records with a level below
+ *  {@link Level#INFO}
+ *  (like
+ *  {@link LogLevel#DEBUG}
+ *  and
+ *  {@link LogLevel#TRACE})
+ *  are handled according to the
+ *  {@link OverflowPolicy};
+ *  records with a higher level – in particular
+ *  {@link LogLevel#ERROR}
+ *  and
+ *  {@link LogLevel#INFO_FORCED}
+ *  – are never dropped: the logging thread waits until there is room
+ *  in the buffer.</p>
+ *  <p>The source class and method of a record are determined before
+ *  the record is added to the buffer, as this works only on the thread
+ *  that logs. The message is formatted on the writer thread, so the
+ *  arguments for a message should not be modified after they were
+ *  logged.</p>
+ *  <p>When configured through the
+ *  {@link LogManager},
+ *  the handler reads the following properties, each prefixed with the
+ *  name of this class:</p>
+ *  <ul>
+ *      <li>{@code .target} – the class name of the target handler; it
+ *      must have a public constructor without arguments. This property
+ *      is mandatory.</li>
+ *      <li>{@code .capacity} – the capacity of the ring buffer; it
+ *      will be rounded up to the next power of two. The default is
+ *      {@value #DEFAULT_CAPACITY}.</li>
+ *      <li>{@code .overflowPolicy} – {@code DROP} or {@code BLOCK};
+ *      the default is {@code DROP}.</li>
+ *      <li>{@code .virtual} – {@code true} if the writer thread should
+ *      be a virtual thread; the default is {@code false}.</li>
+ *      <li>{@code .level} – the level of this handler; the default is
+ *      {@link Level#ALL}.</li>
+ *  </ul>
+ *  <p>The writer thread is a daemon thread; the records in the buffer
+ *  are written when the handler is
+ *  {@linkplain #close() closed}.
+ *  The
+ *  {@link LogManager}
+ *  does that on shutdown for the handlers that are registered with a
+ *  logger.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class AsyncLogHandler extends Handler
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The policies for records with a level below
+     *  {@link Level#INFO}
+     *  when the buffer is full.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    public enum OverflowPolicy
+    {
+            /*------------------*\
+        ====** Enum Declaration **===================================
+            \*------------------*/
+        /**
+         *  The logging thread waits until there is room in the buffer.
+         */
+        BLOCK,
+
+        /**
+         *  The record will be dropped.
+         */
+        DROP
+    }
+    //  enum OverflowPolicy
+
+    /**
+     *  The metrics for the handler.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     *
+     *  @param  capacity    The capacity of the buffer.
+     *  @param  queueDepth  The number of records in the buffer.
+     *  @param  dropped The number of dropped records.
+     *  @param  written The number of records that were passed to the
+     *      target.
+     */
+    public record Statistics( int capacity, long queueDepth, long dropped, long written ) {}
+
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The maximum number of records that are passed to the target
+     *  before it will be flushed: {@value}.
+     */
+    public static final int BATCH_SIZE = 256;
+
+    /**
+     *  The default capacity of the buffer: {@value}.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     *  The time in nanoseconds a logging thread waits before it tries
+     *  again to add a record to a full buffer.
+     */
+    private static final long RETRY_NANOS = MICROSECONDS.toNanos( 100 );
+
+    /**
+     *  The maximum time in nanoseconds the writer thread waits for new
+     *  records before it checks the buffer again.
+     */
+    private static final long WAIT_NANOS = MILLISECONDS.toNanos( 100 );
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The flag that indicates that the handler was closed.
+     */
+    private volatile boolean m_Closed;
+
+    /**
+     *  The number of dropped records.
+     */
+    private final LongAdder m_Dropped;
+
+    /**
+     *  The position of the next record that will be taken from the
+     *  buffer; it is modified only by the writer thread.
+     */
+    private volatile long m_Head;
+
+    /**
+     *  The mask for the index of a slot from a position.
+     */
+    private final int m_Mask;
+
+    /**
+     *  The policy for records with a level below
+     *  {@link Level#INFO}.
+     */
+    private final OverflowPolicy m_Policy;
+
+    /**
+     *  The number of threads that are currently in
+     *  {@link #publish(LogRecord)}.
+     *  The writer thread does not terminate before this is 0, so a
+     *  record that was accepted before the handler was closed will
+     *  still be written.
+     */
+    private final AtomicInteger m_Producers;
+
+    /**
+     *  The sequence numbers for the slots. When a slot is free for the
+     *  record at position {@code p}, its sequence number is {@code p};
+     *  when it holds that record, it is {@code p + 1}.
+     */
+    private final AtomicLongArray m_Sequences;
+
+    /**
+     *  The slots of the buffer.
+     */
+    private final LogRecord [] m_Slots;
+
+    /**
+     *  The position for the next record that will be added to the
+     *  buffer.
+     */
+    private final AtomicLong m_Tail;
+
+    /**
+     *  The target handler.
+     */
+    private final Handler m_Target;
+
+    /**
+     *  The flag that indicates that the writer thread is waiting for
+     *  new records.
+     */
+    private volatile boolean m_Waiting;
+
+    /**
+     *  The number of records that were passed to the target.
+     */
+    private final LongAdder m_Written;
+
+    /**
+     *  The writer thread.
+     */
+    private final Thread m_Writer;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The message for an invalid capacity.
+     */
+    private static final MessageTemplate MSG_InvalidCapacity = MessageTemplate.compile( "Invalid capacity: %1$d" );
+
+    /**
+     *  The message for a missing target property.
+     */
+    private static final MessageTemplate MSG_MissingTarget = MessageTemplate.compile( "Property '%1$s.target' is missing" );
+
+    /**
+     *  The message for a target handler that cannot be created.
+     */
+    private static final MessageTemplate MSG_TargetFailed = MessageTemplate.compile( "Cannot create target handler '%1$s'" );
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code AsyncLogHandler} instance that is
+     *  configured through the
+     *  {@link LogManager}.
+     *
+     *  @throws IllegalStateException   The target handler is not
+     *      configured, or it cannot be created.
+     */
+    public AsyncLogHandler() throws IllegalStateException
+    {
+        this( createTarget( property( "target", null ) ),
+            Integer.parseInt( property( "capacity", Integer.toString( DEFAULT_CAPACITY ) ) ),
+            OverflowPolicy.valueOf( property( "overflowPolicy", OverflowPolicy.DROP.name() ) ),
+            Boolean.parseBoolean( property( "virtual", Boolean.FALSE.toString() ) ) );
+        setLevel( Level.parse( property( "level", Level.ALL.getName() ) ) );
+    }   //  AsyncLogHandler()
+
+    /**
+     *  Creates a new {@code AsyncLogHandler} instance.
+     *
+     *  @param  target  The target handler.
+     *  @param  capacity    The capacity of the buffer; it will be
+     *      rounded up to the next power of two.
+     *  @param  policy  The policy for records with a level below
+     *      {@link Level#INFO}
+     *      when the buffer is full.
+     *  @param  virtual {@code true} if the writer thread should be a
+     *      virtual thread, {@code false} for a platform thread.
+     *  @throws ValidationException The capacity is less than 1.
+     */
+    public AsyncLogHandler( final Handler target, final int capacity, final OverflowPolicy policy, final boolean virtual ) throws ValidationException
+    {
+        m_Target = requireNonNullArgument( target, "target" );
+        m_Policy = requireNonNullArgument( policy, "policy" );
+        if( (capacity < 1) || (capacity > (1 << 30)) ) throw new ValidationException( MSG_InvalidCapacity.format( capacity ) );
+
+        final var size = Integer.highestOneBit( capacity - 1 ) << 1;
+        m_Mask = Math.max( size, 1 ) - 1;
+        m_Slots = new LogRecord [m_Mask + 1];
+        m_Sequences = new AtomicLongArray( m_Slots.length );
+        for( var i = 0; i < m_Slots.length; ++i ) m_Sequences.set( i, i );
+
+        m_Closed = false;
+        m_Dropped = new LongAdder();
+        m_Head = 0;
+        m_Producers = new AtomicInteger();
+        m_Tail = new AtomicLong();
+        m_Waiting = false;
+        m_Written = new LongAdder();
+
+        final var builder = virtual ? Thread.ofVirtual() : Thread.ofPlatform().daemon( true );
+        m_Writer = builder.name( getClass().getSimpleName() ).start( this::run );
+    }   //  AsyncLogHandler()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     *  <p>Waits until the writer thread has passed all records in the
+     *  buffer to the target, and closes the target afterwards. Records
+     *  that are published concurrently are either written, or ignored
+     *  as when published after the handler was closed.</p>
+     */
+    @Override
+    public final void close()
+    {
+        if( !m_Closed )
+        {
+            m_Closed = true;
+            if( Thread.currentThread() != m_Writer )
+            {
+                LockSupport.unpark( m_Writer );
+                try
+                {
+                    m_Writer.join();
+
+                    /*
+                     * Only if the writer thread terminated abnormally,
+                     * a logging thread could still write directly to
+                     * the target.
+                     */
+                    while( m_Producers.get() > 0 ) LockSupport.parkNanos( this, RETRY_NANOS );
+                }
+                catch( final InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            m_Target.close();
+        }
+    }   //  close()
+
+    /**
+     *  Creates the target handler from its class name.
+     *
+     *  @param  className   The name of the class.
+     *  @return The target handler.
+     *  @throws IllegalStateException   The class name is {@code null},
+     *      or the handler cannot be created.
+     */
+    private static final Handler createTarget( final String className ) throws IllegalStateException
+    {
+        if( isNull( className ) ) throw new IllegalStateException( MSG_MissingTarget.format( AsyncLogHandler.class.getName() ) );
+        final Handler retValue;
+        try
+        {
+            retValue = (Handler) ClassLoader.getSystemClassLoader()
+                .loadClass( className )
+                .getConstructor()
+                .newInstance();
+        }
+        catch( final ReflectiveOperationException | ClassCastException e )
+        {
+            throw new IllegalStateException( MSG_TargetFailed.format( className ), e );
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  createTarget()
+
+    /**
+     *  Adds the record to the buffer, or passes it to the target
+     *  directly when called on the writer thread; this is the
+     *  implementation of
+     *  {@link #publish(LogRecord)}
+     *  after the checks.
+     *
+     *  @param  record  The record.
+     */
+    private final void enqueue( final LogRecord record )
+    {
+        //---* Determine the caller while still on its thread *---
+        record.getSourceClassName();
+
+        if( Thread.currentThread() == m_Writer )
+        {
+            /*
+             * The target itself logged something; waiting for room
+             * in the buffer would block forever.
+             */
+            write( record );
+        }
+        else if( !offer( record ) )
+        {
+            final var mayDrop = (record.getLevel().intValue() < Level.INFO.intValue()) && (m_Policy == OverflowPolicy.DROP);
+            if( mayDrop )
+            {
+                m_Dropped.increment();
+            }
+            else
+            {
+                var isAdded = false;
+                while( !isAdded && m_Writer.isAlive() )
+                {
+                    LockSupport.unpark( m_Writer );
+                    LockSupport.parkNanos( this, RETRY_NANOS );
+                    isAdded = offer( record );
+                }
+                if( !isAdded ) write( record );
+            }
+        }
+    }   //  enqueue()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>Waits until the writer thread has passed all records that are
+     *  in the buffer at the time of the call to the target, and flushes
+     *  the target afterwards.</p>
+     */
+    @Override
+    public final void flush()
+    {
+        if( (Thread.currentThread() != m_Writer) && m_Writer.isAlive() )
+        {
+            final var tail = m_Tail.get();
+            while( (m_Head < tail) && m_Writer.isAlive() )
+            {
+                LockSupport.unpark( m_Writer );
+                LockSupport.parkNanos( this, RETRY_NANOS );
+            }
+        }
+        m_Target.flush();
+    }   //  flush()
+
+    /**
+     *  Returns the number of dropped records.
+     *
+     *  @return The number of dropped records.
+     */
+    public final long getDroppedCount() { return m_Dropped.sum(); }
+
+    /**
+     *  Returns the number of records that are in the buffer.
+     *
+     *  @return The queue depth.
+     */
+    public final long getQueueDepth() { return Math.max( m_Tail.get() - m_Head, 0L ); }
+
+    /**
+     *  Adds the given record to the buffer.
+     *
+     *  @param  record  The record.
+     *  @return {@code true} if the record was added, {@code false} if
+     *      the buffer is full.
+     */
+    private final boolean offer( final LogRecord record )
+    {
+        var retValue = false;
+        var isDone = false;
+        var position = m_Tail.get();
+        while( !isDone )
+        {
+            final var index = (int) (position & m_Mask);
+            final var difference = m_Sequences.get( index ) - position;
+            if( difference == 0 )
+            {
+                if( m_Tail.compareAndSet( position, position + 1 ) )
+                {
+                    m_Slots [index] = record;
+                    m_Sequences.set( index, position + 1 );
+                    retValue = true;
+                    isDone = true;
+                }
+                else
+                {
+                    position = m_Tail.get();
+                }
+            }
+            else if( difference < 0 )
+            {
+                //---* The buffer is full *----------------------------
+                isDone = true;
+            }
+            else
+            {
+                position = m_Tail.get();
+            }
+        }
+        if( retValue && m_Waiting ) LockSupport.unpark( m_Writer );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  offer()
+
+    /**
+     *  Takes the next record from the buffer; this is called only by
+     *  the writer thread.
+     *
+     *  @return The record, or {@code null} if the buffer is empty.
+     */
+    private final LogRecord poll()
+    {
+        LogRecord retValue = null;
+        final var head = m_Head;
+        final var index = (int) (head & m_Mask);
+        if( m_Sequences.get( index ) == head + 1 )
+        {
+            retValue = m_Slots [index];
+            m_Slots [index] = null;
+            m_Sequences.set( index, head + m_Slots.length );
+            m_Head = head + 1;
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  poll()
+
+    /**
+     *  Returns the value of the configuration property with the given
+     *  name.
+     *
+     *  @param  name    The name of the property, without the prefix.
+     *  @param  defaultValue    The default value.
+     *  @return The value of the property.
+     */
+    private static final String property( final String name, final String defaultValue )
+    {
+        final var value = LogManager.getLogManager().getProperty( AsyncLogHandler.class.getName() + '.' + name );
+        final var retValue = isNull( value ) || value.isBlank() ? defaultValue : value.strip();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  property()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>Adds the record to the buffer. When the buffer is full, a
+     *  record with a level below
+     *  {@link Level#INFO}
+     *  is dropped or waits, according to the
+     *  {@link OverflowPolicy};
+     *  all other records wait until there is room in the buffer.</p>
+     */
+    @Override
+    public final void publish( final LogRecord record )
+    {
+        /*
+         * The counter is incremented before the flag is checked, so
+         * the writer thread either sees this thread as a producer, or
+         * this thread sees the flag.
+         */
+        m_Producers.incrementAndGet();
+        try
+        {
+            if( !m_Closed && isLoggable( record ) ) enqueue( record );
+        }
+        finally
+        {
+            m_Producers.decrementAndGet();
+        }
+    }   //  publish()
+
+    /**
+     *  The loop for the writer thread.
+     */
+    private final void run()
+    {
+        var isRunning = true;
+        while( isRunning )
+        {
+            var count = 0;
+            LogRecord record;
+            while( (count < BATCH_SIZE) && nonNull( record = poll() ) )
+            {
+                write( record );
+                ++count;
+            }
+
+            if( count > 0 )
+            {
+                try
+                {
+                    m_Target.flush();
+                }
+                catch( final RuntimeException e )
+                {
+                    reportError( null, e, ErrorManager.FLUSH_FAILURE );
+                }
+            }
+            else if( m_Closed )
+            {
+                /*
+                 * A logging thread may have passed the check for the
+                 * flag but not yet claimed a position, or it may have
+                 * claimed a position but not yet filled the slot.
+                 */
+                isRunning = (m_Producers.get() > 0) || (m_Tail.get() != m_Head);
+                if( isRunning ) Thread.onSpinWait();
+            }
+            else
+            {
+                m_Waiting = true;
+                if( m_Sequences.get( (int) (m_Head & m_Mask) ) != m_Head + 1 ) LockSupport.parkNanos( this, WAIT_NANOS );
+                m_Waiting = false;
+            }
+        }
+    }   //  run()
+
+    /**
+     *  Returns the metrics for this handler.
+     *
+     *  @return The metrics.
+     */
+    public final Statistics statistics()
+    {
+        final var retValue = new Statistics( m_Slots.length, getQueueDepth(), m_Dropped.sum(), m_Written.sum() );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  statistics()
+
+    /**
+     *  Passes the given record to the target.
+     *
+     *  @param  record  The record.
+     */
+    private final void write( final LogRecord record )
+    {
+        try
+        {
+            m_Target.publish( record );
+            m_Written.increment();
+        }
+        catch( final RuntimeException e )
+        {
+            reportError( null, e, ErrorManager.WRITE_FAILURE );
+        }
+    }   //  write()
+}
+//  class AsyncLogHandler
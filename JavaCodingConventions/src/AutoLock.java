@@ -1,8 +1,14 @@
 package org.tquadrat.util.concurrent;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
 /**
  *  A wrapper for locks that supports the {@code try-with-resources}
  *  feature of Java 7.
@@ -12,7 +18,7 @@ import java.util.concurrent.locks.Lock;
  *  {@code AutoLock} will only expose the methods
  *  {@link #lock()}
  *  and
- *  {@link #lockInterruptibly()}
+ *  {@link #tryLock(Duration)}
  *  of the interface
  *  {@link java.util.concurrent.locks.Lock Lock},
  *  but with a return value. Exposing other methods is not
@@ -24,6 +30,17 @@ import java.util.concurrent.locks.Lock;
  *  on the wrapped {@code Lock} object inside the {@code try} block
  *  may cause unpredictable effects.
  *
+ *  An {@code AutoLock} that was created with a name through
+ *  {@link #of(String, Lock)}
+ *  while the instrumentation was
+ *  {@linkplain LockMonitor#enable() enabled}
+ *  records the wait and hold times for the wrapped lock; refer to
+ *  {@link LockMonitor}.
+ *
+ *  When the
+ *  {@linkplain LockOrderTracker lock order tracking}
+ *  is enabled, all {@code AutoLock} instances take part in it.
+ *
  *  @author Thomas Thrien - thomas.thrien@tquadrat.org
  *
  *  @see java.util.concurrent.locks.Lock
@@ -37,7 +54,21 @@ public class AutoLock implements AutoCloseable
      *  The wrapped lock.
      */
     private final Lock m_Lock;
-    
+
+    /**
+     *  The node for this lock in the lock order graph; {@code null} if
+     *  the lock order tracking is not enabled.
+     */
+    private final LockOrderTracker.Node m_Node;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The message for a lock that was not acquired in time.
+     */
+    private static final MessageTemplate MSG_Timeout = MessageTemplate.compile( "Lock not acquired within %1$s" );
+
         /*--------------*\
     ====** Constructors **===========================================
         \*--------------*/
@@ -47,10 +78,23 @@ public class AutoLock implements AutoCloseable
      *  @param  lock    The wrapped lock.
      */
     public AutoLock( final Lock lock )
+    {
+        this( lock, LockOrderTracker.node( null, requireNonNull( lock ) ) );
+    }   //  AutoLock()
+
+    /**
+     *  Creates a new {@code AutoLock} object.
+     *
+     *  @param  lock    The wrapped lock.
+     *  @param  node    The node for the lock in the lock order graph;
+     *      {@code null} if the lock order tracking is not enabled.
+     */
+    AutoLock( final Lock lock, final LockOrderTracker.Node node )
     {
         m_Lock = requireNonNull( lock );
+        m_Node = node;
     }   //  AutoLock()
-    
+
         /*---------*\
     ====** Methods **================================================
         \*---------*/
@@ -58,7 +102,26 @@ public class AutoLock implements AutoCloseable
      *  {@inheritDoc}
      */
     @Override
-    public final void close() { m_Lock.unlock(); }
+    public void close()
+    {
+        m_Lock.unlock();
+        if( LockOrderTracker.isEnabled() ) LockOrderTracker.released( m_Node );
+    }   //  close()
+
+    /**
+     *  Returns the wrapped lock.
+     *
+     *  @return The wrapped lock.
+     */
+    protected final Lock getLock() { return m_Lock; }
+
+    /**
+     *  Returns the node for this lock in the lock order graph.
+     *
+     *  @return The node; {@code null} if the lock order tracking is not
+     *      enabled.
+     */
+    final LockOrderTracker.Node getNode() { return m_Node; }
 
     /**
      *  Calls
@@ -69,13 +132,64 @@ public class AutoLock implements AutoCloseable
      *
      *  @return The reference to this {@code AutoLock} instance.
      */
-    public final AutoLock lock()
+    public AutoLock lock()
     {
+        if( LockOrderTracker.isEnabled() ) LockOrderTracker.beforeLock( m_Node );
         m_Lock.lock();
+        if( LockOrderTracker.isEnabled() ) LockOrderTracker.acquired( m_Node );
 
         //---* Done *------------------------------------------------
         return this;
     }   //  lock()
+
+    /**
+     *  Creates a new {@code AutoLock} object with the given name. If
+     *  the instrumentation is
+     *  {@linkplain LockMonitor#isEnabled() enabled}
+     *  at the time this method is called, the new object will record
+     *  the wait and hold times for the wrapped lock under the given
+     *  name; otherwise it is the same as an object that was created by
+     *  {@link #AutoLock(Lock)}.
+     *
+     *  @param  name    The name for the lock.
+     *  @param  lock    The wrapped lock.
+     *  @return The new {@code AutoLock} object.
+     */
+    public static AutoLock of( final String name, final Lock lock )
+    {
+        requireNonNull( name );
+        final var retValue = LockMonitor.isEnabled()
+            ? new InstrumentedAutoLock( name, lock )
+            : new AutoLock( lock, LockOrderTracker.node( name, requireNonNull( lock ) ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  of()
+
+    /**
+     *  Calls
+     *  {@link java.util.concurrent.locks.Lock#tryLock(long, java.util.concurrent.TimeUnit) tryLock()}
+     *  on the wrapped
+     *  {@link java.util.concurrent.locks.Lock}
+     *  instance.
+     *
+     *  @param  timeout The maximum time to wait for the lock.
+     *  @return The reference to this {@code AutoLock} instance.
+     *  @throws InterruptedException    The current thread was
+     *      interrupted while waiting for the lock.
+     *  @throws TimeoutException    The lock could not be acquired
+     *      within the given time.
+     */
+    public AutoLock tryLock( final Duration timeout ) throws InterruptedException, TimeoutException
+    {
+        requireNonNull( timeout );
+        if( LockOrderTracker.isEnabled() ) LockOrderTracker.beforeLock( m_Node );
+        if( !m_Lock.tryLock( timeout.toNanos(), NANOSECONDS ) ) throw new TimeoutException( MSG_Timeout.format( timeout ) );
+        if( LockOrderTracker.isEnabled() ) LockOrderTracker.acquired( m_Node );
+
+        //---* Done *------------------------------------------------
+        return this;
+    }   //  tryLock()
 }
 //  class AutoLock
 
@@ -0,0 +1,84 @@
+package org.tquadrat.util.concurrent;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *  A wrapper for instances of
+ *  {@link ReadWriteLock}
+ *  that supports the {@code try-with-resources} feature of Java 7 for
+ *  both the read and the write lock, in the same way as
+ *  {@link AutoLock}
+ *  does it for a single
+ *  {@link java.util.concurrent.locks.Lock Lock}.
+ *
+ *  The wrappers for the two locks are created once, so locking does
+ *  not cause any additional overhead compared with
+ *  {@link AutoLock}.
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @see java.util.concurrent.locks.ReadWriteLock
+ */
+public final class AutoReadWriteLock
+{
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The wrapper for the read lock.
+     */
+    private final AutoLock m_ReadLock;
+
+    /**
+     *  The wrapper for the write lock.
+     */
+    private final AutoLock m_WriteLock;
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code AutoReadWriteLock} object that wraps a new
+     *  instance of
+     *  {@link ReentrantReadWriteLock}.
+     */
+    public AutoReadWriteLock()
+    {
+        this( new ReentrantReadWriteLock() );
+    }   //  AutoReadWriteLock()
+
+    /**
+     *  Creates a new {@code AutoReadWriteLock} object.
+     *
+     *  @param  lock    The wrapped lock.
+     */
+    public AutoReadWriteLock( final ReadWriteLock lock )
+    {
+        requireNonNull( lock );
+        m_ReadLock = new AutoLock( lock.readLock() );
+        m_WriteLock = new AutoLock( lock.writeLock() );
+    }   //  AutoReadWriteLock()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Acquires the read lock.
+     *
+     *  @return The {@code AutoLock} instance for the read lock; closing
+     *      it releases the read lock.
+     */
+    public final AutoLock lockRead() { return m_ReadLock.lock(); }
+
+    /**
+     *  Acquires the write lock.
+     *
+     *  @return The {@code AutoLock} instance for the write lock;
+     *      closing it releases the write lock.
+     */
+    public final AutoLock lockWrite() { return m_WriteLock.lock(); }
+}
+//  class AutoReadWriteLock
@@ -0,0 +1,256 @@
+package org.tquadrat.util.concurrent;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ *  A wrapper for a
+ *  {@link StampedLock}
+ *  that supports the {@code try-with-resources} feature of Java 7 for
+ *  the read and the write lock, in the same way as
+ *  {@link AutoLock}
+ *  does it for a single
+ *  {@link java.util.concurrent.locks.Lock Lock},
+ *  and that provides optimistic reads.
+ *
+ *  An optimistic read executes the given reader without any locking
+ *  and validates the stamp afterwards; only when a write happened in
+ *  between, the reader will be executed again, this time while holding
+ *  the read lock. Therefore the reader must not have any side effects,
+ *  and it has to cope with an inconsistent state: it may see some
+ *  fields before and others after a write. An exception thrown by the
+ *  reader during the optimistic attempt will be ignored when the stamp
+ *  turns out to be invalid.
+ *
+ *  The read and the write lock provided by this class are not
+ *  reentrant, as those of
+ *  {@link StampedLock}
+ *  are not either.
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @see java.util.concurrent.locks.StampedLock
+ */
+public final class AutoStampedLock
+{
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The wrapped lock.
+     */
+    private final StampedLock m_Lock;
+
+    /**
+     *  The wrapper for the read lock view of the wrapped lock.
+     */
+    private final AutoLock m_ReadLock;
+
+    /**
+     *  The wrapper for the write lock view of the wrapped lock.
+     */
+    private final AutoLock m_WriteLock;
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code AutoStampedLock} object that wraps a new
+     *  instance of
+     *  {@link StampedLock}.
+     */
+    public AutoStampedLock()
+    {
+        this( new StampedLock() );
+    }   //  AutoStampedLock()
+
+    /**
+     *  Creates a new {@code AutoStampedLock} object.
+     *
+     *  @param  lock    The wrapped lock.
+     */
+    public AutoStampedLock( final StampedLock lock )
+    {
+        m_Lock = requireNonNull( lock );
+        m_ReadLock = new AutoLock( m_Lock.asReadLock() );
+        m_WriteLock = new AutoLock( m_Lock.asWriteLock() );
+    }   //  AutoStampedLock()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Acquires the read lock.
+     *
+     *  @return The {@code AutoLock} instance for the read lock; closing
+     *      it releases the read lock.
+     */
+    public final AutoLock lockRead() { return m_ReadLock.lock(); }
+
+    /**
+     *  Acquires the write lock.
+     *
+     *  @return The {@code AutoLock} instance for the write lock;
+     *      closing it releases the write lock.
+     */
+    public final AutoLock lockWrite() { return m_WriteLock.lock(); }
+
+    /**
+     *  Executes the given reader optimistically, falling back to the
+     *  read lock if a write happened concurrently.
+     *
+     *  @param  <T> The type of the result.
+     *  @param  reader  The reader; it must not have side effects.
+     *  @return The result of the reader.
+     */
+    public final <T> T read( final Supplier<? extends T> reader )
+    {
+        requireNonNull( reader );
+        T retValue = null;
+        var isValid = false;
+        final var stamp = m_Lock.tryOptimisticRead();
+        if( stamp != 0L )
+        {
+            try
+            {
+                retValue = reader.get();
+                isValid = m_Lock.validate( stamp );
+            }
+            catch( final RuntimeException e )
+            {
+                if( m_Lock.validate( stamp ) ) throw e;
+            }
+        }
+
+        if( !isValid )
+        {
+            try( @SuppressWarnings( "unused" ) final var lock = m_ReadLock.lock() )
+            {
+                retValue = reader.get();
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  read()
+
+    /**
+     *  Executes the given reader optimistically, falling back to the
+     *  read lock if a write happened concurrently.
+     *
+     *  @param  reader  The reader; it must not have side effects.
+     *  @return The result of the reader.
+     */
+    public final double readDouble( final DoubleSupplier reader )
+    {
+        requireNonNull( reader );
+        double retValue = 0.0;
+        var isValid = false;
+        final var stamp = m_Lock.tryOptimisticRead();
+        if( stamp != 0L )
+        {
+            try
+            {
+                retValue = reader.getAsDouble();
+                isValid = m_Lock.validate( stamp );
+            }
+            catch( final RuntimeException e )
+            {
+                if( m_Lock.validate( stamp ) ) throw e;
+            }
+        }
+
+        if( !isValid )
+        {
+            try( @SuppressWarnings( "unused" ) final var lock = m_ReadLock.lock() )
+            {
+                retValue = reader.getAsDouble();
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  readDouble()
+
+    /**
+     *  Executes the given reader optimistically, falling back to the
+     *  read lock if a write happened concurrently.
+     *
+     *  @param  reader  The reader; it must not have side effects.
+     *  @return The result of the reader.
+     */
+    public final int readInt( final IntSupplier reader )
+    {
+        requireNonNull( reader );
+        int retValue = 0;
+        var isValid = false;
+        final var stamp = m_Lock.tryOptimisticRead();
+        if( stamp != 0L )
+        {
+            try
+            {
+                retValue = reader.getAsInt();
+                isValid = m_Lock.validate( stamp );
+            }
+            catch( final RuntimeException e )
+            {
+                if( m_Lock.validate( stamp ) ) throw e;
+            }
+        }
+
+        if( !isValid )
+        {
+            try( @SuppressWarnings( "unused" ) final var lock = m_ReadLock.lock() )
+            {
+                retValue = reader.getAsInt();
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  readInt()
+
+    /**
+     *  Executes the given reader optimistically, falling back to the
+     *  read lock if a write happened concurrently.
+     *
+     *  @param  reader  The reader; it must not have side effects.
+     *  @return The result of the reader.
+     */
+    public final long readLong( final LongSupplier reader )
+    {
+        requireNonNull( reader );
+        long retValue = 0L;
+        var isValid = false;
+        final var stamp = m_Lock.tryOptimisticRead();
+        if( stamp != 0L )
+        {
+            try
+            {
+                retValue = reader.getAsLong();
+                isValid = m_Lock.validate( stamp );
+            }
+            catch( final RuntimeException e )
+            {
+                if( m_Lock.validate( stamp ) ) throw e;
+            }
+        }
+
+        if( !isValid )
+        {
+            try( @SuppressWarnings( "unused" ) final var lock = m_ReadLock.lock() )
+            {
+                retValue = reader.getAsLong();
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  readLong()
+}
+//  class AutoStampedLock
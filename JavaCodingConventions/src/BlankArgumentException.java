@@ -2,6 +2,8 @@ package org.tquadrat.foundation.exception;
 
 import java.io.Serial;
 
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
 /**
  *  This is a specialized implementation for the
  *  {@link IllegalArgumentException}
@@ -15,6 +17,11 @@ public final class BlankArgumentException extends NullArgumentException
         /*------------------------*\
     ====** Static Initialisations **=================================
         \*------------------------*/
+    /**
+     *  The message template for the name of the argument.
+     */
+    private static final MessageTemplate MSG_BlankArgument = MessageTemplate.compile( "Argument '%1$s' must not be blank" );
+
     /**
      *  The serial version UID for objects of this class: {@value}.
      *
@@ -41,7 +48,7 @@ public final class BlankArgumentException extends NullArgumentException
      */
     public BlankArgumentException( final String argName )
     {
-        super( argName, "Argument '%1$s' must not be blank", "Argument must not be blank" );
+        super( argName, MSG_BlankArgument, "Argument must not be blank" );
     }   //  BlankArgumentException()
 }
 //  class BlankArgumentException
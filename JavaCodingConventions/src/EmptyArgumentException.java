@@ -2,6 +2,8 @@ package org.tquadrat.foundation.exception;
 
 import java.io.Serial;
 
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
 /**
  *  This is a specialized implementation for the
  *  {@link IllegalArgumentException}
@@ -17,6 +19,11 @@ public final class EmptyArgumentException extends NullArgumentException
         /*------------------------*\
     ====** Static Initialisations **=================================
         \*------------------------*/
+    /**
+     *  The message template for the name of the argument.
+     */
+    private static final MessageTemplate MSG_EmptyArgument = MessageTemplate.compile( "Argument '%1$s' must not be empty" );
+
     /**
      *  The serial version UID for objects of this class: {@value}.
      *
@@ -43,7 +50,7 @@ public final class EmptyArgumentException extends NullArgumentException
      */
     public EmptyArgumentException( final String argName )
     {
-        super( argName, "Argument '%1$s' must not be empty", "Argument must not be empty" );
+        super( argName, MSG_EmptyArgument, "Argument must not be empty" );
     }   //  EmptyArgumentException()
 }
 //  class EmptyArgumentException
@@ -0,0 +1,447 @@
+package org.tquadrat.foundation.exception;
+
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+/**
+ *  <p>{@summary Counts how often the exceptions of the
+ *  {@link ValidationException}
+ *  hierarchy and the
+ *  {@link UnsupportedEnumError}
+ *  are thrown, and where.}</p>
+ *  <p>While the monitor is
+ *  {@linkplain #enable() enabled},
+ *  each exception will be counted by its class. In addition, a sample
+ *  of the exceptions – one in
+ *  {@linkplain #setSampling(int, int) N},
+ *  chosen randomly – will be assigned to its throw site, the location
+ *  where it was created. For at most K samples per minute and throw
+ *  site, the stack trace will be captured and emitted as the JFR event
+ *  {@code org.tquadrat.foundation.exception.ExceptionThrown}; so the
+ *  hot throw sites can be found without capturing a stack trace for
+ *  each exception. With N = 1, this captures the first K exceptions
+ *  per minute for each throw site.</p>
+ *  <p>The counts per class are emitted as the periodic JFR event
+ *  {@code org.tquadrat.foundation.exception.ExceptionStatistics},
+ *  and they can be retrieved, together with the throw sites, through
+ *  {@link #statistics()}.</p>
+ *  <p>When the system property
+ *  {@value #PROPERTY_ENABLED}
+ *  is set to {@code true}, the monitor is enabled from the start;
+ *  {@value #PROPERTY_SAMPLE_RATE}
+ *  and
+ *  {@value #PROPERTY_SAMPLES_PER_MINUTE}
+ *  configure N and K. While the monitor is disabled, it costs no more
+ *  than a single read of a volatile field per exception.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class ExceptionMonitor
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The counters for an exception class.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    private static final class Counters
+    {
+        /**
+         *  The number of exceptions.
+         */
+        final LongAdder m_Count = new LongAdder();
+
+        /**
+         *  The counters for the throw sites.
+         */
+        final Map<StackTraceElement,SiteCounters> m_Sites = new ConcurrentHashMap<>();
+    }
+    //  class Counters
+
+    /**
+     *  The periodic JFR event with the number of exceptions for an
+     *  exception class.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    @Name( "org.tquadrat.foundation.exception.ExceptionStatistics" )
+    @Label( "Exception Statistics" )
+    @Description( "The number of exceptions of a class from the tquadrat exception hierarchy since the monitor was cleared" )
+    @Category( {"tquadrat", "Exceptions"} )
+    @Period( "60 s" )
+    @StackTrace( false )
+    private static final class ExceptionStatisticsEvent extends Event
+    {
+        /**
+         *  The class of the exceptions.
+         */
+        @Label( "Exception Class" )
+        Class<?> exceptionClass;
+
+        /**
+         *  The number of exceptions.
+         */
+        @Label( "Count" )
+        long count;
+    }
+    //  class ExceptionStatisticsEvent
+
+    /**
+     *  The JFR event for a sampled exception; the stack trace is
+     *  recorded by JFR itself.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    @Name( "org.tquadrat.foundation.exception.ExceptionThrown" )
+    @Label( "Exception Thrown" )
+    @Description( "A sampled exception from the tquadrat exception hierarchy" )
+    @Category( {"tquadrat", "Exceptions"} )
+    @StackTrace( true )
+    private static final class ExceptionThrownEvent extends Event
+    {
+        /**
+         *  The class of the exception.
+         */
+        @Label( "Exception Class" )
+        Class<?> exceptionClass;
+
+        /**
+         *  The location where the exception was created.
+         */
+        @Label( "Throw Site" )
+        String throwSite;
+    }
+    //  class ExceptionThrownEvent
+
+    /**
+     *  The statistics for a throw site.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     *
+     *  @param  location    The location where the exceptions were
+     *      created.
+     *  @param  samples The number of samples from this location; the
+     *      estimated number of exceptions is this number multiplied
+     *      with the sample rate.
+     *  @param  stackTrace  The last captured stack trace.
+     */
+    public record Site( StackTraceElement location, long samples, List<StackTraceElement> stackTrace ) {}
+
+    /**
+     *  The counters for a throw site.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    private static final class SiteCounters
+    {
+        /**
+         *  The number of captured stack traces in the current window.
+         */
+        final AtomicInteger m_Captured = new AtomicInteger();
+
+        /**
+         *  The number of samples.
+         */
+        final LongAdder m_Samples = new LongAdder();
+
+        /**
+         *  The last captured stack trace.
+         */
+        volatile StackTraceElement [] m_StackTrace = new StackTraceElement [0];
+
+        /**
+         *  The current window, as the number of minutes on the scale
+         *  of
+         *  {@link System#nanoTime()}.
+         */
+        final AtomicLong m_Window = new AtomicLong( -1L );
+
+        /**
+         *  Checks whether the stack trace for another sample may be
+         *  captured in the current window. Concurrent calls at the
+         *  change of the window may exceed the limit slightly.
+         *
+         *  @param  window  The current window.
+         *  @param  limit   The maximum number of stack traces per
+         *      window.
+         *  @return {@code true} if the stack trace may be captured,
+         *      {@code false} otherwise.
+         */
+        final boolean admit( final long window, final int limit )
+        {
+            final var current = m_Window.get();
+            if( (current != window) && m_Window.compareAndSet( current, window ) ) m_Captured.set( 0 );
+            final var retValue = m_Captured.incrementAndGet() <= limit;
+
+            //---* Done *------------------------------------------------
+            return retValue;
+        }   //  admit()
+    }
+    //  class SiteCounters
+
+    /**
+     *  The statistics for an exception class.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     *
+     *  @param  type    The exception class.
+     *  @param  count   The number of exceptions.
+     *  @param  sites   The throw sites, by the number of samples in
+     *      descending order.
+     */
+    public record Statistics( Class<? extends Throwable> type, long count, List<Site> sites ) {}
+
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The maximum number of frames for a captured stack trace:
+     *  {@value}.
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     *  The name of the system property that enables the monitor from
+     *  the start: {@value}.
+     */
+    public static final String PROPERTY_ENABLED = "org.tquadrat.foundation.exception.ExceptionMonitor.enabled";
+
+    /**
+     *  The name of the system property for the sample rate: {@value}.
+     */
+    public static final String PROPERTY_SAMPLE_RATE = "org.tquadrat.foundation.exception.ExceptionMonitor.sampleRate";
+
+    /**
+     *  The name of the system property for the maximum number of
+     *  captured stack traces per minute and throw site: {@value}.
+     */
+    public static final String PROPERTY_SAMPLES_PER_MINUTE = "org.tquadrat.foundation.exception.ExceptionMonitor.samplesPerMinute";
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The counters, by exception class.
+     */
+    private static final Map<Class<?>,Counters> m_Counters = new ConcurrentHashMap<>();
+
+    /**
+     *  The flag that indicates whether the monitor is enabled.
+     */
+    private static volatile boolean m_IsEnabled = Boolean.getBoolean( PROPERTY_ENABLED );
+
+    /**
+     *  The flag that indicates whether the periodic JFR event was
+     *  registered already.
+     */
+    private static final AtomicBoolean m_IsRegistered = new AtomicBoolean( false );
+
+    /**
+     *  The sample rate; one in this number of exceptions will be
+     *  sampled.
+     */
+    private static volatile int m_SampleRate = Math.max( 1, Integer.getInteger( PROPERTY_SAMPLE_RATE, 100 ) );
+
+    /**
+     *  The maximum number of captured stack traces per minute and
+     *  throw site.
+     */
+    private static volatile int m_SamplesPerMinute = Math.max( 0, Integer.getInteger( PROPERTY_SAMPLES_PER_MINUTE, 10 ) );
+
+    static
+    {
+        if( m_IsEnabled ) registerPeriodicEvent();
+    }
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  No instance allowed for this class.
+     */
+    private ExceptionMonitor() { throw new AssertionError( "No instance allowed" ); }
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Discards all counters.
+     */
+    public static final void clear() { m_Counters.clear(); }
+
+    /**
+     *  Counts the given exception, and takes a sample, if it was
+     *  selected.
+     *
+     *  @param  throwable   The exception.
+     */
+    private static final void count( final Throwable throwable )
+    {
+        final var counters = m_Counters.computeIfAbsent( throwable.getClass(), type -> new Counters() );
+        counters.m_Count.increment();
+        final var sampleRate = m_SampleRate;
+        if( (sampleRate == 1) || (ThreadLocalRandom.current().nextInt( sampleRate ) == 0) )
+        {
+            final var throwSite = StackTracePolicy.throwSite();
+            if( throwSite != null )
+            {
+                final var site = counters.m_Sites.computeIfAbsent( throwSite, location -> new SiteCounters() );
+                site.m_Samples.increment();
+                if( site.admit( System.nanoTime() / 60_000_000_000L, m_SamplesPerMinute ) )
+                {
+                    site.m_StackTrace = StackTracePolicy.capture( MAX_DEPTH );
+                    final var event = new ExceptionThrownEvent();
+                    if( event.shouldCommit() )
+                    {
+                        event.exceptionClass = throwable.getClass();
+                        event.throwSite = throwSite.toString();
+                        event.commit();
+                    }
+                }
+            }
+        }
+    }   //  count()
+
+    /**
+     *  Disables the monitor.
+     */
+    public static final void disable() { m_IsEnabled = false; }
+
+    /**
+     *  Enables the monitor.
+     */
+    public static final void enable()
+    {
+        registerPeriodicEvent();
+        m_IsEnabled = true;
+    }   //  enable()
+
+    /**
+     *  Checks whether the monitor is enabled.
+     *
+     *  @return {@code true} if the monitor is enabled, {@code false}
+     *      otherwise.
+     */
+    public static final boolean isEnabled() { return m_IsEnabled; }
+
+    /**
+     *  Counts the given exception, if the monitor is enabled; this is
+     *  called when the exception is created.
+     *
+     *  @param  throwable   The exception.
+     */
+    static final void record( final Throwable throwable )
+    {
+        if( m_IsEnabled ) count( throwable );
+    }   //  record()
+
+    /**
+     *  Registers the periodic JFR event with the counts, if that was
+     *  not done before.
+     */
+    private static final void registerPeriodicEvent()
+    {
+        if( m_IsRegistered.compareAndSet( false, true ) )
+        {
+            FlightRecorder.addPeriodicEvent( ExceptionStatisticsEvent.class, () ->
+            {
+                for( final var entry : m_Counters.entrySet() )
+                {
+                    final var event = new ExceptionStatisticsEvent();
+                    event.exceptionClass = entry.getKey();
+                    event.count = entry.getValue().m_Count.sum();
+                    event.commit();
+                }
+            } );
+        }
+    }   //  registerPeriodicEvent()
+
+    /**
+     *  Sets the sampling for the throw sites.
+     *
+     *  @param  sampleRate  One in this number of exceptions will be
+     *      sampled; 1 means that each exception is sampled.
+     *  @param  samplesPerMinute    The maximum number of stack traces
+     *      that will be captured per minute and throw site.
+     *  @throws ValidationException {@code sampleRate} is less than 1,
+     *      or {@code samplesPerMinute} is negative.
+     */
+    public static final void setSampling( final int sampleRate, final int samplesPerMinute ) throws ValidationException
+    {
+        if( sampleRate < 1 ) throw new ValidationException( "Argument 'sampleRate' must be greater than 0" );
+        if( samplesPerMinute < 0 ) throw new ValidationException( "Argument 'samplesPerMinute' must not be negative" );
+        m_SampleRate = sampleRate;
+        m_SamplesPerMinute = samplesPerMinute;
+    }   //  setSampling()
+
+    /**
+     *  Returns the statistics for all exception classes.
+     *
+     *  @return The statistics, by exception class.
+     */
+    public static final Map<Class<? extends Throwable>,Statistics> statistics()
+    {
+        final var retValue = m_Counters.entrySet().stream()
+            .map( entry -> toStatistics( entry.getKey(), entry.getValue() ) )
+            .collect( Collectors.toUnmodifiableMap( Statistics::type, statistics -> statistics ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  statistics()
+
+    /**
+     *  Returns the statistics for the given exception class.
+     *
+     *  @param  type    The exception class.
+     *  @return An instance of
+     *      {@link Optional}
+     *      that holds the statistics.
+     */
+    public static final Optional<Statistics> statistics( final Class<? extends Throwable> type )
+    {
+        return Optional.ofNullable( m_Counters.get( requireNonNullArgument( type, "type" ) ) ).map( counters -> toStatistics( type, counters ) );
+    }   //  statistics()
+
+    /**
+     *  Creates a snapshot from the given counters.
+     *
+     *  @param  type    The exception class.
+     *  @param  counters    The counters.
+     *  @return The statistics.
+     */
+    @SuppressWarnings( "unchecked" )
+    private static final Statistics toStatistics( final Class<?> type, final Counters counters )
+    {
+        final var sites = counters.m_Sites.entrySet().stream()
+            .map( entry -> new Site( entry.getKey(), entry.getValue().m_Samples.sum(), List.copyOf( Arrays.asList( entry.getValue().m_StackTrace ) ) ) )
+            .sorted( (site1, site2) -> Long.compare( site2.samples(), site1.samples() ) )
+            .toList();
+        final var retValue = new Statistics( (Class<? extends Throwable>) type, counters.m_Count.sum(), sites );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toStatistics()
+}
+//  class ExceptionMonitor
@@ -0,0 +1,120 @@
+package org.tquadrat.foundation.lang;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.tquadrat.foundation.lang.internal.ExpiringLazyImpl;
+
+/**
+ *  <p>{@summary A
+ *  {@link Lazy}
+ *  whose value expires after a configurable time to live.}</p>
+ *  <p>Different from the instances returned by
+ *  {@link Lazy#use(Supplier)},
+ *  an {@code ExpiringLazy} keeps its supplier, so the value can be
+ *  computed again when it has expired or was
+ *  {@linkplain #invalidate() invalidated}.</p>
+ *  <p>When the value has passed the configured <i>refresh
+ *  age</i>, a call to
+ *  {@link #get()}
+ *  triggers a refresh in the background and returns the current
+ *  (stale) value without blocking. Only when the value has passed its
+ *  time to live without being refreshed in between (because there was
+ *  no access to it), or after it was invalidated,
+ *  {@link #get()}
+ *  will block until the supplier returned the new value.</p>
+ *  <p>When the background refresh fails, the stale value will be kept
+ *  and the next call to
+ *  {@link #get()}
+ *  triggers another attempt; the failures are counted, and the last
+ *  one is kept, see
+ *  {@link #getRefreshFailureCount()}
+ *  and
+ *  {@link #getLastRefreshFailure()}.
+ *  A background refresh will not overwrite a value that was
+ *  invalidated or loaded again in the meantime.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @param  <T> The type of the value for this instance of
+ *      {@code ExpiringLazy}.
+ */
+public sealed interface ExpiringLazy<T> extends Lazy<T>
+    permits org.tquadrat.foundation.lang.internal.ExpiringLazyImpl
+{
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Returns the exception that was thrown by the supplier on the
+     *  last failed background refresh.
+     *
+     *  @return An instance of
+     *      {@link Optional}
+     *      that holds the exception.
+     */
+    public Optional<RuntimeException> getLastRefreshFailure();
+
+    /**
+     *  Returns the number of failed background refreshes.
+     *
+     *  @return The number of failures.
+     */
+    public long getRefreshFailureCount();
+
+    /**
+     *  Discards the current value; the next call to
+     *  {@link #get()}
+     *  will compute it again.
+     */
+    public void invalidate();
+
+    /**
+     *  {@inheritDoc}
+     *  <p>For an {@code ExpiringLazy}, this returns {@code true} only
+     *  when the value has not yet expired.</p>
+     */
+    @Override
+    public boolean isPresent();
+
+    /**
+     *  Creates a new {@code ExpiringLazy} instance that uses the given
+     *  supplier to initialise and to refresh the value. The background
+     *  refresh is performed on a virtual thread.
+     *
+     *  @param  <T> The type of the value for the new instance of
+     *      {@code ExpiringLazy}.
+     *  @param  supplier    The supplier for the value.
+     *  @param  timeToLive  The time after that the value expires.
+     *  @param  refreshAfter    The age of the value after that a
+     *      background refresh is triggered; it must not be greater
+     *      than {@code timeToLive}.
+     *  @return The new instance.
+     */
+    public static <T> ExpiringLazy<T> use( final Supplier<T> supplier, final Duration timeToLive, final Duration refreshAfter )
+    {
+        return new ExpiringLazyImpl<>( supplier, timeToLive, refreshAfter, Thread::startVirtualThread );
+    }   //  use()
+
+    /**
+     *  Creates a new {@code ExpiringLazy} instance that uses the given
+     *  supplier to initialise and to refresh the value.
+     *
+     *  @param  <T> The type of the value for the new instance of
+     *      {@code ExpiringLazy}.
+     *  @param  supplier    The supplier for the value.
+     *  @param  timeToLive  The time after that the value expires.
+     *  @param  refreshAfter    The age of the value after that a
+     *      background refresh is triggered; it must not be greater
+     *      than {@code timeToLive}.
+     *  @param  executor    The executor for the background refresh.
+     *  @return The new instance.
+     */
+    public static <T> ExpiringLazy<T> use( final Supplier<T> supplier, final Duration timeToLive, final Duration refreshAfter, final Executor executor )
+    {
+        return new ExpiringLazyImpl<>( supplier, timeToLive, refreshAfter, executor );
+    }   //  use()
+}
+//  interface ExpiringLazy
@@ -0,0 +1,415 @@
+package org.tquadrat.foundation.lang.internal;
+
+import static org.tquadrat.foundation.lang.CommonConstants.NULL_STRING;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.tquadrat.foundation.exception.ValidationException;
+import org.tquadrat.foundation.lang.ExpiringLazy;
+import org.tquadrat.foundation.lang.Lazy;
+import org.tquadrat.foundation.lang.Objects;
+
+/**
+ *  <p>{@summary The implementation of the interface
+ *  {@link ExpiringLazy}.}</p>
+ *  <p>The value is held together with its load time in an immutable
+ *  {@link Entry}
+ *  that is published through a
+ *  {@link VarHandle}
+ *  with acquire/release semantics, like
+ *  {@link LazyImpl}
+ *  does it for its value. As long as the value is fresh,
+ *  {@link #get()}
+ *  neither locks nor allocates. A synchronous load is coordinated
+ *  without a monitor, in the same way as
+ *  {@link LazyImpl}
+ *  does it for the mode
+ *  {@link LazyImpl.Mode#SYNCHRONIZED}.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @param  <T> The type of the value for this instance of
+ *      {@code ExpiringLazy}.
+ */
+public final class ExpiringLazyImpl<T> implements ExpiringLazy<T>
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The value together with the time when it was loaded.
+     *
+     *  @param  <T> The type of the value.
+     *  @param  value   The value.
+     *  @param  loadTime    The time when the value was loaded, as
+     *      returned by
+     *      {@link System#nanoTime()}.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    private record Entry<T>( T value, long loadTime ) {}
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The current entry; it is {@code null} if the value was not yet
+     *  loaded, or if it was invalidated. It will be accessed only
+     *  through
+     *  {@link #m_EntryHandle}.
+     */
+    @SuppressWarnings( "unused" )
+    private Entry<T> m_Entry;
+
+    /**
+     *  The executor for the background refresh.
+     */
+    private final Executor m_Executor;
+
+    /**
+     *  The exception from the last failed background refresh; can be
+     *  {@code null}.
+     */
+    private volatile RuntimeException m_LastRefreshFailure;
+
+    /**
+     *  The running synchronous load; it is {@code null} if there is
+     *  none. It will be accessed only through
+     *  {@link #m_LoadingHandle}.
+     */
+    @SuppressWarnings( "unused" )
+    private LazyImpl.Initialisation m_Loading;
+
+    /**
+     *  The age in nanoseconds after that a background refresh will be
+     *  triggered.
+     */
+    private final long m_RefreshAfter;
+
+    /**
+     *  The number of failed background refreshes.
+     */
+    private final LongAdder m_RefreshFailures;
+
+    /**
+     *  The flag that indicates that a background refresh is running.
+     *  It will be accessed only through
+     *  {@link #m_RefreshingHandle}.
+     */
+    @SuppressWarnings( "unused" )
+    private boolean m_Refreshing;
+
+    /**
+     *  The supplier for the value.
+     */
+    private final Supplier<T> m_Supplier;
+
+    /**
+     *  The time to live for the value, in nanoseconds.
+     */
+    private final long m_TimeToLive;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The handle for
+     *  {@link #m_Entry}.
+     */
+    private static final VarHandle m_EntryHandle;
+
+    /**
+     *  The handle for
+     *  {@link #m_Loading}.
+     */
+    private static final VarHandle m_LoadingHandle;
+
+    /**
+     *  The handle for
+     *  {@link #m_Refreshing}.
+     */
+    private static final VarHandle m_RefreshingHandle;
+
+    static
+    {
+        try
+        {
+            final var lookup = MethodHandles.lookup();
+            m_EntryHandle = lookup.findVarHandle( ExpiringLazyImpl.class, "m_Entry", Entry.class );
+            m_LoadingHandle = lookup.findVarHandle( ExpiringLazyImpl.class, "m_Loading", LazyImpl.Initialisation.class );
+            m_RefreshingHandle = lookup.findVarHandle( ExpiringLazyImpl.class, "m_Refreshing", boolean.class );
+        }
+        catch( final NoSuchFieldException | IllegalAccessException e )
+        {
+            throw new ExceptionInInitializerError( e );
+        }
+    }
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code ExpiringLazyImpl} instance.
+     *
+     *  @param  supplier    The supplier for the value.
+     *  @param  timeToLive  The time after that the value expires.
+     *  @param  refreshAfter    The age of the value after that a
+     *      background refresh is triggered.
+     *  @param  executor    The executor for the background refresh.
+     *  @throws ValidationException   {@code timeToLive} is not
+     *      positive, or {@code refreshAfter} is negative or greater
+     *      than {@code timeToLive}.
+     */
+    public ExpiringLazyImpl( final Supplier<T> supplier, final Duration timeToLive, final Duration refreshAfter, final Executor executor ) throws ValidationException
+    {
+        m_Supplier = requireNonNullArgument( supplier, "supplier" );
+        m_TimeToLive = requireNonNullArgument( timeToLive, "timeToLive" ).toNanos();
+        m_RefreshAfter = requireNonNullArgument( refreshAfter, "refreshAfter" ).toNanos();
+        m_Executor = requireNonNullArgument( executor, "executor" );
+        m_LastRefreshFailure = null;
+        m_RefreshFailures = new LongAdder();
+
+        if( m_TimeToLive <= 0 ) throw new ValidationException( "Argument 'timeToLive' must be positive" );
+        if( (m_RefreshAfter < 0) || (m_RefreshAfter > m_TimeToLive) ) throw new ValidationException( "Argument 'refreshAfter' must be between zero and 'timeToLive'" );
+    }   //  ExpiringLazyImpl()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Returns the current entry if it has not yet expired.
+     *
+     *  @return The entry, or {@code null} if there is none or if it
+     *      has expired.
+     */
+    private final Entry<T> currentEntry()
+    {
+        @SuppressWarnings( "unchecked" )
+        var retValue = (Entry<T>) m_EntryHandle.getAcquire( this );
+        if( nonNull( retValue ) && (System.nanoTime() - retValue.loadTime() >= m_TimeToLive) ) retValue = null;
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  currentEntry()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean equals( final Object obj )
+    {
+        var retValue = this == obj;
+        if( !retValue && nonNull( obj ) )
+        {
+            if( obj instanceof Lazy<?> other )
+            {
+                retValue = get().equals( other.get() );
+            }
+            else
+            {
+                retValue = get().equals( obj );
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  equals()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final T get()
+    {
+        @SuppressWarnings( "unchecked" )
+        var entry = (Entry<T>) m_EntryHandle.getAcquire( this );
+        final var now = System.nanoTime();
+        if( isNull( entry ) || (now - entry.loadTime() >= m_TimeToLive) )
+        {
+            entry = load();
+        }
+        else if( now - entry.loadTime() >= m_RefreshAfter )
+        {
+            refresh( entry );
+        }
+
+        //---* Done *------------------------------------------------
+        return entry.value();
+    }   //  get()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Optional<RuntimeException> getLastRefreshFailure() { return Optional.ofNullable( m_LastRefreshFailure ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final long getRefreshFailureCount() { return m_RefreshFailures.sum(); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final int hashCode() { return get().hashCode(); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void invalidate() { m_EntryHandle.setRelease( this, null ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean isPresent() { return nonNull( currentEntry() ); }
+
+    /**
+     *  Loads the value synchronously; this is the slow path for
+     *  {@link #get()}.
+     *
+     *  @return The new entry.
+     */
+    private final Entry<T> load()
+    {
+        //---* See LazyImpl.Initialisation for the latch *-----------
+        var retValue = currentEntry();
+        while( isNull( retValue ) )
+        {
+            final var running = (LazyImpl.Initialisation) m_LoadingHandle.getAcquire( this );
+            if( nonNull( running ) )
+            {
+                if( running.owner() == Thread.currentThread() ) throw new IllegalStateException( "Recursive initialisation" );
+                LazyImpl.awaitUninterruptibly( running.done() );
+            }
+            else
+            {
+                final var loading = new LazyImpl.Initialisation( Thread.currentThread(), new CountDownLatch( 1 ), null );
+                if( m_LoadingHandle.compareAndSet( this, null, loading ) )
+                {
+                    try
+                    {
+                        /*
+                         * Another thread may have loaded the value
+                         * meanwhile.
+                         */
+                        retValue = currentEntry();
+                        if( isNull( retValue ) )
+                        {
+                            retValue = new Entry<>( m_Supplier.get(), System.nanoTime() );
+                            m_EntryHandle.setRelease( this, retValue );
+                        }
+                    }
+                    finally
+                    {
+                        m_LoadingHandle.setRelease( this, null );
+                        loading.done().countDown();
+                    }
+                }
+            }
+            if( isNull( retValue ) ) retValue = currentEntry();
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  load()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public <X extends Throwable> T orElseThrow( final Supplier<? extends X> exceptionSupplier ) throws X
+    {
+        final var entry = currentEntry();
+        if( isNull( entry ) ) throw exceptionSupplier.get();
+
+        //---* Done *------------------------------------------------
+        return entry.value();
+    }   //  orElseThrow()
+
+    /**
+     *  Triggers the background refresh, unless there is already one
+     *  running. The new entry replaces the given one only if that is
+     *  still the current entry; so a value that was invalidated or
+     *  loaded again in the meantime wins.
+     *
+     *  @param  observed    The entry that triggered the refresh.
+     */
+    private final void refresh( final Entry<T> observed )
+    {
+        if( m_RefreshingHandle.compareAndSet( this, false, true ) )
+        {
+            var submitted = false;
+            try
+            {
+                m_Executor.execute( () ->
+                {
+                    try
+                    {
+                        final var fresh = new Entry<>( m_Supplier.get(), System.nanoTime() );
+                        m_EntryHandle.compareAndSet( this, observed, fresh );
+                    }
+                    catch( final RuntimeException e )
+                    {
+                        /*
+                         * The stale value is kept; the next call to
+                         * get() will trigger another attempt.
+                         */
+                        m_LastRefreshFailure = e;
+                        m_RefreshFailures.increment();
+                    }
+                    finally
+                    {
+                        m_RefreshingHandle.setRelease( this, false );
+                    }
+                } );
+                submitted = true;
+            }
+            catch( @SuppressWarnings( "unused" ) final RejectedExecutionException e )
+            {
+                /*
+                 * The stale value is kept; the next call to get() will
+                 * try again.
+                 */
+            }
+            finally
+            {
+                /*
+                 * Whatever prevented the submission, the flag must not
+                 * stay set, or there will be no refresh ever again.
+                 */
+                if( !submitted ) m_RefreshingHandle.setRelease( this, false );
+            }
+        }
+    }   //  refresh()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String toString()
+    {
+        final var entry = currentEntry();
+        final var retValue = isNull( entry )
+            ? "[Not initialized]"
+            : Objects.toString( entry.value(), NULL_STRING );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toString()
+}
+//  class ExpiringLazyImpl
@@ -0,0 +1,378 @@
+package org.tquadrat.util.concurrent;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
+/**
+ *  An
+ *  {@link AutoLock}
+ *  that records the wait and the hold times for the wrapped lock.
+ *
+ *  Each successful call to
+ *  {@link #lock()}
+ *  or
+ *  {@link #tryLock(Duration)}
+ *  returns a new
+ *  {@link Acquisition}
+ *  instance that remembers when the lock was acquired; closing it
+ *  records the hold time. This works for shared locks, like the read
+ *  lock of a
+ *  {@link java.util.concurrent.locks.ReadWriteLock ReadWriteLock},
+ *  as well as for reentrant locks. Closing the
+ *  {@code InstrumentedAutoLock} itself instead of the returned handle
+ *  releases the lock without recording the hold time.
+ *
+ *  Objects of this class will only be created by
+ *  {@link AutoLock#of(String, Lock)}
+ *  while the instrumentation is enabled; as long as no such object
+ *  exists, this class will not even be loaded, and the calls to
+ *  {@link AutoLock#lock()}
+ *  and
+ *  {@link AutoLock#close()}
+ *  remain monomorphic.
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+final class InstrumentedAutoLock extends AutoLock
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The handle for a single acquisition of the lock.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    private static final class Acquisition extends AutoLock
+    {
+            /*------------*\
+        ====** Attributes **=========================================
+            \*------------*/
+        /**
+         *  The time when the lock was acquired, as returned by
+         *  {@link System#nanoTime()}.
+         */
+        private final long m_Acquired;
+
+        /**
+         *  The JFR event.
+         */
+        private final LockEvent m_Event;
+
+        /**
+         *  The lock that was acquired.
+         */
+        private final InstrumentedAutoLock m_Parent;
+
+            /*--------------*\
+        ====** Constructors **=======================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code Acquisition} instance.
+         *
+         *  @param  parent  The lock that was acquired.
+         *  @param  acquired    The time when the lock was acquired.
+         *  @param  event   The JFR event.
+         */
+        Acquisition( final InstrumentedAutoLock parent, final long acquired, final LockEvent event )
+        {
+            super( parent.getLock(), parent.getNode() );
+            m_Parent = parent;
+            m_Acquired = acquired;
+            m_Event = event;
+        }   //  Acquisition()
+
+            /*---------*\
+        ====** Methods **============================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void close()
+        {
+            final var holdTime = System.nanoTime() - m_Acquired;
+            super.close();
+            m_Parent.m_Metrics.m_HoldTimes.record( holdTime );
+            m_Event.end();
+            if( m_Event.shouldCommit() )
+            {
+                m_Event.holdTime = holdTime;
+                m_Event.commit();
+            }
+        }   //  close()
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final AutoLock lock() { return m_Parent.lock(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final AutoLock tryLock( final Duration timeout ) throws InterruptedException, TimeoutException
+        {
+            return m_Parent.tryLock( timeout );
+        }   //  tryLock()
+    }
+    //  class Acquisition
+
+    /**
+     *  The JFR event for the use of a named lock. Its duration spans
+     *  the time from the request for the lock until its release.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    @Name( "org.tquadrat.util.concurrent.LockUse" )
+    @Label( "Lock Use" )
+    @Description( "The acquisition and the release of a named AutoLock" )
+    @Category( {"tquadrat", "Locks"} )
+    static final class LockEvent extends Event
+    {
+        /**
+         *  The name of the lock.
+         */
+        @Label( "Name" )
+        String name;
+
+        /**
+         *  The flag that indicates that the lock was not available
+         *  immediately.
+         */
+        @Label( "Contended" )
+        boolean contended;
+
+        /**
+         *  The time spent waiting for the lock.
+         */
+        @Label( "Wait Time" )
+        @Timespan( Timespan.NANOSECONDS )
+        long waitTime;
+
+        /**
+         *  The time the lock was held.
+         */
+        @Label( "Hold Time" )
+        @Timespan( Timespan.NANOSECONDS )
+        long holdTime;
+    }
+    //  class LockEvent
+
+    /**
+     *  The metrics for all locks with the same name.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    static final class Metrics
+    {
+            /*------------*\
+        ====** Attributes **=========================================
+            \*------------*/
+        /**
+         *  The number of acquisitions.
+         */
+        final LongAdder m_Acquisitions = new LongAdder();
+
+        /**
+         *  The number of acquisitions that had to wait.
+         */
+        final LongAdder m_Contentions = new LongAdder();
+
+        /**
+         *  The hold times.
+         */
+        final LockHistogram m_HoldTimes = new LockHistogram();
+
+        /**
+         *  The number of timed out attempts.
+         */
+        final LongAdder m_Timeouts = new LongAdder();
+
+        /**
+         *  The wait times.
+         */
+        final LockHistogram m_WaitTimes = new LockHistogram();
+
+            /*---------*\
+        ====** Methods **============================================
+            \*---------*/
+        /**
+         *  Resets all counters and histograms to zero.
+         */
+        final void reset()
+        {
+            m_Acquisitions.reset();
+            m_Contentions.reset();
+            m_HoldTimes.reset();
+            m_Timeouts.reset();
+            m_WaitTimes.reset();
+        }   //  reset()
+    }
+    //  class Metrics
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The metrics for this lock.
+     */
+    private final Metrics m_Metrics;
+
+    /**
+     *  The name of this lock.
+     */
+    private final String m_Name;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The message for a lock that was not acquired in time.
+     */
+    private static final MessageTemplate MSG_Timeout = MessageTemplate.compile( "Lock '%1$s' not acquired within %2$s" );
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code InstrumentedAutoLock} object.
+     *
+     *  @param  name    The name of the lock.
+     *  @param  lock    The wrapped lock.
+     */
+    InstrumentedAutoLock( final String name, final Lock lock )
+    {
+        super( lock, LockOrderTracker.node( requireNonNull( name ), requireNonNull( lock ) ) );
+        m_Name = name;
+        m_Metrics = LockMonitor.metrics( name );
+    }   //  InstrumentedAutoLock()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Records the acquisition of the lock.
+     *
+     *  @param  event   The JFR event.
+     *  @param  start   The time when the lock was requested.
+     *  @param  contended   {@code true} if the lock was not available
+     *      immediately, {@code false} otherwise.
+     *  @return The handle for the acquisition.
+     */
+    private final Acquisition acquired( final LockEvent event, final long start, final boolean contended )
+    {
+        final var acquired = System.nanoTime();
+        final var waitTime = acquired - start;
+        if( LockOrderTracker.isEnabled() ) LockOrderTracker.acquired( getNode() );
+        m_Metrics.m_Acquisitions.increment();
+        if( contended ) m_Metrics.m_Contentions.increment();
+        m_Metrics.m_WaitTimes.record( waitTime );
+        event.name = m_Name;
+        event.contended = contended;
+        event.waitTime = waitTime;
+        final var retValue = new Acquisition( this, acquired, event );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  acquired()
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @return The handle for this acquisition of the lock; it has to
+     *      be closed to release the lock.
+     */
+    @Override
+    public final AutoLock lock()
+    {
+        if( LockOrderTracker.isEnabled() ) LockOrderTracker.beforeLock( getNode() );
+        final var event = new LockEvent();
+        event.begin();
+        final var start = System.nanoTime();
+        final var lock = getLock();
+        final var contended = !poll( lock );
+        if( contended ) lock.lock();
+
+        //---* Done *------------------------------------------------
+        return acquired( event, start, contended );
+    }   //  lock()
+
+    /**
+     *  Tries to acquire the given lock without waiting, to find out
+     *  whether it is contended. Unlike
+     *  {@link Lock#tryLock()},
+     *  the timed
+     *  {@link Lock#tryLock(long, java.util.concurrent.TimeUnit) tryLock()}
+     *  honours the fairness setting of the lock, so a thread does not
+     *  barge ahead of the queued ones.
+     *
+     *  @param  lock    The lock.
+     *  @return {@code true} if the lock was acquired, {@code false}
+     *      otherwise.
+     */
+    private static final boolean poll( final Lock lock )
+    {
+        var retValue = false;
+        try
+        {
+            retValue = lock.tryLock( 0, NANOSECONDS );
+        }
+        catch( final InterruptedException e )
+        {
+            /*
+             * The interrupt does not say anything about the lock;
+             * the untimed tryLock() ignores it, and the interrupt
+             * status is restored for the caller.
+             */
+            retValue = lock.tryLock();
+            Thread.currentThread().interrupt();
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  poll()
+
+    /**
+     *  {@inheritDoc}
+     *
+     *  @return The handle for this acquisition of the lock; it has to
+     *      be closed to release the lock.
+     */
+    @Override
+    public final AutoLock tryLock( final Duration timeout ) throws InterruptedException, TimeoutException
+    {
+        requireNonNull( timeout );
+        if( LockOrderTracker.isEnabled() ) LockOrderTracker.beforeLock( getNode() );
+        final var event = new LockEvent();
+        event.begin();
+        final var start = System.nanoTime();
+        final var lock = getLock();
+        final var contended = !lock.tryLock( 0, NANOSECONDS );
+        if( contended && !lock.tryLock( timeout.toNanos(), NANOSECONDS ) )
+        {
+            m_Metrics.m_Timeouts.increment();
+            m_Metrics.m_Contentions.increment();
+            throw new TimeoutException( MSG_Timeout.format( m_Name, timeout ) );
+        }
+
+        //---* Done *------------------------------------------------
+        return acquired( event, start, contended );
+    }   //  tryLock()
+}
+//  class InstrumentedAutoLock
@@ -1,8 +1,16 @@
 package org.tquadrat.foundation.lang;
 
+import static org.tquadrat.foundation.lang.AsyncLazy.FailurePolicy.MEMOISE;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.lang.Objects.requireNotBlankArgument;
+import static org.tquadrat.foundation.lang.internal.LazyImpl.Mode.PUBLICATION;
+import static org.tquadrat.foundation.lang.internal.LazyImpl.Mode.SYNCHRONIZED;
+import static org.tquadrat.foundation.lang.internal.LazyImpl.Mode.THREAD_CONFINED;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -23,6 +31,17 @@ import org.tquadrat.foundation.lang.internal.LazyImpl;
  *  <p>Use
  *  {@link #isPresent()}
  *  to avoid unnecessary initialisation.</p>
+ *  <p>The instances returned by
+ *  {@link #use(Supplier)}
+ *  call the supplier at most once, even when accessed concurrently;
+ *  {@link #usePublication(Supplier)}
+ *  and
+ *  {@link #useThreadConfined(Supplier)}
+ *  provide cheaper alternatives for special cases, and
+ *  {@link #of(Object)}
+ *  returns an instance that is initialised already. In all cases,
+ *  {@link #get()}
+ *  neither locks nor allocates after the initialisation.</p>
  *  <p>As a lazy initialisation makes the value unpredictable, it is 
  *  necessary that the implementations of
  *  {@link #equals(Object)}
@@ -42,7 +61,7 @@ import org.tquadrat.foundation.lang.internal.LazyImpl;
  *  {@code Lazy}.
  */
 public sealed interface Lazy<T>
-    permits org.tquadrat.foundation.lang.internal.LazyImpl
+    permits AsyncLazy, ExpiringLazy, SoftLazy, org.tquadrat.foundation.lang.internal.LazyImpl
 {
         /*---------*\
     ====** Methods **================================================
@@ -53,6 +72,30 @@ public sealed interface Lazy<T>
     @Override
     public boolean equals( final Object obj );
 
+    /**
+     *  <p>{@summary Returns a new {@code Lazy} instance whose value is
+     *  the value of the {@code Lazy} instance that is returned by the
+     *  given mapper function when applied to the value of this
+     *  instance.}</p>
+     *  <p>Neither the value of this instance nor the mapper function
+     *  will be evaluated before
+     *  {@link #get()}
+     *  is called on the new instance, and the mapper function will be
+     *  called at most once.</p>
+     *
+     *  @param  <R> The type of the value for the new instance.
+     *  @param  mapper  The mapper function.
+     *  @return The new instance.
+     */
+    public default <R> Lazy<R> flatMap( final Function<? super T,? extends Lazy<? extends R>> mapper )
+    {
+        requireNonNullArgument( mapper, "mapper" );
+        final Lazy<R> retValue = use( () -> mapper.apply( get() ).get() );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  flatMap()
+
     /**
      *  Returns the value for this instance of {@code Lazy}.
      *
@@ -79,6 +122,39 @@ public sealed interface Lazy<T>
         if( isPresent() ) requireNonNullArgument( consumer, "consumer" ).accept( get() );
     }   //  ifPresent()
 
+    /**
+     *  <p>{@summary Forces the initialisation of the given {@code Lazy}
+     *  instances in parallel, each on its own virtual thread.}</p>
+     *  <p>A failure of one initialisation does not affect the others;
+     *  it is reported in the returned summary, together with the time
+     *  each initialisation took.</p>
+     *
+     *  @param  instances   The instances to initialise.
+     *  @return The report on the initialisation.
+     */
+    public static WarmUpReport initializeAll( final Collection<? extends Lazy<?>> instances )
+    {
+        return WarmUpReport.execute( instances, Thread::startVirtualThread );
+    }   //  initializeAll()
+
+    /**
+     *  <p>{@summary Forces the initialisation of the given {@code Lazy}
+     *  instances in parallel, using the given executor.}</p>
+     *  <p>A failure of one initialisation does not affect the others;
+     *  it is reported in the returned summary, together with the time
+     *  each initialisation took.</p>
+     *
+     *  @param  instances   The instances to initialise.
+     *  @param  executor    The executor that performs the
+     *      initialisations, for example a
+     *      {@link java.util.concurrent.ForkJoinPool}.
+     *  @return The report on the initialisation.
+     */
+    public static WarmUpReport initializeAll( final Collection<? extends Lazy<?>> instances, final Executor executor )
+    {
+        return WarmUpReport.execute( instances, executor );
+    }   //  initializeAll()
+
     /**
      *  Checks whether this {@code Lazy} instance has been 
      *  initialised already. But even it was initialised,
@@ -108,6 +184,46 @@ public sealed interface Lazy<T>
         return retValue;
     }   //  map()
 
+    /**
+     *  <p>{@summary Returns a new {@code Lazy} instance whose value is
+     *  the result of the given mapper function when applied to the
+     *  value of this instance.}</p>
+     *  <p>Different from
+     *  {@link #map(Function)},
+     *  neither the value of this instance nor the mapper function
+     *  will be evaluated before
+     *  {@link #get()}
+     *  is called on the new instance, and the mapper function will be
+     *  called at most once.</p>
+     *
+     *  @param  <R> The type of the value for the new instance.
+     *  @param  mapper  The mapper function.
+     *  @return The new instance.
+     */
+    public default <R> Lazy<R> mapLazy( final Function<? super T,? extends R> mapper )
+    {
+        requireNonNullArgument( mapper, "mapper" );
+        final Lazy<R> retValue = use( () -> mapper.apply( get() ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  mapLazy()
+
+    /**
+     *  Creates a new {@code Lazy} instance that is already
+     *  initialised with the given value. It does not carry any state
+     *  for the initialisation.
+     *
+     *  @param  <T> The type of the value for the new instance of
+     *      {@code Lazy}.
+     *  @param  value   The value; can be {@code null}.
+     *  @return The new instance.
+     */
+    public static <T> Lazy<T> of( final T value )
+    {
+        return new LazyImpl<>( value );
+    }   //  of()
+
     /**
      *  Returns the value or throws the exception that is created by 
      *  the given
@@ -143,8 +259,133 @@ public sealed interface Lazy<T>
      */
     public static <T> Lazy<T> use( final Supplier<T> supplier )
     {
-        return new LazyImpl<>( supplier );
+        return new LazyImpl<>( supplier, SYNCHRONIZED );
     }   //  use()
+
+    /**
+     *  Creates a new named {@code Lazy} instance that uses the given
+     *  supplier to initialise. The initialisation of a named instance
+     *  can be instrumented through
+     *  {@link LazyMonitor}.
+     *
+     *  @param  <T> The type of the value for the new instance of
+     *      {@code Lazy}.
+     *  @param  name    The name for the new instance.
+     *  @param  supplier    The supplier that initialises the value
+     *      for this instance on the first call to
+     *      {@link #get()}.
+     *  @return The new instance.
+     */
+    public static <T> Lazy<T> use( final String name, final Supplier<T> supplier )
+    {
+        return new LazyImpl<>( requireNotBlankArgument( name, "name" ), supplier, SYNCHRONIZED );
+    }   //  use()
+
+    /**
+     *  Creates a new {@code Lazy} instance that computes its value
+     *  asynchronously on a new virtual thread, starting on the first
+     *  access. A failure of the supplier is memoised.
+     *
+     *  @param  <T> The type of the value for the new instance of
+     *      {@code Lazy}.
+     *  @param  supplier    The supplier for the value.
+     *  @return The new instance.
+     *
+     *  @see AsyncLazy#use(Supplier, Executor, boolean, AsyncLazy.FailurePolicy)
+     */
+    public static <T> AsyncLazy<T> useAsync( final Supplier<T> supplier )
+    {
+        return useAsync( supplier, Thread::startVirtualThread );
+    }   //  useAsync()
+
+    /**
+     *  Creates a new {@code Lazy} instance that computes its value
+     *  asynchronously on the given executor, starting on the first
+     *  access. A failure of the supplier is memoised.
+     *
+     *  @param  <T> The type of the value for the new instance of
+     *      {@code Lazy}.
+     *  @param  supplier    The supplier for the value.
+     *  @param  executor    The executor that runs the supplier.
+     *  @return The new instance.
+     *
+     *  @see AsyncLazy#use(Supplier, Executor, boolean, AsyncLazy.FailurePolicy)
+     */
+    public static <T> AsyncLazy<T> useAsync( final Supplier<T> supplier, final Executor executor )
+    {
+        return AsyncLazy.use( supplier, executor, false, MEMOISE );
+    }   //  useAsync()
+
+    /**
+     *  <p>{@summary Creates a new {@code Lazy} instance that uses the
+     *  given supplier to initialise, without locking.}</p>
+     *  <p>Concurrent callers of
+     *  {@link #get()}
+     *  may call the supplier concurrently, but all of them will get
+     *  the value that was published first. Therefore the supplier
+     *  must be idempotent and free of side effects.</p>
+     *
+     *  @param  <T> The type of the value for the new instance of
+     *      {@code Lazy}.
+     *  @param  supplier    The supplier that initialises the value
+     *      for this instance on the first call to
+     *      {@link #get()}.
+     *  @return The new instance.
+     */
+    public static <T> Lazy<T> usePublication( final Supplier<T> supplier )
+    {
+        return new LazyImpl<>( supplier, PUBLICATION );
+    }   //  usePublication()
+
+    /**
+     *  <p>{@summary Creates a new {@code Lazy} instance that uses the
+     *  given supplier to initialise, for the use by a single thread
+     *  only.}</p>
+     *  <p>The initialisation is not coordinated at all; using the
+     *  returned instance from more than one thread may cause the
+     *  supplier to be called multiple times, with different values
+     *  being returned.</p>
+     *
+     *  @param  <T> The type of the value for the new instance of
+     *      {@code Lazy}.
+     *  @param  supplier    The supplier that initialises the value
+     *      for this instance on the first call to
+     *      {@link #get()}.
+     *  @return The new instance.
+     */
+    public static <T> Lazy<T> useThreadConfined( final Supplier<T> supplier )
+    {
+        return new LazyImpl<>( supplier, THREAD_CONFINED );
+    }   //  useThreadConfined()
+
+    /**
+     *  <p>{@summary Returns a new {@code Lazy} instance whose value is
+     *  the result of the given function when applied to the values of
+     *  the two given {@code Lazy} instances.}</p>
+     *  <p>Neither the values of the given instances nor the function
+     *  will be evaluated before
+     *  {@link #get()}
+     *  is called on the new instance, and the function will be called
+     *  at most once.</p>
+     *
+     *  @param  <A> The type of the value for the first instance.
+     *  @param  <B> The type of the value for the second instance.
+     *  @param  <R> The type of the value for the new instance.
+     *  @param  first   The first instance.
+     *  @param  second  The second instance.
+     *  @param  combiner    The function that combines the values.
+     *  @return The new instance.
+     */
+    public static <A,B,R> Lazy<R> zip( final Lazy<A> first, final Lazy<B> second, final BiFunction<? super A,? super B,? extends R> combiner )
+    {
+        requireNonNullArgument( first, "first" );
+        requireNonNullArgument( second, "second" );
+        requireNonNullArgument( combiner, "combiner" );
+        final Lazy<R> retValue = use( () -> combiner.apply( first.get(), second.get() ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  zip()
 }
 //  interface Lazy
 
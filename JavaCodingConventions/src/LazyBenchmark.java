@@ -0,0 +1,524 @@
+package org.tquadrat.foundation.lang.benchmark;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static org.openjdk.jmh.annotations.Mode.SingleShotTime;
+
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tquadrat.foundation.lang.Lazy;
+
+/**
+ *  <p>{@summary JMH benchmarks for
+ *  {@link Lazy#get()}
+ *  and the common alternatives for a lazy initialisation.}</p>
+ *  <p>The alternatives are</p>
+ *  <ul>
+ *      <li>a plain {@code final} field that is initialised eagerly
+ *      (the baseline),</li>
+ *      <li>the holder class idiom,</li>
+ *      <li>double-checked locking on a {@code volatile} field,</li>
+ *      <li>a {@code synchronized} getter,</li>
+ *      <li>and the three modes of
+ *      {@link Lazy}.</li>
+ *  </ul>
+ *  <p>The benchmarks with the prefix {@code initialised} measure the
+ *  access to an initialised value, those with the prefix {@code cold}
+ *  measure the creation of the holder together with the first access
+ *  to the value. The suffix {@code Contended} marks the benchmarks that
+ *  run on as many threads as there are processors.</p>
+ *  <p>The contended {@code cold} benchmarks run in the mode
+ *  {@link Mode#SingleShotTime}:
+ *  before each iteration, a batch of
+ *  {@value #COLD_BATCH}
+ *  fresh holders is created, and then all threads start together and
+ *  access the values of all holders of the batch in the same order, so
+ *  that they race on the first access to each value. The result is
+ *  the time per access; the creation of the holders is not
+ *  measured.</p>
+ *  <p>{@code StableValue} (JEP&nbsp;502) is compared in
+ *  {@link StableValueBenchmark},
+ *  as it is a preview API that requires {@code --enable-preview}.</p>
+ *  <p>Run the benchmarks with {@code -prof gc} to get the allocation
+ *  rate, and with {@code -jvmArgsAppend -Djmh.executor=VIRTUAL} to run
+ *  them on virtual threads instead of platform threads.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+@BenchmarkMode( AverageTime )
+@OutputTimeUnit( NANOSECONDS )
+@Warmup( iterations = 5, time = 1, timeUnit = SECONDS )
+@Measurement( iterations = 5, time = 1, timeUnit = SECONDS )
+@Fork( 2 )
+@State( Scope.Benchmark )
+public class LazyBenchmark
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The holders for the contended {@code cold} benchmarks; a new
+     *  batch of uninitialised holders is created for each iteration,
+     *  and it is shared by all threads.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    @State( Scope.Benchmark )
+    public static class ColdState
+    {
+        /**
+         *  The instances for double-checked locking.
+         */
+        final DoubleCheckedLocking [] m_DoubleCheckedLocking = new DoubleCheckedLocking [COLD_BATCH];
+
+        /**
+         *  The instances of
+         *  {@link Lazy}
+         *  that were created by
+         *  {@link Lazy#use(Supplier)}.
+         */
+        final Lazy<?> [] m_Lazy = new Lazy<?> [COLD_BATCH];
+
+        /**
+         *  The instances of
+         *  {@link Lazy}
+         *  that were created by
+         *  {@link Lazy#usePublication(Supplier)}.
+         */
+        final Lazy<?> [] m_LazyPublication = new Lazy<?> [COLD_BATCH];
+
+        /**
+         *  The instances for the {@code synchronized} getter.
+         */
+        final SynchronizedGetter [] m_SynchronizedGetter = new SynchronizedGetter [COLD_BATCH];
+
+        /**
+         *  Creates the uninitialised holders.
+         */
+        @Setup( Level.Iteration )
+        public void setup()
+        {
+            for( var i = 0; i < COLD_BATCH; ++i )
+            {
+                m_DoubleCheckedLocking [i] = new DoubleCheckedLocking();
+                m_Lazy [i] = Lazy.use( m_Supplier );
+                m_LazyPublication [i] = Lazy.usePublication( m_Supplier );
+                m_SynchronizedGetter [i] = new SynchronizedGetter();
+            }
+        }   //  setup()
+    }
+    //  class ColdState
+
+    /**
+     *  Lazy initialisation through double-checked locking.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    public static final class DoubleCheckedLocking
+    {
+        /**
+         *  The value.
+         */
+        private volatile Object m_Value;
+
+        /**
+         *  Returns the value.
+         *
+         *  @return The value.
+         */
+        public final Object get()
+        {
+            var retValue = m_Value;
+            if( retValue == null )
+            {
+                synchronized( this )
+                {
+                    retValue = m_Value;
+                    if( retValue == null ) m_Value = retValue = m_Supplier.get();
+                }
+            }
+
+            //---* Done *------------------------------------------------
+            return retValue;
+        }   //  get()
+    }
+    //  class DoubleCheckedLocking
+
+    /**
+     *  Lazy initialisation through the holder class idiom.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    private static final class Holder
+    {
+        /**
+         *  The value.
+         */
+        static final Object m_Value = m_Supplier.get();
+    }
+    //  class Holder
+
+    /**
+     *  Lazy initialisation through a {@code synchronized} getter.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    public static final class SynchronizedGetter
+    {
+        /**
+         *  The value.
+         */
+        private Object m_Value;
+
+        /**
+         *  Returns the value.
+         *
+         *  @return The value.
+         */
+        public final synchronized Object get()
+        {
+            if( m_Value == null ) m_Value = m_Supplier.get();
+
+            //---* Done *------------------------------------------------
+            return m_Value;
+        }   //  get()
+    }
+    //  class SynchronizedGetter
+
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The number of holders that are created for each iteration of a
+     *  contended {@code cold} benchmark: {@value}.
+     */
+    public static final int COLD_BATCH = 4096;
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The eagerly initialised value.
+     */
+    private Object m_Eager;
+
+    /**
+     *  The initialised instance for double-checked locking.
+     */
+    private DoubleCheckedLocking m_DoubleCheckedLocking;
+
+    /**
+     *  The initialised instance of
+     *  {@link Lazy}
+     *  that was created by
+     *  {@link Lazy#use(Supplier)}.
+     */
+    private Lazy<Object> m_Lazy;
+
+    /**
+     *  The instance of
+     *  {@link Lazy}
+     *  that was created by
+     *  {@link Lazy#of(Object)}.
+     */
+    private Lazy<Object> m_LazyOf;
+
+    /**
+     *  The initialised instance of
+     *  {@link Lazy}
+     *  that was created by
+     *  {@link Lazy#usePublication(Supplier)}.
+     */
+    private Lazy<Object> m_LazyPublication;
+
+    /**
+     *  The initialised instance of
+     *  {@link Lazy}
+     *  that was created by
+     *  {@link Lazy#useThreadConfined(Supplier)}.
+     */
+    private Lazy<Object> m_LazyThreadConfined;
+
+    /**
+     *  The initialised instance for the {@code synchronized} getter.
+     */
+    private SynchronizedGetter m_SynchronizedGetter;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The supplier for the values; it returns the same instance each
+     *  time, so that the benchmarks do not measure its allocations.
+     */
+    private static final Supplier<Object> m_Supplier;
+
+    static
+    {
+        final var value = new Object();
+        m_Supplier = () -> value;
+    }
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Creates a double-checked locking instance and accesses its value.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object coldDoubleCheckedLocking() { return new DoubleCheckedLocking().get(); }
+
+    /**
+     *  Accesses the values of a batch of fresh, shared double-checked locking instances,
+     *  contended.
+     *
+     *  @param  state   The holders.
+     *  @param  blackhole   The sink for the values.
+     */
+    @Benchmark
+    @BenchmarkMode( SingleShotTime )
+    @Warmup( iterations = 20 )
+    @Measurement( iterations = 50 )
+    @OperationsPerInvocation( COLD_BATCH )
+    @Threads( Threads.MAX )
+    public void coldDoubleCheckedLockingContended( final ColdState state, final Blackhole blackhole )
+    {
+        for( final var holder : state.m_DoubleCheckedLocking ) blackhole.consume( holder.get() );
+    }   //  coldDoubleCheckedLockingContended()
+
+    /**
+     *  Creates a
+     *  {@link Lazy}
+     *  instance and accesses its value.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object coldLazy() { return Lazy.use( m_Supplier ).get(); }
+
+    /**
+     *  Accesses the values of a batch of fresh, shared
+     *  {@link Lazy}
+     *  instances, contended.
+     *
+     *  @param  state   The holders.
+     *  @param  blackhole   The sink for the values.
+     */
+    @Benchmark
+    @BenchmarkMode( SingleShotTime )
+    @Warmup( iterations = 20 )
+    @Measurement( iterations = 50 )
+    @OperationsPerInvocation( COLD_BATCH )
+    @Threads( Threads.MAX )
+    public void coldLazyContended( final ColdState state, final Blackhole blackhole )
+    {
+        for( final var holder : state.m_Lazy ) blackhole.consume( holder.get() );
+    }   //  coldLazyContended()
+
+    /**
+     *  Creates a
+     *  {@link Lazy}
+     *  instance in publication mode and accesses its value.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object coldLazyPublication() { return Lazy.usePublication( m_Supplier ).get(); }
+
+    /**
+     *  Accesses the values of a batch of fresh, shared
+     *  {@link Lazy}
+     *  instances in publication mode, contended.
+     *
+     *  @param  state   The holders.
+     *  @param  blackhole   The sink for the values.
+     */
+    @Benchmark
+    @BenchmarkMode( SingleShotTime )
+    @Warmup( iterations = 20 )
+    @Measurement( iterations = 50 )
+    @OperationsPerInvocation( COLD_BATCH )
+    @Threads( Threads.MAX )
+    public void coldLazyPublicationContended( final ColdState state, final Blackhole blackhole )
+    {
+        for( final var holder : state.m_LazyPublication ) blackhole.consume( holder.get() );
+    }   //  coldLazyPublicationContended()
+
+    /**
+     *  Creates a
+     *  {@link Lazy}
+     *  instance in thread confined mode and accesses its value.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object coldLazyThreadConfined() { return Lazy.useThreadConfined( m_Supplier ).get(); }
+
+    /**
+     *  Creates a {@code synchronized} getter instance and accesses its
+     *  value.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object coldSynchronizedGetter() { return new SynchronizedGetter().get(); }
+
+    /**
+     *  Accesses the values of a batch of fresh, shared {@code synchronized} getter instances,
+     *  contended.
+     *
+     *  @param  state   The holders.
+     *  @param  blackhole   The sink for the values.
+     */
+    @Benchmark
+    @BenchmarkMode( SingleShotTime )
+    @Warmup( iterations = 20 )
+    @Measurement( iterations = 50 )
+    @OperationsPerInvocation( COLD_BATCH )
+    @Threads( Threads.MAX )
+    public void coldSynchronizedGetterContended( final ColdState state, final Blackhole blackhole )
+    {
+        for( final var holder : state.m_SynchronizedGetter ) blackhole.consume( holder.get() );
+    }   //  coldSynchronizedGetterContended()
+
+    /**
+     *  Accesses the value through double-checked locking.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object initialisedDoubleCheckedLocking() { return m_DoubleCheckedLocking.get(); }
+
+    /**
+     *  Accesses the value through double-checked locking, contended.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    @Threads( Threads.MAX )
+    public Object initialisedDoubleCheckedLockingContended() { return m_DoubleCheckedLocking.get(); }
+
+    /**
+     *  Accesses the eagerly initialised value; this is the baseline.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object initialisedEager() { return m_Eager; }
+
+    /**
+     *  Accesses the value through the holder class idiom.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object initialisedHolder() { return Holder.m_Value; }
+
+    /**
+     *  Accesses the value through
+     *  {@link Lazy}.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object initialisedLazy() { return m_Lazy.get(); }
+
+    /**
+     *  Accesses the value through
+     *  {@link Lazy},
+     *  contended.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    @Threads( Threads.MAX )
+    public Object initialisedLazyContended() { return m_Lazy.get(); }
+
+    /**
+     *  Accesses the value through an instance of
+     *  {@link Lazy}
+     *  that was created by
+     *  {@link Lazy#of(Object)}.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object initialisedLazyOf() { return m_LazyOf.get(); }
+
+    /**
+     *  Accesses the value through
+     *  {@link Lazy}
+     *  in publication mode.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object initialisedLazyPublication() { return m_LazyPublication.get(); }
+
+    /**
+     *  Accesses the value through
+     *  {@link Lazy}
+     *  in thread confined mode.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object initialisedLazyThreadConfined() { return m_LazyThreadConfined.get(); }
+
+    /**
+     *  Accesses the value through a {@code synchronized} getter.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object initialisedSynchronizedGetter() { return m_SynchronizedGetter.get(); }
+
+    /**
+     *  Accesses the value through a {@code synchronized} getter,
+     *  contended.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    @Threads( Threads.MAX )
+    public Object initialisedSynchronizedGetterContended() { return m_SynchronizedGetter.get(); }
+
+    /**
+     *  Creates and initialises the holders for the {@code initialised}
+     *  benchmarks.
+     */
+    @Setup( Level.Trial )
+    public void setup()
+    {
+        m_Eager = m_Supplier.get();
+        m_DoubleCheckedLocking = new DoubleCheckedLocking();
+        m_DoubleCheckedLocking.get();
+        m_Lazy = Lazy.use( m_Supplier );
+        m_Lazy.get();
+        m_LazyOf = Lazy.of( m_Supplier.get() );
+        m_LazyPublication = Lazy.usePublication( m_Supplier );
+        m_LazyPublication.get();
+        m_LazyThreadConfined = Lazy.useThreadConfined( m_Supplier );
+        m_LazyThreadConfined.get();
+        m_SynchronizedGetter = new SynchronizedGetter();
+        m_SynchronizedGetter.get();
+    }   //  setup()
+}
+//  class LazyBenchmark
@@ -0,0 +1,143 @@
+package org.tquadrat.foundation.lang;
+
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.util.OptionalDouble;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+
+import org.tquadrat.foundation.lang.internal.LazyDoubleImpl;
+
+/**
+ *  <p>{@summary A holder for a lazy initialised {@code double}
+ *  value.}</p>
+ *  <p>This is the specialisation of
+ *  {@link Lazy}
+ *  for the primitive type {@code double}; neither the value nor the
+ *  results of the operations on it will be boxed.</p>
+ *  <p>The value will be initialised by a call to the supplier
+ *  (provided with the method
+ *  {@link #use(DoubleSupplier)})
+ *  on a first call to
+ *  {@link #getAsDouble()}.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @see Lazy
+ */
+public sealed interface LazyDouble
+    permits org.tquadrat.foundation.lang.internal.LazyDoubleImpl
+{
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public boolean equals( final Object obj );
+
+    /**
+     *  Returns the value for this instance of {@code LazyDouble}.
+     *
+     *  @return The value.
+     */
+    public double getAsDouble();
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public int hashCode();
+
+    /**
+     *  If this {@code LazyDouble} instance has been initialised already,
+     *  the provided
+     *  {@link DoubleConsumer}
+     *  will be executed; otherwise nothing happens.
+     *
+     *  @param  consumer    The consumer.
+     */
+    public default void ifPresent( final DoubleConsumer consumer )
+    {
+        if( isPresent() ) requireNonNullArgument( consumer, "consumer" ).accept( getAsDouble() );
+    }   //  ifPresent()
+
+    /**
+     *  Checks whether this {@code LazyDouble} instance has been
+     *  initialised already.
+     *
+     *  @return {@code true} if the instance was initialised,
+     *      {@code false} otherwise.
+     */
+    public boolean isPresent();
+
+    /**
+     *  If this instance of {@code LazyDouble} is initialised, the
+     *  provided mapper function will be executed on the value.
+     *
+     *  @param  mapper  The mapper function.
+     *  @return An instance of
+     *      {@link OptionalDouble}
+     *      that holds the result for the mapping.
+     */
+    public default OptionalDouble map( final DoubleUnaryOperator mapper )
+    {
+        requireNonNullArgument( mapper, "mapper" );
+        final var retValue = isPresent() ? OptionalDouble.of( mapper.applyAsDouble( getAsDouble() ) ) : OptionalDouble.empty();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  map()
+
+    /**
+     *  Returns the value or throws the exception that is created by
+     *  the given
+     *  {@link Supplier}
+     *  when not yet initialised.
+     *
+     *  @param  <X> The type of the implementation of
+     *      {@link Throwable}.
+     *  @param  exceptionSupplier   The supplier for the exception
+     *      to throw when the instance was not yet initialised.
+     *  @return The value.
+     *  @throws X   When not initialised, the exception created by
+     *      the given supplier will be thrown.
+     */
+    public <X extends Throwable> double orElseThrow( Supplier<? extends X> exceptionSupplier ) throws X;
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public String toString();
+
+    /**
+     *  Creates a new {@code LazyDouble} instance that is already
+     *  initialised with the given value.
+     *
+     *  @param  value   The value.
+     *  @return The new instance.
+     */
+    public static LazyDouble of( final double value )
+    {
+        return new LazyDoubleImpl( value );
+    }   //  of()
+
+    /**
+     *  Creates a new {@code LazyDouble} instance that uses the given
+     *  supplier to initialise. The supplier is called at most once.
+     *
+     *  @param  supplier    The supplier that initialises the value
+     *      for this instance on the first call to
+     *      {@link #getAsDouble()}.
+     *  @return The new instance.
+     */
+    public static LazyDouble use( final DoubleSupplier supplier )
+    {
+        return new LazyDoubleImpl( supplier );
+    }   //  use()
+}
+//  interface LazyDouble
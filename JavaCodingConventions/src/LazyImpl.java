@@ -5,16 +5,28 @@ import static org.tquadrat.foundation.lang.Objects.isNull;
 import static org.tquadrat.foundation.lang.Objects.nonNull;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 
-import java.util.Optional;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
-import org.tquadrat.foundation.lang.AutoLock;
+import org.tquadrat.foundation.exception.UnsupportedEnumError;
 import org.tquadrat.foundation.lang.Lazy;
+import org.tquadrat.foundation.lang.LazyMonitor;
 import org.tquadrat.foundation.lang.Objects;
 
 /**
  *  <p>{@summary The implementation of the interface
  *  {@link Lazy}.}</p>
+ *  <p>The value is published through a
+ *  {@link VarHandle}
+ *  with acquire/release semantics; once it is set,
+ *  {@link #get()}
+ *  neither locks nor allocates. How the initialisation itself is
+ *  coordinated is determined by the
+ *  {@link Mode}
+ *  of the instance.</p>
  *
  *  @author Thomas Thrien - thomas.thrien@tquadrat.org
  *
@@ -22,20 +34,91 @@ import org.tquadrat.foundation.lang.Objects;
  */
 public final class LazyImpl<T> implements Lazy<T>
 {
+        /*------------------*\
+    ====** Enum Declaration **=======================================
+        \*------------------*/
+    /**
+     *  The modes for the initialisation of a {@code Lazy} instance.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    public enum Mode
+    {
+        /**
+         *  The supplier is called at most once; concurrent callers
+         *  wait until the value is available.
+         */
+        SYNCHRONIZED,
+
+        /**
+         *  Concurrent callers may call the supplier concurrently, but
+         *  only the first result will be published and returned to
+         *  all callers. The supplier has to be idempotent.
+         */
+        PUBLICATION,
+
+        /**
+         *  The instance will be used only by one thread; there is no
+         *  coordination at all.
+         */
+        THREAD_CONFINED
+    }
+    //  enum Mode
+
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  <p>{@summary The marker for a running initialisation in the mode
+     *  {@link Mode#SYNCHRONIZED};
+     *  the implementations of the primitive specialisations and of
+     *  {@link org.tquadrat.foundation.lang.ExpiringLazy}
+     *  use it, too.}</p>
+     *  <p>The thread that installs the marker runs the supplier; the
+     *  other threads park on the latch until it is done. A monitor
+     *  would do the same, and since Java&nbsp;24 (JEP&nbsp;491) it no
+     *  longer pins a waiting virtual thread to its carrier. But the
+     *  marker knows the thread that runs the supplier, so a recursive
+     *  initialisation from within the supplier fails with an
+     *  {@link IllegalStateException},
+     *  where a reentrant monitor would call the supplier again; and it
+     *  counts the waiting threads for the instrumentation.</p>
+     *
+     *  @param  owner   The thread that performs the initialisation.
+     *  @param  done    The latch that is released when the
+     *      initialisation has finished, successfully or not.
+     *  @param  waiting The counter for the threads that are waiting
+     *      for the initialisation; {@code null} if the instance is not
+     *      instrumented.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    record Initialisation( Thread owner, CountDownLatch done, AtomicInteger waiting ) {}
+
         /*------------*\
     ====** Attributes **=============================================
         \*------------*/
     /**
-     *  The lock that protects the value creation. It will be set to
-     *  {@linkplain Optional#empty() empty}
-     *  after
-     *  {@link #m_Value} is initialised.
+     *  The running initialisation; it is {@code null} if there is
+     *  none. It will be accessed only through
+     *  {@link #m_InitialisationHandle}.
+     */
+    @SuppressWarnings( "unused" )
+    private Initialisation m_Initialisation;
+
+    /**
+     *  The initialisation mode.
+     */
+    private final Mode m_Mode;
+
+    /**
+     *  The name of this {@code Lazy} instance; only named instances
+     *  will be instrumented. Can be {@code null}.
      */
-    @SuppressWarnings( "OptionalUsedAsFieldOrParameterType" )
-    private Optional<AutoLock> m_Lock;
+    private final String m_Name;
 
     /**
-     *  The supplier for the value of this {@code Lazy} instance. It 
+     *  The supplier for the value of this {@code Lazy} instance. It
      *  will be set to {@code null} after
      *  {@link #m_Value}
      *  is initialised.
@@ -43,31 +126,138 @@ public final class LazyImpl<T> implements Lazy<T>
     private Supplier<T> m_Supplier;
 
     /**
-     *  The value of this {@code Lazy} instance; it is {@code null} 
-     *  if it was not yet initialised.
+     *  The value of this {@code Lazy} instance; it is {@code null} if
+     *  it was not yet initialised, and
+     *  {@link #m_NullValue}
+     *  if it was initialised with {@code null}. It will be accessed
+     *  only through
+     *  {@link #m_ValueHandle}.
+     */
+    @SuppressWarnings( "unused" )
+    private Object m_Value;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The handle for
+     *  {@link #m_Initialisation}.
+     */
+    private static final VarHandle m_InitialisationHandle;
+
+    /**
+     *  The replacement for a {@code null} value.
      */
-    private T m_Value;
+    private static final Object m_NullValue = new Object();
+
+    /**
+     *  The handle for
+     *  {@link #m_Value}.
+     */
+    private static final VarHandle m_ValueHandle;
+
+    static
+    {
+        try
+        {
+            final var lookup = MethodHandles.lookup();
+            m_InitialisationHandle = lookup.findVarHandle( LazyImpl.class, "m_Initialisation", Initialisation.class );
+            m_ValueHandle = lookup.findVarHandle( LazyImpl.class, "m_Value", Object.class );
+        }
+        catch( final NoSuchFieldException | IllegalAccessException e )
+        {
+            throw new ExceptionInInitializerError( e );
+        }
+    }
 
         /*--------------*\
     ====** Constructors **===========================================
         \*--------------*/
     /**
-     *  Creates a new {@code Lazy} instance.
+     *  Creates a new {@code Lazy} instance with the mode
+     *  {@link Mode#SYNCHRONIZED}.
      *
-     *  @param  supplier    The supplier that initialises the value 
+     *  @param  supplier    The supplier that initialises the value
      *      for this instance on the first call to
      *      {@link #get()}.
      */
     public LazyImpl( final Supplier<T> supplier )
     {
+        this( supplier, Mode.SYNCHRONIZED );
+    }   //  LazyImpl()
+
+    /**
+     *  Creates a new {@code Lazy} instance.
+     *
+     *  @param  supplier    The supplier that initialises the value
+     *      for this instance on the first call to
+     *      {@link #get()}.
+     *  @param  mode    The initialisation mode.
+     */
+    public LazyImpl( final Supplier<T> supplier, final Mode mode )
+    {
+        this( null, supplier, mode );
+    }   //  LazyImpl()
+
+    /**
+     *  Creates a new named {@code Lazy} instance.
+     *
+     *  @param  name    The name for the instance; can be {@code null}.
+     *  @param  supplier    The supplier that initialises the value
+     *      for this instance on the first call to
+     *      {@link #get()}.
+     *  @param  mode    The initialisation mode.
+     *
+     *  @see LazyMonitor
+     */
+    public LazyImpl( final String name, final Supplier<T> supplier, final Mode mode )
+    {
+        m_Name = name;
         m_Supplier = requireNonNullArgument( supplier, "supplier" );
-        m_Lock = Optional.of( AutoLock.of() );
-        m_Value = null;
+        m_Mode = requireNonNullArgument( mode, "mode" );
+    }   //  LazyImpl()
+
+    /**
+     *  Creates a new {@code Lazy} instance that is already
+     *  initialised with the given value.
+     *
+     *  @param  value   The value; can be {@code null}.
+     */
+    public LazyImpl( final T value )
+    {
+        m_Name = null;
+        m_Supplier = null;
+        m_Mode = Mode.THREAD_CONFINED;
+        m_ValueHandle.setRelease( this, mask( value ) );
     }   //  LazyImpl()
 
         /*---------*\
     ====** Methods **================================================
         \*---------*/
+    /**
+     *  Waits until the given latch was released, without being
+     *  interruptible; the interrupt status of the current thread will
+     *  be restored afterwards.
+     *
+     *  @param  latch   The latch.
+     */
+    static final void awaitUninterruptibly( final CountDownLatch latch )
+    {
+        var interrupted = false;
+        while( latch.getCount() > 0 )
+        {
+            try
+            {
+                latch.await();
+            }
+            catch( @SuppressWarnings( "unused" ) final InterruptedException e )
+            {
+                interrupted = true;
+            }
+        }
+        if( interrupted ) Thread.currentThread().interrupt();
+    }   //  awaitUninterruptibly()
+
     /**
      *  {@inheritDoc}
      */
@@ -97,42 +287,144 @@ public final class LazyImpl<T> implements Lazy<T>
     @Override
     public final T get()
     {
-        m_Lock.ifPresent( l ->
+        var value = m_ValueHandle.getAcquire( this );
+        if( isNull( value ) ) value = initialise();
+
+        //---* Done *------------------------------------------------
+        return unmask( value );
+    }   //  get()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final int hashCode() { return get().hashCode(); }
+
+    /**
+     *  Initialises the value according to the
+     *  {@linkplain #m_Mode mode}.
+     *  This is the slow path for
+     *  {@link #get()}.
+     *
+     *  @return The value.
+     */
+    private final Object initialise()
+    {
+        final Object retValue;
+        switch( m_Mode )
         {
-            try( @SuppressWarnings( "unused" ) final var lock = l.lock() )
+            case SYNCHRONIZED ->
+            {
+                //---* See Initialisation for the latch *------------
+                var value = m_ValueHandle.getAcquire( this );
+                while( isNull( value ) )
+                {
+                    final var running = (Initialisation) m_InitialisationHandle.getAcquire( this );
+                    if( nonNull( running ) )
+                    {
+                        if( running.owner() == Thread.currentThread() ) throw new IllegalStateException( "Recursive initialisation" );
+                        if( nonNull( running.waiting() ) ) running.waiting().incrementAndGet();
+                        awaitUninterruptibly( running.done() );
+                    }
+                    else
+                    {
+                        final var initialisation = new Initialisation( Thread.currentThread(), new CountDownLatch( 1 ), isInstrumented() ? new AtomicInteger() : null );
+                        if( m_InitialisationHandle.compareAndSet( this, null, initialisation ) )
+                        {
+                            try
+                            {
+                                /*
+                                 * Another thread may have finished the
+                                 * initialisation meanwhile.
+                                 */
+                                if( isNull( m_ValueHandle.getAcquire( this ) ) )
+                                {
+                                    m_ValueHandle.setRelease( this, supply( m_Supplier, initialisation.waiting() ) );
+                                    m_Supplier = null;
+                                }
+                            }
+                            finally
+                            {
+                                m_InitialisationHandle.setRelease( this, null );
+                                initialisation.done().countDown();
+                            }
+                        }
+                    }
+                    value = m_ValueHandle.getAcquire( this );
+                }
+                retValue = value;
+            }
+
+            case PUBLICATION ->
             {
-                /*
-                 * When the lock is present, the supplier must have 
-                 * been not null; this is enforced by the respective 
-                 * constructor.
-                 * So when the supplier is NOW null, another thread 
-                 * has performed the initialisation while this one 
-                 * was waiting for the lock.
-                 */
-                if( nonNull( m_Supplier ) )
+                final var supplier = m_Supplier;
+                if( isNull( supplier ) )
+                {
+                    /*
+                     * The supplier is dropped only after the value was
+                     * published, so it will become visible soon.
+                     */
+                    var value = m_ValueHandle.getAcquire( this );
+                    while( isNull( value ) )
+                    {
+                        Thread.onSpinWait();
+                        value = m_ValueHandle.getAcquire( this );
+                    }
+                    retValue = value;
+                }
+                else
                 {
-                    m_Value = m_Supplier.get();
-                    m_Lock = Optional.empty();
-                    m_Supplier = null;
+                    final var candidate = supply( supplier, null );
+                    final var witness = m_ValueHandle.compareAndExchangeRelease( this, null, candidate );
+                    if( isNull( witness ) )
+                    {
+                        m_Supplier = null;
+                        retValue = candidate;
+                    }
+                    else
+                    {
+                        retValue = witness;
+                    }
                 }
             }
-        } );
+
+            case THREAD_CONFINED ->
+            {
+                retValue = supply( m_Supplier, null );
+                m_ValueHandle.setRelease( this, retValue );
+                m_Supplier = null;
+            }
+
+            default -> throw new UnsupportedEnumError( m_Mode );
+        }
 
         //---* Done *------------------------------------------------
-        return m_Value;
-    }   //  get()
+        return retValue;
+    }   //  initialise()
 
     /**
-     *  {@inheritDoc}
+     *  Checks whether the initialisation of this instance has to be
+     *  instrumented.
+     *
+     *  @return {@code true} if this instance has a name and the
+     *      instrumentation is enabled, {@code false} otherwise.
      */
-    @Override
-    public final int hashCode() { return get().hashCode(); }
+    private final boolean isInstrumented() { return nonNull( m_Name ) && LazyInstrumentation.isEnabled(); }
 
     /**
      *  {@inheritDoc}
      */
     @Override
-    public final boolean isPresent() { return isNull( m_Supplier ); }
+    public final boolean isPresent() { return nonNull( m_ValueHandle.getAcquire( this ) ); }
+
+    /**
+     *  Replaces {@code null} by
+     *  {@link #m_NullValue}.
+     *
+     *  @param  value   The value.
+     *  @return The masked value.
+     */
+    private static final Object mask( final Object value ) { return isNull( value ) ? m_NullValue : value; }
 
     /**
      *  {@inheritDoc}
@@ -140,26 +432,77 @@ public final class LazyImpl<T> implements Lazy<T>
     @Override
     public <X extends Throwable> T orElseThrow( final Supplier<? extends X> exceptionSupplier ) throws X
     {
-        if( !isPresent() ) throw exceptionSupplier.get();
+        final var value = m_ValueHandle.getAcquire( this );
+        if( isNull( value ) ) throw exceptionSupplier.get();
 
         //---* Done *------------------------------------------------
-        return m_Value;
+        return unmask( value );
     }   //  orElseThrow()
 
+    /**
+     *  Calls the supplier, and records the call when this instance is
+     *  {@linkplain #isInstrumented() instrumented}.
+     *
+     *  @param  supplier    The supplier; it is passed in because
+     *      {@link #m_Supplier}
+     *      may have been cleared by another thread meanwhile.
+     *  @param  waiting The counter for the threads that are waiting
+     *      for the initialisation; can be {@code null}.
+     *  @return The
+     *      {@linkplain #mask(Object) masked}
+     *      value.
+     */
+    private final Object supply( final Supplier<T> supplier, final AtomicInteger waiting )
+    {
+        final Object retValue;
+        if( isInstrumented() )
+        {
+            final var event = LazyInstrumentation.begin();
+            final var start = System.nanoTime();
+            var failed = true;
+            try
+            {
+                retValue = mask( supplier.get() );
+                failed = false;
+            }
+            finally
+            {
+                LazyInstrumentation.end( event, m_Name, System.nanoTime() - start, isNull( waiting ) ? 0 : waiting.get(), failed );
+            }
+        }
+        else
+        {
+            retValue = mask( supplier.get() );
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  supply()
+
     /**
      *  {@inheritDoc}
      */
     @Override
     public final String toString()
     {
-        final var retValue = Objects.toString( m_Value, 
-            isPresent() 
-                ? NULL_STRING 
-                : "[Not initialized]" );
+        final var value = m_ValueHandle.getAcquire( this );
+        final var retValue = isNull( value )
+            ? "[Not initialized]"
+            : Objects.toString( unmask( value ), NULL_STRING );
 
         //---* Done *------------------------------------------------
         return retValue;
     }   //  toString()
+
+    /**
+     *  Replaces
+     *  {@link #m_NullValue}
+     *  by {@code null}.
+     *
+     *  @param  value   The masked value.
+     *  @return The value.
+     */
+    @SuppressWarnings( "unchecked" )
+    private final T unmask( final Object value ) { return value == m_NullValue ? null : (T) value; }
 }
 //  class LazyImpl
-
@@ -0,0 +1,188 @@
+package org.tquadrat.foundation.lang.internal;
+
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import org.tquadrat.foundation.lang.LazyMonitor;
+import org.tquadrat.foundation.lang.LazyMonitor.Statistics;
+
+/**
+ *  <p>{@summary The internal part of the instrumentation for
+ *  {@link org.tquadrat.foundation.lang.Lazy}
+ *  instances.}</p>
+ *  <p>Only named instances will be instrumented, and only when the
+ *  instrumentation was
+ *  {@linkplain LazyMonitor#enable() enabled}.
+ *  The instrumentation takes place in the slow path for the
+ *  initialisation only; the fast path for an initialised value is not
+ *  affected at all.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class LazyInstrumentation
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The JFR event for the initialisation of a named
+     *  {@link org.tquadrat.foundation.lang.Lazy}
+     *  instance. The initialising thread and the duration are recorded
+     *  by JFR itself.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    @Name( "org.tquadrat.foundation.lang.LazyInitialisation" )
+    @Label( "Lazy Initialisation" )
+    @Description( "The initialisation of a named Lazy instance" )
+    @Category( {"tquadrat", "Lazy"} )
+    static final class LazyInitialisationEvent extends Event
+    {
+        /**
+         *  The name of the {@code Lazy} instance.
+         */
+        @Label( "Name" )
+        String name;
+
+        /**
+         *  The number of threads that had to wait for the
+         *  initialisation.
+         */
+        @Label( "Waiting Threads" )
+        int waitingThreads;
+
+        /**
+         *  The flag that indicates that the supplier failed.
+         */
+        @Label( "Failed" )
+        boolean failed;
+    }
+    //  class LazyInitialisationEvent
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The flag that indicates whether the instrumentation is enabled.
+     */
+    private static volatile boolean m_IsEnabled = false;
+
+    /**
+     *  The statistics, by the names of the {@code Lazy} instances.
+     */
+    private static final Map<String,Statistics> m_Statistics = new ConcurrentHashMap<>();
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  No instance allowed for this class.
+     */
+    private LazyInstrumentation() { throw new AssertionError( "No instance allowed" ); }
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Creates a new JFR event for the initialisation of a
+     *  {@code Lazy} instance, and starts its timing.
+     *
+     *  @return The event.
+     */
+    static final LazyInitialisationEvent begin()
+    {
+        final var retValue = new LazyInitialisationEvent();
+        retValue.begin();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  begin()
+
+    /**
+     *  Clears the collected statistics.
+     */
+    public static final void clear() { m_Statistics.clear(); }
+
+    /**
+     *  Completes the instrumentation for the initialisation of a
+     *  {@code Lazy} instance.
+     *
+     *  @param  event   The event that was returned from
+     *      {@link #begin()}.
+     *  @param  name    The name of the {@code Lazy} instance.
+     *  @param  duration    The duration of the supplier call in
+     *      nanoseconds.
+     *  @param  waitingThreads  The number of threads that had to wait
+     *      for the initialisation.
+     *  @param  failed  {@code true} if the supplier failed,
+     *      {@code false} otherwise.
+     */
+    static final void end( final LazyInitialisationEvent event, final String name, final long duration, final int waitingThreads, final boolean failed )
+    {
+        event.end();
+        if( event.shouldCommit() )
+        {
+            event.name = name;
+            event.waitingThreads = waitingThreads;
+            event.failed = failed;
+            event.commit();
+        }
+
+        final var initialiser = Thread.currentThread();
+        final var thread = initialiser.getName().isEmpty() ? "#%d".formatted( initialiser.threadId() ) : initialiser.getName();
+        m_Statistics.merge( name,
+            new Statistics( name, 1, failed ? 1 : 0, Duration.ofNanos( duration ), Duration.ofNanos( duration ), waitingThreads, thread ),
+            ( current, update ) -> new Statistics( name,
+                current.initialisations() + 1,
+                current.failures() + update.failures(),
+                current.totalTime().plus( update.totalTime() ),
+                current.maximumTime().compareTo( update.maximumTime() ) >= 0 ? current.maximumTime() : update.maximumTime(),
+                Math.max( current.maximumWaitingThreads(), waitingThreads ),
+                thread ) );
+    }   //  end()
+
+    /**
+     *  Checks whether the instrumentation is enabled.
+     *
+     *  @return {@code true} if the instrumentation is enabled,
+     *      {@code false} otherwise.
+     */
+    public static final boolean isEnabled() { return m_IsEnabled; }
+
+    /**
+     *  Enables or disables the instrumentation.
+     *
+     *  @param  flag    {@code true} to enable the instrumentation,
+     *      {@code false} to disable it.
+     */
+    public static final void setEnabled( final boolean flag ) { m_IsEnabled = flag; }
+
+    /**
+     *  Returns the statistics for all instrumented {@code Lazy}
+     *  instances.
+     *
+     *  @return The statistics, by the names of the {@code Lazy}
+     *      instances.
+     */
+    public static final Map<String,Statistics> statistics() { return Map.copyOf( m_Statistics ); }
+
+    /**
+     *  Returns the statistics for the {@code Lazy} instances with the
+     *  given name.
+     *
+     *  @param  name    The name.
+     *  @return The statistics; {@code null} if there are none for the
+     *      given name.
+     */
+    public static final Statistics statistics( final String name ) { return m_Statistics.get( requireNonNullArgument( name, "name" ) ); }
+}
+//  class LazyInstrumentation
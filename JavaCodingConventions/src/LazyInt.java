@@ -0,0 +1,143 @@
+package org.tquadrat.foundation.lang;
+
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.util.OptionalInt;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+import org.tquadrat.foundation.lang.internal.LazyIntImpl;
+
+/**
+ *  <p>{@summary A holder for a lazy initialised {@code int}
+ *  value.}</p>
+ *  <p>This is the specialisation of
+ *  {@link Lazy}
+ *  for the primitive type {@code int}; neither the value nor the
+ *  results of the operations on it will be boxed.</p>
+ *  <p>The value will be initialised by a call to the supplier
+ *  (provided with the method
+ *  {@link #use(IntSupplier)})
+ *  on a first call to
+ *  {@link #getAsInt()}.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @see Lazy
+ */
+public sealed interface LazyInt
+    permits org.tquadrat.foundation.lang.internal.LazyIntImpl
+{
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public boolean equals( final Object obj );
+
+    /**
+     *  Returns the value for this instance of {@code LazyInt}.
+     *
+     *  @return The value.
+     */
+    public int getAsInt();
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public int hashCode();
+
+    /**
+     *  If this {@code LazyInt} instance has been initialised already,
+     *  the provided
+     *  {@link IntConsumer}
+     *  will be executed; otherwise nothing happens.
+     *
+     *  @param  consumer    The consumer.
+     */
+    public default void ifPresent( final IntConsumer consumer )
+    {
+        if( isPresent() ) requireNonNullArgument( consumer, "consumer" ).accept( getAsInt() );
+    }   //  ifPresent()
+
+    /**
+     *  Checks whether this {@code LazyInt} instance has been
+     *  initialised already.
+     *
+     *  @return {@code true} if the instance was initialised,
+     *      {@code false} otherwise.
+     */
+    public boolean isPresent();
+
+    /**
+     *  If this instance of {@code LazyInt} is initialised, the
+     *  provided mapper function will be executed on the value.
+     *
+     *  @param  mapper  The mapper function.
+     *  @return An instance of
+     *      {@link OptionalInt}
+     *      that holds the result for the mapping.
+     */
+    public default OptionalInt map( final IntUnaryOperator mapper )
+    {
+        requireNonNullArgument( mapper, "mapper" );
+        final var retValue = isPresent() ? OptionalInt.of( mapper.applyAsInt( getAsInt() ) ) : OptionalInt.empty();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  map()
+
+    /**
+     *  Returns the value or throws the exception that is created by
+     *  the given
+     *  {@link Supplier}
+     *  when not yet initialised.
+     *
+     *  @param  <X> The type of the implementation of
+     *      {@link Throwable}.
+     *  @param  exceptionSupplier   The supplier for the exception
+     *      to throw when the instance was not yet initialised.
+     *  @return The value.
+     *  @throws X   When not initialised, the exception created by
+     *      the given supplier will be thrown.
+     */
+    public <X extends Throwable> int orElseThrow( Supplier<? extends X> exceptionSupplier ) throws X;
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public String toString();
+
+    /**
+     *  Creates a new {@code LazyInt} instance that is already
+     *  initialised with the given value.
+     *
+     *  @param  value   The value.
+     *  @return The new instance.
+     */
+    public static LazyInt of( final int value )
+    {
+        return new LazyIntImpl( value );
+    }   //  of()
+
+    /**
+     *  Creates a new {@code LazyInt} instance that uses the given
+     *  supplier to initialise. The supplier is called at most once.
+     *
+     *  @param  supplier    The supplier that initialises the value
+     *      for this instance on the first call to
+     *      {@link #getAsInt()}.
+     *  @return The new instance.
+     */
+    public static LazyInt use( final IntSupplier supplier )
+    {
+        return new LazyIntImpl( supplier );
+    }   //  use()
+}
+//  interface LazyInt
@@ -0,0 +1,238 @@
+package org.tquadrat.foundation.lang.internal;
+
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import org.tquadrat.foundation.lang.LazyInt;
+
+/**
+ *  <p>{@summary The implementation of the interface
+ *  {@link LazyInt}.}</p>
+ *  <p>The value is stored in a plain {@code int} field; its
+ *  visibility is guaranteed by
+ *  {@link #m_Initialised}
+ *  that is written with release and read with acquire semantics,
+ *  in the same way as
+ *  {@link LazyImpl}
+ *  does it. Concurrent initialisations are coordinated without a
+ *  monitor, also in the same way as
+ *  {@link LazyImpl}
+ *  does it for the mode
+ *  {@link LazyImpl.Mode#SYNCHRONIZED}.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class LazyIntImpl implements LazyInt
+{
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The flag that indicates whether
+     *  {@link #m_Value}
+     *  was initialised already. It will be accessed only through
+     *  {@link #m_InitialisedHandle}.
+     */
+    @SuppressWarnings( "unused" )
+    private boolean m_Initialised;
+
+    /**
+     *  The running initialisation; it is {@code null} if there is
+     *  none. It will be accessed only through
+     *  {@link #m_InitialisationHandle}.
+     */
+    @SuppressWarnings( "unused" )
+    private LazyImpl.Initialisation m_Initialisation;
+
+    /**
+     *  The supplier for the value of this {@code LazyInt} instance. It
+     *  will be set to {@code null} after
+     *  {@link #m_Value}
+     *  is initialised.
+     */
+    private IntSupplier m_Supplier;
+
+    /**
+     *  The value of this {@code LazyInt} instance.
+     */
+    private int m_Value;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The handle for
+     *  {@link #m_Initialised}.
+     */
+    private static final VarHandle m_InitialisedHandle;
+
+    /**
+     *  The handle for
+     *  {@link #m_Initialisation}.
+     */
+    private static final VarHandle m_InitialisationHandle;
+
+    static
+    {
+        try
+        {
+            final var lookup = MethodHandles.lookup();
+            m_InitialisedHandle = lookup.findVarHandle( LazyIntImpl.class, "m_Initialised", boolean.class );
+            m_InitialisationHandle = lookup.findVarHandle( LazyIntImpl.class, "m_Initialisation", LazyImpl.Initialisation.class );
+        }
+        catch( final NoSuchFieldException | IllegalAccessException e )
+        {
+            throw new ExceptionInInitializerError( e );
+        }
+    }
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code LazyInt} instance.
+     *
+     *  @param  supplier    The supplier that initialises the value
+     *      for this instance on the first call to
+     *      {@link #getAsInt()}.
+     */
+    public LazyIntImpl( final IntSupplier supplier )
+    {
+        m_Supplier = requireNonNullArgument( supplier, "supplier" );
+    }   //  LazyIntImpl()
+
+    /**
+     *  Creates a new {@code LazyInt} instance that is already
+     *  initialised with the given value.
+     *
+     *  @param  value   The value.
+     */
+    public LazyIntImpl( final int value )
+    {
+        m_Supplier = null;
+        m_Value = value;
+        m_InitialisedHandle.setRelease( this, true );
+    }   //  LazyIntImpl()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean equals( final Object obj )
+    {
+        var retValue = this == obj;
+        if( !retValue && nonNull( obj ) )
+        {
+            if( obj instanceof final LazyInt other )
+            {
+                retValue = getAsInt() == other.getAsInt();
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  equals()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final int getAsInt()
+    {
+        if( !(boolean) m_InitialisedHandle.getAcquire( this ) ) initialise();
+
+        //---* Done *------------------------------------------------
+        return m_Value;
+    }   //  getAsInt()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final int hashCode() { return Integer.hashCode( getAsInt() ); }
+
+    /**
+     *  Initialises the value; this is the slow path for
+     *  {@link #getAsInt()}.
+     */
+    private final void initialise()
+    {
+        //---* See LazyImpl.Initialisation for the latch *-----------
+        while( !(boolean) m_InitialisedHandle.getAcquire( this ) )
+        {
+            final var running = (LazyImpl.Initialisation) m_InitialisationHandle.getAcquire( this );
+            if( nonNull( running ) )
+            {
+                if( running.owner() == Thread.currentThread() ) throw new IllegalStateException( "Recursive initialisation" );
+                LazyImpl.awaitUninterruptibly( running.done() );
+            }
+            else
+            {
+                final var initialisation = new LazyImpl.Initialisation( Thread.currentThread(), new CountDownLatch( 1 ), null );
+                if( m_InitialisationHandle.compareAndSet( this, null, initialisation ) )
+                {
+                    try
+                    {
+                        /*
+                         * Another thread may have finished the
+                         * initialisation meanwhile.
+                         */
+                        if( !(boolean) m_InitialisedHandle.getAcquire( this ) )
+                        {
+                            m_Value = m_Supplier.getAsInt();
+                            m_InitialisedHandle.setRelease( this, true );
+                            m_Supplier = null;
+                        }
+                    }
+                    finally
+                    {
+                        m_InitialisationHandle.setRelease( this, null );
+                        initialisation.done().countDown();
+                    }
+                }
+            }
+        }
+    }   //  initialise()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean isPresent() { return (boolean) m_InitialisedHandle.getAcquire( this ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public <X extends Throwable> int orElseThrow( final Supplier<? extends X> exceptionSupplier ) throws X
+    {
+        if( !isPresent() ) throw exceptionSupplier.get();
+
+        //---* Done *------------------------------------------------
+        return m_Value;
+    }   //  orElseThrow()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String toString()
+    {
+        final var retValue = isPresent()
+            ? Integer.toString( m_Value )
+            : "[Not initialized]";
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toString()
+}
+//  class LazyIntImpl
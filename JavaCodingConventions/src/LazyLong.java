@@ -0,0 +1,143 @@
+package org.tquadrat.foundation.lang;
+
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.util.OptionalLong;
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+import org.tquadrat.foundation.lang.internal.LazyLongImpl;
+
+/**
+ *  <p>{@summary A holder for a lazy initialised {@code long}
+ *  value.}</p>
+ *  <p>This is the specialisation of
+ *  {@link Lazy}
+ *  for the primitive type {@code long}; neither the value nor the
+ *  results of the operations on it will be boxed.</p>
+ *  <p>The value will be initialised by a call to the supplier
+ *  (provided with the method
+ *  {@link #use(LongSupplier)})
+ *  on a first call to
+ *  {@link #getAsLong()}.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @see Lazy
+ */
+public sealed interface LazyLong
+    permits org.tquadrat.foundation.lang.internal.LazyLongImpl
+{
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public boolean equals( final Object obj );
+
+    /**
+     *  Returns the value for this instance of {@code LazyLong}.
+     *
+     *  @return The value.
+     */
+    public long getAsLong();
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public int hashCode();
+
+    /**
+     *  If this {@code LazyLong} instance has been initialised already,
+     *  the provided
+     *  {@link LongConsumer}
+     *  will be executed; otherwise nothing happens.
+     *
+     *  @param  consumer    The consumer.
+     */
+    public default void ifPresent( final LongConsumer consumer )
+    {
+        if( isPresent() ) requireNonNullArgument( consumer, "consumer" ).accept( getAsLong() );
+    }   //  ifPresent()
+
+    /**
+     *  Checks whether this {@code LazyLong} instance has been
+     *  initialised already.
+     *
+     *  @return {@code true} if the instance was initialised,
+     *      {@code false} otherwise.
+     */
+    public boolean isPresent();
+
+    /**
+     *  If this instance of {@code LazyLong} is initialised, the
+     *  provided mapper function will be executed on the value.
+     *
+     *  @param  mapper  The mapper function.
+     *  @return An instance of
+     *      {@link OptionalLong}
+     *      that holds the result for the mapping.
+     */
+    public default OptionalLong map( final LongUnaryOperator mapper )
+    {
+        requireNonNullArgument( mapper, "mapper" );
+        final var retValue = isPresent() ? OptionalLong.of( mapper.applyAsLong( getAsLong() ) ) : OptionalLong.empty();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  map()
+
+    /**
+     *  Returns the value or throws the exception that is created by
+     *  the given
+     *  {@link Supplier}
+     *  when not yet initialised.
+     *
+     *  @param  <X> The type of the implementation of
+     *      {@link Throwable}.
+     *  @param  exceptionSupplier   The supplier for the exception
+     *      to throw when the instance was not yet initialised.
+     *  @return The value.
+     *  @throws X   When not initialised, the exception created by
+     *      the given supplier will be thrown.
+     */
+    public <X extends Throwable> long orElseThrow( Supplier<? extends X> exceptionSupplier ) throws X;
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public String toString();
+
+    /**
+     *  Creates a new {@code LazyLong} instance that is already
+     *  initialised with the given value.
+     *
+     *  @param  value   The value.
+     *  @return The new instance.
+     */
+    public static LazyLong of( final long value )
+    {
+        return new LazyLongImpl( value );
+    }   //  of()
+
+    /**
+     *  Creates a new {@code LazyLong} instance that uses the given
+     *  supplier to initialise. The supplier is called at most once.
+     *
+     *  @param  supplier    The supplier that initialises the value
+     *      for this instance on the first call to
+     *      {@link #getAsLong()}.
+     *  @return The new instance.
+     */
+    public static LazyLong use( final LongSupplier supplier )
+    {
+        return new LazyLongImpl( supplier );
+    }   //  use()
+}
+//  interface LazyLong
@@ -0,0 +1,238 @@
+package org.tquadrat.foundation.lang.internal;
+
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.tquadrat.foundation.lang.LazyLong;
+
+/**
+ *  <p>{@summary The implementation of the interface
+ *  {@link LazyLong}.}</p>
+ *  <p>The value is stored in a plain {@code long} field; its
+ *  visibility is guaranteed by
+ *  {@link #m_Initialised}
+ *  that is written with release and read with acquire semantics,
+ *  in the same way as
+ *  {@link LazyImpl}
+ *  does it. Concurrent initialisations are coordinated without a
+ *  monitor, also in the same way as
+ *  {@link LazyImpl}
+ *  does it for the mode
+ *  {@link LazyImpl.Mode#SYNCHRONIZED}.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class LazyLongImpl implements LazyLong
+{
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The flag that indicates whether
+     *  {@link #m_Value}
+     *  was initialised already. It will be accessed only through
+     *  {@link #m_InitialisedHandle}.
+     */
+    @SuppressWarnings( "unused" )
+    private boolean m_Initialised;
+
+    /**
+     *  The running initialisation; it is {@code null} if there is
+     *  none. It will be accessed only through
+     *  {@link #m_InitialisationHandle}.
+     */
+    @SuppressWarnings( "unused" )
+    private LazyImpl.Initialisation m_Initialisation;
+
+    /**
+     *  The supplier for the value of this {@code LazyLong} instance. It
+     *  will be set to {@code null} after
+     *  {@link #m_Value}
+     *  is initialised.
+     */
+    private LongSupplier m_Supplier;
+
+    /**
+     *  The value of this {@code LazyLong} instance.
+     */
+    private long m_Value;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The handle for
+     *  {@link #m_Initialised}.
+     */
+    private static final VarHandle m_InitialisedHandle;
+
+    /**
+     *  The handle for
+     *  {@link #m_Initialisation}.
+     */
+    private static final VarHandle m_InitialisationHandle;
+
+    static
+    {
+        try
+        {
+            final var lookup = MethodHandles.lookup();
+            m_InitialisedHandle = lookup.findVarHandle( LazyLongImpl.class, "m_Initialised", boolean.class );
+            m_InitialisationHandle = lookup.findVarHandle( LazyLongImpl.class, "m_Initialisation", LazyImpl.Initialisation.class );
+        }
+        catch( final NoSuchFieldException | IllegalAccessException e )
+        {
+            throw new ExceptionInInitializerError( e );
+        }
+    }
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code LazyLong} instance.
+     *
+     *  @param  supplier    The supplier that initialises the value
+     *      for this instance on the first call to
+     *      {@link #getAsLong()}.
+     */
+    public LazyLongImpl( final LongSupplier supplier )
+    {
+        m_Supplier = requireNonNullArgument( supplier, "supplier" );
+    }   //  LazyLongImpl()
+
+    /**
+     *  Creates a new {@code LazyLong} instance that is already
+     *  initialised with the given value.
+     *
+     *  @param  value   The value.
+     */
+    public LazyLongImpl( final long value )
+    {
+        m_Supplier = null;
+        m_Value = value;
+        m_InitialisedHandle.setRelease( this, true );
+    }   //  LazyLongImpl()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean equals( final Object obj )
+    {
+        var retValue = this == obj;
+        if( !retValue && nonNull( obj ) )
+        {
+            if( obj instanceof final LazyLong other )
+            {
+                retValue = getAsLong() == other.getAsLong();
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  equals()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final long getAsLong()
+    {
+        if( !(boolean) m_InitialisedHandle.getAcquire( this ) ) initialise();
+
+        //---* Done *------------------------------------------------
+        return m_Value;
+    }   //  getAsLong()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final int hashCode() { return Long.hashCode( getAsLong() ); }
+
+    /**
+     *  Initialises the value; this is the slow path for
+     *  {@link #getAsLong()}.
+     */
+    private final void initialise()
+    {
+        //---* See LazyImpl.Initialisation for the latch *-----------
+        while( !(boolean) m_InitialisedHandle.getAcquire( this ) )
+        {
+            final var running = (LazyImpl.Initialisation) m_InitialisationHandle.getAcquire( this );
+            if( nonNull( running ) )
+            {
+                if( running.owner() == Thread.currentThread() ) throw new IllegalStateException( "Recursive initialisation" );
+                LazyImpl.awaitUninterruptibly( running.done() );
+            }
+            else
+            {
+                final var initialisation = new LazyImpl.Initialisation( Thread.currentThread(), new CountDownLatch( 1 ), null );
+                if( m_InitialisationHandle.compareAndSet( this, null, initialisation ) )
+                {
+                    try
+                    {
+                        /*
+                         * Another thread may have finished the
+                         * initialisation meanwhile.
+                         */
+                        if( !(boolean) m_InitialisedHandle.getAcquire( this ) )
+                        {
+                            m_Value = m_Supplier.getAsLong();
+                            m_InitialisedHandle.setRelease( this, true );
+                            m_Supplier = null;
+                        }
+                    }
+                    finally
+                    {
+                        m_InitialisationHandle.setRelease( this, null );
+                        initialisation.done().countDown();
+                    }
+                }
+            }
+        }
+    }   //  initialise()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean isPresent() { return (boolean) m_InitialisedHandle.getAcquire( this ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public <X extends Throwable> long orElseThrow( final Supplier<? extends X> exceptionSupplier ) throws X
+    {
+        if( !isPresent() ) throw exceptionSupplier.get();
+
+        //---* Done *------------------------------------------------
+        return m_Value;
+    }   //  orElseThrow()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String toString()
+    {
+        final var retValue = isPresent()
+            ? Long.toString( m_Value )
+            : "[Not initialized]";
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toString()
+}
+//  class LazyLongImpl
@@ -0,0 +1,150 @@
+package org.tquadrat.foundation.lang;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.tquadrat.foundation.exception.ValidationException;
+import org.tquadrat.foundation.lang.internal.LazyMapImpl;
+
+/**
+ *  <p>{@summary A keyed counterpart to
+ *  {@link Lazy}:
+ *  it computes the value for a key on the first request for that key,
+ *  and returns the same value for all subsequent requests.}</p>
+ *  <p>The value for a given key will be computed at most once, as long
+ *  as it is not evicted or
+ *  {@linkplain #invalidate(Object) invalidated}.
+ *  The computations are coordinated through a fixed number of striped
+ *  locks, not through a lock per key; reading an already computed
+ *  value does not lock at all.</p>
+ *  <p>An instance can be bounded to a maximum number of entries; when
+ *  that is reached, an entry that was not used recently will be
+ *  evicted, according to the CLOCK algorithm.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @param  <K> The type of the keys.
+ *  @param  <V> The type of the values.
+ */
+public sealed interface LazyMap<K,V>
+    permits org.tquadrat.foundation.lang.internal.LazyMapImpl
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The usage statistics for a
+     *  {@link LazyMap}.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     *
+     *  @param  hits    The number of requests that returned an
+     *      already computed value.
+     *  @param  misses  The number of requests that caused the
+     *      computation of a value.
+     *  @param  evictions   The number of entries that were evicted
+     *      because the maximum size was reached.
+     *  @param  totalLoadTime   The accumulated time for all
+     *      computations.
+     */
+    public record Statistics( long hits, long misses, long evictions, Duration totalLoadTime )
+    {
+        /**
+         *  Returns the ratio of hits to all requests.
+         *
+         *  @return The hit rate; {@code 1.0} if there were no requests
+         *      at all.
+         */
+        public final double hitRate()
+        {
+            final var requests = hits + misses;
+            final var retValue = requests == 0 ? 1.0 : (double) hits / requests;
+
+            //---* Done *------------------------------------------------
+            return retValue;
+        }   //  hitRate()
+    }
+    //  record Statistics
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Returns the value for the given key; if there is none yet, it
+     *  will be computed.
+     *
+     *  @param  key The key.
+     *  @return The value; can be {@code null} if the loader returned
+     *      {@code null}.
+     */
+    public V get( final K key );
+
+    /**
+     *  Discards the value for the given key; the next call to
+     *  {@link #get(Object)}
+     *  will compute it again.
+     *
+     *  @param  key The key.
+     */
+    public void invalidate( final K key );
+
+    /**
+     *  Checks whether the value for the given key is computed already.
+     *
+     *  @param  key The key.
+     *  @return {@code true} if the value is present, {@code false}
+     *      otherwise.
+     */
+    public boolean isPresent( final K key );
+
+    /**
+     *  Returns the current number of entries.
+     *
+     *  @return The number of entries.
+     */
+    public int size();
+
+    /**
+     *  Returns the usage statistics for this instance.
+     *
+     *  @return The statistics.
+     */
+    public Statistics statistics();
+
+    /**
+     *  Creates a new, unbounded {@code LazyMap} instance.
+     *
+     *  @param  <K> The type of the keys.
+     *  @param  <V> The type of the values.
+     *  @param  loader  The function that computes the value for a
+     *      key.
+     *  @return The new instance.
+     */
+    public static <K,V> LazyMap<K,V> use( final Function<? super K,? extends V> loader )
+    {
+        return new LazyMapImpl<>( loader, 0 );
+    }   //  use()
+
+    /**
+     *  Creates a new {@code LazyMap} instance that holds not more
+     *  than the given number of entries.
+     *
+     *  @param  <K> The type of the keys.
+     *  @param  <V> The type of the values.
+     *  @param  loader  The function that computes the value for a
+     *      key.
+     *  @param  maximumSize The maximum number of entries; must be
+     *      greater than 0.
+     *  @return The new instance.
+     *  @throws ValidationException {@code maximumSize} is less than
+     *      1.
+     */
+    public static <K,V> LazyMap<K,V> use( final Function<? super K,? extends V> loader, final int maximumSize ) throws ValidationException
+    {
+        if( maximumSize < 1 ) throw new ValidationException( "Argument 'maximumSize' must be greater than 0" );
+
+        //---* Done *------------------------------------------------
+        return new LazyMapImpl<>( loader, maximumSize );
+    }   //  use()
+}
+//  interface LazyMap
@@ -0,0 +1,333 @@
+package org.tquadrat.foundation.lang.internal;
+
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.tquadrat.foundation.lang.AutoLock;
+import org.tquadrat.foundation.lang.LazyMap;
+
+/**
+ *  <p>{@summary The implementation of the interface
+ *  {@link LazyMap}.}</p>
+ *  <p>The values are held in a
+ *  {@link ConcurrentHashMap},
+ *  so reading an already computed value is lock free. The computation
+ *  of a missing value is guarded by one of a fixed number of
+ *  {@link AutoLock}
+ *  instances, selected by the hash code of the key.</p>
+ *  <p>For a bounded instance, the entries are additionally placed on
+ *  a ring (the &quot;clock&quot;); reading an entry sets its
+ *  &quot;referenced&quot; flag. When a new entry has to be added to a
+ *  full ring, the clock hand advances over the ring, clearing the
+ *  flags, until it finds an entry whose flag is not set; that entry
+ *  will be evicted.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @param  <K> The type of the keys.
+ *  @param  <V> The type of the values.
+ */
+public final class LazyMapImpl<K,V> implements LazyMap<K,V>
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  An entry of the map.
+     *
+     *  @param  <K> The type of the key.
+     *  @param  <V> The type of the value.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    private static final class Node<K,V>
+    {
+            /*------------*\
+        ====** Attributes **=========================================
+            \*------------*/
+        /**
+         *  The key.
+         */
+        final K m_Key;
+
+        /**
+         *  The flag that indicates that the entry was read since the
+         *  clock hand passed it the last time. Races on this flag are
+         *  harmless.
+         */
+        boolean m_Referenced;
+
+        /**
+         *  The position of this entry on the clock; -1 if it is not
+         *  on the clock.
+         */
+        int m_Slot;
+
+        /**
+         *  The value.
+         */
+        final V m_Value;
+
+            /*--------------*\
+        ====** Constructors **=======================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code Node} instance.
+         *
+         *  @param  key The key.
+         *  @param  value   The value.
+         */
+        Node( final K key, final V value )
+        {
+            m_Key = key;
+            m_Value = value;
+            m_Referenced = false;
+            m_Slot = -1;
+        }   //  Node()
+    }
+    //  class Node
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The clock for the eviction; it is {@code null} for an unbounded
+     *  instance.
+     */
+    private final Node<K,V> [] m_Clock;
+
+    /**
+     *  The number of entries on the clock.
+     */
+    private int m_ClockCount;
+
+    /**
+     *  The position of the clock hand.
+     */
+    private int m_ClockHand;
+
+    /**
+     *  The lock that guards the clock.
+     */
+    private final AutoLock m_ClockLock;
+
+    /**
+     *  The counter for the evictions.
+     */
+    private final LongAdder m_Evictions = new LongAdder();
+
+    /**
+     *  The counter for the hits.
+     */
+    private final LongAdder m_Hits = new LongAdder();
+
+    /**
+     *  The function that computes the values.
+     */
+    private final Function<? super K,? extends V> m_Loader;
+
+    /**
+     *  The accumulated load time in nanoseconds.
+     */
+    private final LongAdder m_LoadTime = new LongAdder();
+
+    /**
+     *  The entries.
+     */
+    private final ConcurrentHashMap<K,Node<K,V>> m_Map = new ConcurrentHashMap<>();
+
+    /**
+     *  The counter for the misses.
+     */
+    private final LongAdder m_Misses = new LongAdder();
+
+    /**
+     *  The locks that guard the computation of the values; the number
+     *  of locks is a power of two.
+     */
+    private final AutoLock [] m_Stripes;
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code LazyMapImpl} instance.
+     *
+     *  @param  loader  The function that computes the value for a
+     *      key.
+     *  @param  maximumSize The maximum number of entries; 0 for an
+     *      unbounded instance.
+     */
+    @SuppressWarnings( "unchecked" )
+    public LazyMapImpl( final Function<? super K,? extends V> loader, final int maximumSize )
+    {
+        m_Loader = requireNonNullArgument( loader, "loader" );
+        m_Clock = maximumSize > 0 ? (Node<K,V> []) new Node<?,?> [maximumSize] : null;
+        m_ClockLock = maximumSize > 0 ? AutoLock.of() : null;
+        m_ClockCount = 0;
+        m_ClockHand = 0;
+
+        final var stripeCount = Integer.highestOneBit( Runtime.getRuntime().availableProcessors() * 4 - 1 ) << 1;
+        m_Stripes = new AutoLock [stripeCount];
+        for( var i = 0; i < stripeCount; ++i ) m_Stripes [i] = AutoLock.of();
+    }   //  LazyMapImpl()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Places the given entry on the clock, evicting another one if
+     *  the clock is full. The entry is placed only if it is still in
+     *  the map; it could have been
+     *  {@linkplain #invalidate(Object) invalidated}
+     *  after it was published and before the clock lock was acquired.
+     *
+     *  @param  node    The new entry.
+     */
+    private final void admit( final Node<K,V> node )
+    {
+        try( @SuppressWarnings( "unused" ) final var lock = m_ClockLock.lock() )
+        {
+            if( m_Map.get( node.m_Key ) == node )
+            {
+                final var length = m_Clock.length;
+                final var isFull = m_ClockCount == length;
+                while( node.m_Slot < 0 )
+                {
+                    final var candidate = m_Clock [m_ClockHand];
+                    if( isNull( candidate ) )
+                    {
+                        node.m_Slot = m_ClockHand;
+                        ++m_ClockCount;
+                    }
+                    else if( isFull )
+                    {
+                        if( candidate.m_Referenced )
+                        {
+                            candidate.m_Referenced = false;
+                        }
+                        else
+                        {
+                            candidate.m_Slot = -1;
+                            if( m_Map.remove( candidate.m_Key, candidate ) ) m_Evictions.increment();
+                            node.m_Slot = m_ClockHand;
+                        }
+                    }
+                    if( node.m_Slot >= 0 ) m_Clock [m_ClockHand] = node;
+                    m_ClockHand = (m_ClockHand + 1) % length;
+                }
+            }
+        }
+    }   //  admit()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final V get( final K key )
+    {
+        final var node = m_Map.get( requireNonNullArgument( key, "key" ) );
+        final V retValue;
+        if( nonNull( node ) )
+        {
+            m_Hits.increment();
+            if( !node.m_Referenced ) node.m_Referenced = true;
+            retValue = node.m_Value;
+        }
+        else
+        {
+            retValue = load( key );
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  get()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void invalidate( final K key )
+    {
+        final var node = m_Map.remove( requireNonNullArgument( key, "key" ) );
+        if( nonNull( node ) && nonNull( m_Clock ) )
+        {
+            try( @SuppressWarnings( "unused" ) final var lock = m_ClockLock.lock() )
+            {
+                if( (node.m_Slot >= 0) && (m_Clock [node.m_Slot] == node) )
+                {
+                    m_Clock [node.m_Slot] = null;
+                    node.m_Slot = -1;
+                    --m_ClockCount;
+                }
+            }
+        }
+    }   //  invalidate()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean isPresent( final K key ) { return m_Map.containsKey( requireNonNullArgument( key, "key" ) ); }
+
+    /**
+     *  Computes the value for the given key, unless another thread
+     *  did that already; this is the slow path for
+     *  {@link #get(Object)}.
+     *
+     *  @param  key The key.
+     *  @return The value.
+     */
+    private final V load( final K key )
+    {
+        final var hash = key.hashCode();
+        final var stripe = m_Stripes [(hash ^ (hash >>> 16)) & (m_Stripes.length - 1)];
+        final V retValue;
+        try( @SuppressWarnings( "unused" ) final var lock = stripe.lock() )
+        {
+            var node = m_Map.get( key );
+            if( nonNull( node ) )
+            {
+                m_Hits.increment();
+            }
+            else
+            {
+                m_Misses.increment();
+                final var start = System.nanoTime();
+                node = new Node<>( key, m_Loader.apply( key ) );
+                m_LoadTime.add( System.nanoTime() - start );
+                m_Map.put( key, node );
+                if( nonNull( m_Clock ) ) admit( node );
+            }
+            retValue = node.m_Value;
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  load()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final int size() { return m_Map.size(); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Statistics statistics()
+    {
+        final var retValue = new Statistics( m_Hits.sum(), m_Misses.sum(), m_Evictions.sum(), Duration.ofNanos( m_LoadTime.sum() ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  statistics()
+}
+//  class LazyMapImpl
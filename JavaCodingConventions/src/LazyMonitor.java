@@ -0,0 +1,115 @@
+package org.tquadrat.foundation.lang;
+
+import static org.tquadrat.foundation.lang.Objects.requireNotBlankArgument;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import org.tquadrat.foundation.lang.internal.LazyInstrumentation;
+
+/**
+ *  <p>{@summary The access point for the instrumentation of
+ *  {@link Lazy}
+ *  instances.}</p>
+ *  <p>Only instances that were created with a name (through
+ *  {@link Lazy#use(String, java.util.function.Supplier)})
+ *  will be instrumented, and only while the instrumentation is
+ *  {@linkplain #enable() enabled}.
+ *  For each initialisation, the duration of the supplier call, the
+ *  number of threads that had to wait for it and the initialising
+ *  thread will be recorded. The data is emitted as the JFR event
+ *  {@code org.tquadrat.foundation.lang.LazyInitialisation}, and it is
+ *  aggregated by name; the aggregated data can be retrieved through
+ *  {@link #statistics()}.</p>
+ *  <p>The instrumentation affects only the initialisation itself;
+ *  {@link Lazy#get()}
+ *  for an already initialised instance has the same cost with and
+ *  without instrumentation.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class LazyMonitor
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The aggregated statistics for all
+     *  {@link Lazy}
+     *  instances with the same name.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     *
+     *  @param  name    The name of the {@code Lazy} instances.
+     *  @param  initialisations The number of initialisations.
+     *  @param  failures    The number of initialisations that failed.
+     *  @param  totalTime   The accumulated time for all supplier calls.
+     *  @param  maximumTime The maximum time for a single supplier call.
+     *  @param  maximumWaitingThreads   The maximum number of threads
+     *      that had to wait for a single initialisation.
+     *  @param  lastThread  The name of the thread that performed the
+     *      last initialisation.
+     */
+    public record Statistics( String name, long initialisations, long failures, Duration totalTime, Duration maximumTime, int maximumWaitingThreads, String lastThread ) {}
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  No instance allowed for this class.
+     */
+    private LazyMonitor() { throw new AssertionError( "No instance allowed" ); }
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Discards all statistics collected so far.
+     */
+    public static final void clear() { LazyInstrumentation.clear(); }
+
+    /**
+     *  Disables the instrumentation.
+     */
+    public static final void disable() { LazyInstrumentation.setEnabled( false ); }
+
+    /**
+     *  Enables the instrumentation.
+     */
+    public static final void enable() { LazyInstrumentation.setEnabled( true ); }
+
+    /**
+     *  Checks whether the instrumentation is enabled.
+     *
+     *  @return {@code true} if the instrumentation is enabled,
+     *      {@code false} otherwise.
+     */
+    public static final boolean isEnabled() { return LazyInstrumentation.isEnabled(); }
+
+    /**
+     *  Returns the statistics for all instrumented
+     *  {@link Lazy}
+     *  instances.
+     *
+     *  @return The statistics, by the names of the {@code Lazy}
+     *      instances.
+     */
+    public static final Map<String,Statistics> statistics() { return LazyInstrumentation.statistics(); }
+
+    /**
+     *  Returns the statistics for the
+     *  {@link Lazy}
+     *  instances with the given name.
+     *
+     *  @param  name    The name.
+     *  @return An instance of
+     *      {@link Optional}
+     *      that holds the statistics.
+     */
+    public static final Optional<Statistics> statistics( final String name )
+    {
+        return Optional.ofNullable( LazyInstrumentation.statistics( requireNotBlankArgument( name, "name" ) ) );
+    }   //  statistics()
+}
+//  class LazyMonitor
@@ -0,0 +1,1278 @@
+package org.tquadrat.foundation.logging;
+
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.lang.Objects.requireNotBlankArgument;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.MissingFormatArgumentException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.tquadrat.foundation.exception.ValidationException;
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
+/**
+ *  <p>{@summary A thin facade for a JDK
+ *  {@link Logger}
+ *  that uses the levels from
+ *  {@link LogLevel},
+ *  and that does not allocate anything when the level of a message is
+ *  disabled.}</p>
+ *  <p>The effective level of the logger is cached in a field, so the
+ *  check whether a level is enabled is a single field read. The cache
+ *  is invalidated when the logging configuration is
+ *  {@linkplain LogManager#readConfiguration() read}
+ *  or
+ *  {@linkplain LogManager#updateConfiguration(java.util.function.Function) updated},
+ *  and when the level is changed through
+ *  {@link #setLevel(Level)}.
+ *  When the level of a JDK logger is changed directly through
+ *  {@link Logger#setLevel(Level)},
+ *  {@link #refresh()}
+ *  has to be called afterwards.</p>
+ *  <p>The methods for logging take a
+ *  {@linkplain MessageTemplate message template}
+ *  and up to three arguments, optionally preceded by an exception; as
+ *  there is an overload for each number of arguments, no array is
+ *  created for the arguments unless the level is enabled. For more
+ *  arguments, build the message beforehand or use the
+ *  {@link Logger}
+ *  from
+ *  {@link #getWrappedLogger()}.
+ *  Messages with the level
+ *  {@link LogLevel#INFO_FORCED}
+ *  are logged through
+ *  {@link #infoForced(String)}
+ *  and its overloads. Primitive arguments will still be boxed by the
+ *  caller; for these, check the level with
+ *  {@link #isLoggable(Level)}
+ *  first. The message is formatted only when a handler requests it
+ *  from the
+ *  {@link LogRecord},
+ *  and the templates are compiled only once; therefore the templates
+ *  should be constants.</p>
+ *  <p>Instances are obtained through
+ *  {@link #getLogger(String)}
+ *  or
+ *  {@link #getLogger(Class)};
+ *  there is one instance per name.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class LevelLogger
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The log record that formats its message on first request. The
+     *  handlers in this package can get the template and the arguments
+     *  from it, in order to store them unformatted.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    static final class TemplateLogRecord extends LogRecord
+    {
+            /*------------*\
+        ====** Attributes **=========================================
+            \*------------*/
+        /**
+         *  The arguments for the message.
+         */
+        private final transient Object [] m_Args;
+
+        /**
+         *  The flag that indicates that the caller was determined
+         *  already.
+         */
+        private transient boolean m_CallerInferred;
+
+        /**
+         *  The formatted message.
+         */
+        private transient String m_Message;
+
+            /*------------------------*\
+        ====** Static Initialisations **=============================
+            \*------------------------*/
+        /**
+         *  The serial version UID for objects of this class: {@value}.
+         *
+         *  @hidden
+         */
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+            /*--------------*\
+        ====** Constructors **=======================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code TemplateLogRecord} instance.
+         *
+         *  @param  level   The log level.
+         *  @param  template    The message template.
+         *  @param  args    The arguments; may be {@code null}.
+         */
+        TemplateLogRecord( final Level level, final String template, final Object [] args )
+        {
+            super( level, template );
+            m_Args = args;
+            m_CallerInferred = false;
+            m_Message = null;
+        }   //  TemplateLogRecord()
+
+            /*---------*\
+        ====** Methods **============================================
+            \*---------*/
+        /**
+         *  Returns the arguments for the message.
+         *
+         *  @return The arguments; may be {@code null}.
+         */
+        final Object [] getArguments() { return m_Args; }
+
+        /**
+         *  {@inheritDoc}
+         *  <p>The message will be formatted on the first call to this
+         *  method.</p>
+         */
+        @Override
+        public final String getMessage()
+        {
+            var retValue = m_Message;
+            if( isNull( retValue ) )
+            {
+                final var template = super.getMessage();
+                if( nonNull( template ) )
+                {
+                    try
+                    {
+                        retValue = template( template ).format( m_Args );
+                    }
+                    catch( final ValidationException | MissingFormatArgumentException e )
+                    {
+                        /*
+                         * Logging must not fail because of an invalid
+                         * template.
+                         */
+                        retValue = isNull( m_Args ) ? template : template + ' ' + Arrays.toString( m_Args );
+                    }
+                }
+                m_Message = retValue;
+            }
+
+            //---* Done *--------------------------------------------
+            return retValue;
+        }   //  getMessage()
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final String getSourceClassName()
+        {
+            inferCaller();
+
+            //---* Done *--------------------------------------------
+            return super.getSourceClassName();
+        }   //  getSourceClassName()
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final String getSourceMethodName()
+        {
+            inferCaller();
+
+            //---* Done *--------------------------------------------
+            return super.getSourceMethodName();
+        }   //  getSourceMethodName()
+
+        /**
+         *  Returns the message template.
+         *
+         *  @return The template.
+         */
+        final String getTemplate() { return super.getMessage(); }
+
+        /**
+         *  Determines the caller of the {@code LevelLogger}; this works
+         *  only when it is called on the thread that created the
+         *  record.
+         */
+        final void inferCaller()
+        {
+            if( !m_CallerInferred )
+            {
+                m_CallerInferred = true;
+                final var facade = LevelLogger.class.getName();
+                final var caller = StackWalker.getInstance().walk( frames -> frames
+                    .dropWhile( frame -> !frame.getClassName().equals( facade ) )
+                    .dropWhile( frame -> frame.getClassName().equals( facade ) )
+                    .findFirst() );
+                setSourceClassName( caller.map( StackWalker.StackFrame::getClassName ).orElse( null ) );
+                setSourceMethodName( caller.map( StackWalker.StackFrame::getMethodName ).orElse( null ) );
+            }
+        }   //  inferCaller()
+
+        /**
+         *  Replaces this record by a plain
+         *  {@link LogRecord}
+         *  with the formatted message on serialisation.
+         *
+         *  @return The replacement.
+         */
+        @Serial
+        private final Object writeReplace()
+        {
+            final var retValue = new LogRecord( getLevel(), getMessage() );
+            retValue.setInstant( getInstant() );
+            retValue.setLoggerName( getLoggerName() );
+            retValue.setLongThreadID( getLongThreadID() );
+            retValue.setSequenceNumber( getSequenceNumber() );
+            retValue.setSourceClassName( getSourceClassName() );
+            retValue.setSourceMethodName( getSourceMethodName() );
+            retValue.setThrown( getThrown() );
+
+            //---* Done *--------------------------------------------
+            return retValue;
+        }   //  writeReplace()
+    }
+    //  class TemplateLogRecord
+
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The marker for an invalid cached threshold: {@value}.
+     */
+    private static final long INVALID = Long.MIN_VALUE;
+
+    /**
+     *  The maximum number of compiled templates that will be cached:
+     *  {@value}.
+     */
+    private static final int MAX_TEMPLATES = 1024;
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The wrapped logger.
+     */
+    private final Logger m_Logger;
+
+    /**
+     *  The cached threshold: the int value of the effective level, or
+     *  {@link Long#MAX_VALUE}
+     *  if the logger is switched off, or
+     *  {@link #INVALID}
+     *  if it has to be determined again.
+     */
+    private volatile long m_Threshold;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The generation of the logging configuration; it will be
+     *  incremented each time the cached thresholds are invalidated.
+     */
+    private static volatile int m_Generation = 0;
+
+    /**
+     *  The instances, by name.
+     */
+    private static final Map<String,LevelLogger> m_Loggers = new ConcurrentHashMap<>();
+
+    /**
+     *  The compiled templates.
+     */
+    private static final Map<String,MessageTemplate> m_Templates = new ConcurrentHashMap<>();
+
+    static
+    {
+        LogManager.getLogManager().addConfigurationListener( LevelLogger::refresh );
+    }
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code LevelLogger} instance.
+     *
+     *  @param  logger  The wrapped logger.
+     */
+    private LevelLogger( final Logger logger )
+    {
+        m_Logger = logger;
+        m_Threshold = INVALID;
+    }   //  LevelLogger()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#DEBUG}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void debug( final String template )
+    {
+        if( isLoggable( LogLevel.DEBUG ) ) publish( LogLevel.DEBUG, null, template, null );
+    }   //  debug()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#DEBUG}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void debug( final String template, final Object arg1 )
+    {
+        if( isLoggable( LogLevel.DEBUG ) ) publish( LogLevel.DEBUG, null, template, new Object [] {arg1} );
+    }   //  debug()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#DEBUG}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void debug( final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( LogLevel.DEBUG ) ) publish( LogLevel.DEBUG, null, template, new Object [] {arg1, arg2} );
+    }   //  debug()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#DEBUG}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void debug( final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( LogLevel.DEBUG ) ) publish( LogLevel.DEBUG, null, template, new Object [] {arg1, arg2, arg3} );
+    }   //  debug()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#DEBUG},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void debug( final Throwable thrown, final String template )
+    {
+        if( isLoggable( LogLevel.DEBUG ) ) publish( LogLevel.DEBUG, thrown, template, null );
+    }   //  debug()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#DEBUG},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void debug( final Throwable thrown, final String template, final Object arg1 )
+    {
+        if( isLoggable( LogLevel.DEBUG ) ) publish( LogLevel.DEBUG, thrown, template, new Object [] {arg1} );
+    }   //  debug()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#DEBUG},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void debug( final Throwable thrown, final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( LogLevel.DEBUG ) ) publish( LogLevel.DEBUG, thrown, template, new Object [] {arg1, arg2} );
+    }   //  debug()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#DEBUG},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void debug( final Throwable thrown, final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( LogLevel.DEBUG ) ) publish( LogLevel.DEBUG, thrown, template, new Object [] {arg1, arg2, arg3} );
+    }   //  debug()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#ERROR}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void error( final String template )
+    {
+        if( isLoggable( LogLevel.ERROR ) ) publish( LogLevel.ERROR, null, template, null );
+    }   //  error()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#ERROR}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void error( final String template, final Object arg1 )
+    {
+        if( isLoggable( LogLevel.ERROR ) ) publish( LogLevel.ERROR, null, template, new Object [] {arg1} );
+    }   //  error()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#ERROR}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void error( final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( LogLevel.ERROR ) ) publish( LogLevel.ERROR, null, template, new Object [] {arg1, arg2} );
+    }   //  error()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#ERROR}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void error( final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( LogLevel.ERROR ) ) publish( LogLevel.ERROR, null, template, new Object [] {arg1, arg2, arg3} );
+    }   //  error()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#ERROR},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void error( final Throwable thrown, final String template )
+    {
+        if( isLoggable( LogLevel.ERROR ) ) publish( LogLevel.ERROR, thrown, template, null );
+    }   //  error()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#ERROR},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void error( final Throwable thrown, final String template, final Object arg1 )
+    {
+        if( isLoggable( LogLevel.ERROR ) ) publish( LogLevel.ERROR, thrown, template, new Object [] {arg1} );
+    }   //  error()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#ERROR},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void error( final Throwable thrown, final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( LogLevel.ERROR ) ) publish( LogLevel.ERROR, thrown, template, new Object [] {arg1, arg2} );
+    }   //  error()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#ERROR},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void error( final Throwable thrown, final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( LogLevel.ERROR ) ) publish( LogLevel.ERROR, thrown, template, new Object [] {arg1, arg2, arg3} );
+    }   //  error()
+
+    /**
+     *  Returns the instance for the given class.
+     *
+     *  @param  type    The class; its name is used as the name of the
+     *      logger.
+     *  @return The logger.
+     */
+    public static final LevelLogger getLogger( final Class<?> type )
+    {
+        return getLogger( requireNonNullArgument( type, "type" ).getName() );
+    }   //  getLogger()
+
+    /**
+     *  Returns the instance for the given name.
+     *
+     *  @param  name    The name of the logger.
+     *  @return The logger.
+     */
+    public static final LevelLogger getLogger( final String name )
+    {
+        requireNotBlankArgument( name, "name" );
+        final var retValue = m_Loggers.computeIfAbsent( name, key -> new LevelLogger( Logger.getLogger( key ) ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  getLogger()
+
+    /**
+     *  Returns the wrapped logger.
+     *
+     *  @return The JDK logger.
+     */
+    public final Logger getWrappedLogger() { return m_Logger; }
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#INFO}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void info( final String template )
+    {
+        if( isLoggable( Level.INFO ) ) publish( Level.INFO, null, template, null );
+    }   //  info()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#INFO}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void info( final String template, final Object arg1 )
+    {
+        if( isLoggable( Level.INFO ) ) publish( Level.INFO, null, template, new Object [] {arg1} );
+    }   //  info()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#INFO}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void info( final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( Level.INFO ) ) publish( Level.INFO, null, template, new Object [] {arg1, arg2} );
+    }   //  info()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#INFO}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void info( final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( Level.INFO ) ) publish( Level.INFO, null, template, new Object [] {arg1, arg2, arg3} );
+    }   //  info()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#INFO},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void info( final Throwable thrown, final String template )
+    {
+        if( isLoggable( Level.INFO ) ) publish( Level.INFO, thrown, template, null );
+    }   //  info()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#INFO},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void info( final Throwable thrown, final String template, final Object arg1 )
+    {
+        if( isLoggable( Level.INFO ) ) publish( Level.INFO, thrown, template, new Object [] {arg1} );
+    }   //  info()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#INFO},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void info( final Throwable thrown, final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( Level.INFO ) ) publish( Level.INFO, thrown, template, new Object [] {arg1, arg2} );
+    }   //  info()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#INFO},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void info( final Throwable thrown, final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( Level.INFO ) ) publish( Level.INFO, thrown, template, new Object [] {arg1, arg2, arg3} );
+    }   //  info()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#INFO_FORCED}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void infoForced( final String template )
+    {
+        if( isLoggable( LogLevel.INFO_FORCED ) ) publish( LogLevel.INFO_FORCED, null, template, null );
+    }   //  infoForced()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#INFO_FORCED}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void infoForced( final String template, final Object arg1 )
+    {
+        if( isLoggable( LogLevel.INFO_FORCED ) ) publish( LogLevel.INFO_FORCED, null, template, new Object [] {arg1} );
+    }   //  infoForced()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#INFO_FORCED}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void infoForced( final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( LogLevel.INFO_FORCED ) ) publish( LogLevel.INFO_FORCED, null, template, new Object [] {arg1, arg2} );
+    }   //  infoForced()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#INFO_FORCED}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void infoForced( final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( LogLevel.INFO_FORCED ) ) publish( LogLevel.INFO_FORCED, null, template, new Object [] {arg1, arg2, arg3} );
+    }   //  infoForced()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#INFO_FORCED},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void infoForced( final Throwable thrown, final String template )
+    {
+        if( isLoggable( LogLevel.INFO_FORCED ) ) publish( LogLevel.INFO_FORCED, thrown, template, null );
+    }   //  infoForced()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#INFO_FORCED},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void infoForced( final Throwable thrown, final String template, final Object arg1 )
+    {
+        if( isLoggable( LogLevel.INFO_FORCED ) ) publish( LogLevel.INFO_FORCED, thrown, template, new Object [] {arg1} );
+    }   //  infoForced()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#INFO_FORCED},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void infoForced( final Throwable thrown, final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( LogLevel.INFO_FORCED ) ) publish( LogLevel.INFO_FORCED, thrown, template, new Object [] {arg1, arg2} );
+    }   //  infoForced()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#INFO_FORCED},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void infoForced( final Throwable thrown, final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( LogLevel.INFO_FORCED ) ) publish( LogLevel.INFO_FORCED, thrown, template, new Object [] {arg1, arg2, arg3} );
+    }   //  infoForced()
+
+    /**
+     *  Checks whether messages with the given level will be logged.
+     *
+     *  @param  level   The log level.
+     *  @return {@code true} if the level is enabled, {@code false}
+     *      otherwise.
+     */
+    public final boolean isLoggable( final Level level )
+    {
+        var threshold = m_Threshold;
+        if( threshold == INVALID ) threshold = updateThreshold();
+        final var retValue = level.intValue() >= threshold;
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  isLoggable()
+
+    /**
+     *  Logs a message with the given level.
+     *
+     *  @param  level   The log level.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void log( final Level level, final String template )
+    {
+        if( isLoggable( level ) ) publish( level, null, template, null );
+    }   //  log()
+
+    /**
+     *  Logs a message with the given level.
+     *
+     *  @param  level   The log level.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void log( final Level level, final String template, final Object arg1 )
+    {
+        if( isLoggable( level ) ) publish( level, null, template, new Object [] {arg1} );
+    }   //  log()
+
+    /**
+     *  Logs a message with the given level.
+     *
+     *  @param  level   The log level.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void log( final Level level, final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( level ) ) publish( level, null, template, new Object [] {arg1, arg2} );
+    }   //  log()
+
+    /**
+     *  Logs a message with the given level.
+     *
+     *  @param  level   The log level.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void log( final Level level, final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( level ) ) publish( level, null, template, new Object [] {arg1, arg2, arg3} );
+    }   //  log()
+
+    /**
+     *  Logs a message with the given level, together with an
+     *  exception.
+     *
+     *  @param  level   The log level.
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void log( final Level level, final Throwable thrown, final String template )
+    {
+        if( isLoggable( level ) ) publish( level, thrown, template, null );
+    }   //  log()
+
+    /**
+     *  Logs a message with the given level, together with an
+     *  exception.
+     *
+     *  @param  level   The log level.
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void log( final Level level, final Throwable thrown, final String template, final Object arg1 )
+    {
+        if( isLoggable( level ) ) publish( level, thrown, template, new Object [] {arg1} );
+    }   //  log()
+
+    /**
+     *  Logs a message with the given level, together with an
+     *  exception.
+     *
+     *  @param  level   The log level.
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void log( final Level level, final Throwable thrown, final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( level ) ) publish( level, thrown, template, new Object [] {arg1, arg2} );
+    }   //  log()
+
+    /**
+     *  Logs a message with the given level, together with an
+     *  exception.
+     *
+     *  @param  level   The log level.
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void log( final Level level, final Throwable thrown, final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( level ) ) publish( level, thrown, template, new Object [] {arg1, arg2, arg3} );
+    }   //  log()
+
+    /**
+     *  Creates the log record and passes it to the wrapped logger.
+     *
+     *  @param  level   The log level.
+     *  @param  thrown  The exception; may be {@code null}.
+     *  @param  template    The message template.
+     *  @param  args    The arguments; may be {@code null}.
+     */
+    private final void publish( final Level level, final Throwable thrown, final String template, final Object [] args )
+    {
+        final var record = new TemplateLogRecord( level, template, args );
+        record.setLoggerName( m_Logger.getName() );
+        if( nonNull( thrown ) ) record.setThrown( thrown );
+        m_Logger.log( record );
+    }   //  publish()
+
+    /**
+     *  Invalidates the cached levels of all instances; this has to be
+     *  called when the level of a JDK logger was changed directly.
+     */
+    public static final void refresh()
+    {
+        ++m_Generation;
+        for( final var logger : m_Loggers.values() ) logger.m_Threshold = INVALID;
+    }   //  refresh()
+
+    /**
+     *  Sets the level of the wrapped logger; this affects the effective
+     *  levels of its descendants, too.
+     *
+     *  @param  level   The new level; {@code null} means that the
+     *      logger inherits the level from its parent.
+     */
+    public final void setLevel( final Level level )
+    {
+        m_Logger.setLevel( level );
+        refresh();
+    }   //  setLevel()
+
+    /**
+     *  Returns the compiled form of the given template.
+     *
+     *  @param  template    The template.
+     *  @return The compiled template.
+     *  @throws ValidationException The template is invalid.
+     */
+    private static final MessageTemplate template( final String template ) throws ValidationException
+    {
+        var retValue = m_Templates.get( template );
+        if( isNull( retValue ) )
+        {
+            retValue = MessageTemplate.compile( template );
+
+            /*
+             * Templates that are not constants would fill up the cache.
+             */
+            if( m_Templates.size() < MAX_TEMPLATES ) m_Templates.putIfAbsent( template, retValue );
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  template()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#TRACE}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void trace( final String template )
+    {
+        if( isLoggable( LogLevel.TRACE ) ) publish( LogLevel.TRACE, null, template, null );
+    }   //  trace()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#TRACE}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void trace( final String template, final Object arg1 )
+    {
+        if( isLoggable( LogLevel.TRACE ) ) publish( LogLevel.TRACE, null, template, new Object [] {arg1} );
+    }   //  trace()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#TRACE}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void trace( final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( LogLevel.TRACE ) ) publish( LogLevel.TRACE, null, template, new Object [] {arg1, arg2} );
+    }   //  trace()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#TRACE}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void trace( final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( LogLevel.TRACE ) ) publish( LogLevel.TRACE, null, template, new Object [] {arg1, arg2, arg3} );
+    }   //  trace()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#TRACE},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void trace( final Throwable thrown, final String template )
+    {
+        if( isLoggable( LogLevel.TRACE ) ) publish( LogLevel.TRACE, thrown, template, null );
+    }   //  trace()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#TRACE},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void trace( final Throwable thrown, final String template, final Object arg1 )
+    {
+        if( isLoggable( LogLevel.TRACE ) ) publish( LogLevel.TRACE, thrown, template, new Object [] {arg1} );
+    }   //  trace()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#TRACE},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void trace( final Throwable thrown, final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( LogLevel.TRACE ) ) publish( LogLevel.TRACE, thrown, template, new Object [] {arg1, arg2} );
+    }   //  trace()
+
+    /**
+     *  Logs a message with the level
+     *  {@link LogLevel#TRACE},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void trace( final Throwable thrown, final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( LogLevel.TRACE ) ) publish( LogLevel.TRACE, thrown, template, new Object [] {arg1, arg2, arg3} );
+    }   //  trace()
+
+    /**
+     *  Determines the threshold from the effective level of the wrapped
+     *  logger, and caches it.
+     *
+     *  @return The threshold.
+     */
+    private final long updateThreshold()
+    {
+        long retValue;
+        int generation;
+        do
+        {
+            generation = m_Generation;
+            Level level = null;
+            for( var logger = m_Logger; isNull( level ) && nonNull( logger ); logger = logger.getParent() )
+            {
+                level = logger.getLevel();
+            }
+            final var value = isNull( level ) ? Level.INFO.intValue() : level.intValue();
+            retValue = value == Level.OFF.intValue() ? Long.MAX_VALUE : value;
+            m_Threshold = retValue;
+        }
+        while( generation != m_Generation );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  updateThreshold()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#WARNING}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void warning( final String template )
+    {
+        if( isLoggable( Level.WARNING ) ) publish( Level.WARNING, null, template, null );
+    }   //  warning()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#WARNING}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void warning( final String template, final Object arg1 )
+    {
+        if( isLoggable( Level.WARNING ) ) publish( Level.WARNING, null, template, new Object [] {arg1} );
+    }   //  warning()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#WARNING}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void warning( final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( Level.WARNING ) ) publish( Level.WARNING, null, template, new Object [] {arg1, arg2} );
+    }   //  warning()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#WARNING}.
+     *
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void warning( final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( Level.WARNING ) ) publish( Level.WARNING, null, template, new Object [] {arg1, arg2, arg3} );
+    }   //  warning()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#WARNING},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     */
+    public final void warning( final Throwable thrown, final String template )
+    {
+        if( isLoggable( Level.WARNING ) ) publish( Level.WARNING, thrown, template, null );
+    }   //  warning()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#WARNING},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     */
+    public final void warning( final Throwable thrown, final String template, final Object arg1 )
+    {
+        if( isLoggable( Level.WARNING ) ) publish( Level.WARNING, thrown, template, new Object [] {arg1} );
+    }   //  warning()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#WARNING},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     */
+    public final void warning( final Throwable thrown, final String template, final Object arg1, final Object arg2 )
+    {
+        if( isLoggable( Level.WARNING ) ) publish( Level.WARNING, thrown, template, new Object [] {arg1, arg2} );
+    }   //  warning()
+
+    /**
+     *  Logs a message with the level
+     *  {@link Level#WARNING},
+     *  together with an exception.
+     *
+     *  @param  thrown  The exception.
+     *  @param  template    The message template; see
+     *      {@link MessageTemplate}.
+     *  @param  arg1    The first argument.
+     *  @param  arg2    The second argument.
+     *  @param  arg3    The third argument.
+     */
+    public final void warning( final Throwable thrown, final String template, final Object arg1, final Object arg2, final Object arg3 )
+    {
+        if( isLoggable( Level.WARNING ) ) publish( Level.WARNING, thrown, template, new Object [] {arg1, arg2, arg3} );
+    }   //  warning()
+
+}
+//  class LevelLogger
@@ -0,0 +1,137 @@
+package org.tquadrat.util.concurrent.benchmark;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tquadrat.util.concurrent.AutoLock;
+import org.tquadrat.util.concurrent.SpinThenParkLock;
+
+/**
+ *  <p>{@summary JMH benchmarks that compare
+ *  {@link SpinThenParkLock}
+ *  with
+ *  {@link ReentrantLock},
+ *  both wrapped by an
+ *  {@link AutoLock}.}</p>
+ *  <p>The critical section consumes the given number of
+ *  {@linkplain Blackhole#consumeCPU(long) CPU tokens};
+ *  the benchmarks differ in the number of threads that compete for
+ *  the lock: one (uncontended), two, four, and as many as there are
+ *  processors. Between two acquisitions, each thread does some work
+ *  outside of the lock, so that the contention depends on the ratio
+ *  between the work inside and outside of the lock.</p>
+ *  <p>Run the benchmarks with
+ *  {@code -jvmArgsAppend -Djmh.executor=VIRTUAL} to run them on
+ *  virtual threads instead of platform threads.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+@BenchmarkMode( AverageTime )
+@OutputTimeUnit( NANOSECONDS )
+@Warmup( iterations = 5, time = 1, timeUnit = SECONDS )
+@Measurement( iterations = 5, time = 1, timeUnit = SECONDS )
+@Fork( 2 )
+@State( Scope.Benchmark )
+public class LockBenchmark
+{
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The lock under test.
+     */
+    private AutoLock m_Lock;
+
+    /**
+     *  The implementation of the lock.
+     */
+    @Param( {"ReentrantLock", "SpinThenParkLock"} )
+    public String m_LockType;
+
+    /**
+     *  The work outside of the lock, in CPU tokens.
+     */
+    @Param( {"100"} )
+    public long m_OutsideWork;
+
+    /**
+     *  The work inside of the lock, in CPU tokens.
+     */
+    @Param( {"0", "20", "500"} )
+    public long m_InsideWork;
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Uses the lock with two threads.
+     */
+    @Benchmark
+    @Threads( 2 )
+    public void contended2() { execute(); }
+
+    /**
+     *  Uses the lock with four threads.
+     */
+    @Benchmark
+    @Threads( 4 )
+    public void contended4() { execute(); }
+
+    /**
+     *  Uses the lock with as many threads as there are processors.
+     */
+    @Benchmark
+    @Threads( Threads.MAX )
+    public void contendedMax() { execute(); }
+
+    /**
+     *  Acquires and releases the lock, with the configured amount of
+     *  work inside and outside of it.
+     */
+    private final void execute()
+    {
+        try( @SuppressWarnings( "unused" ) final var lock = m_Lock.lock() )
+        {
+            Blackhole.consumeCPU( m_InsideWork );
+        }
+        Blackhole.consumeCPU( m_OutsideWork );
+    }   //  execute()
+
+    /**
+     *  Creates the lock under test.
+     */
+    @Setup( Level.Trial )
+    public void setup()
+    {
+        m_Lock = new AutoLock( switch( m_LockType )
+        {
+            case "ReentrantLock" -> new ReentrantLock();
+            case "SpinThenParkLock" -> new SpinThenParkLock();
+            default -> throw new IllegalArgumentException( "Unknown lock type: %s".formatted( m_LockType ) );
+        } );
+    }   //  setup()
+
+    /**
+     *  Uses the lock with a single thread.
+     */
+    @Benchmark
+    @Threads( 1 )
+    public void uncontended() { execute(); }
+}
+//  class LockBenchmark
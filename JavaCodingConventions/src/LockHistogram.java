@@ -0,0 +1,197 @@
+package org.tquadrat.util.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.tquadrat.foundation.exception.ValidationException;
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
+/**
+ *  A histogram for durations, as they are recorded by an instrumented
+ *  {@link AutoLock}.
+ *
+ *  The durations are counted in buckets whose upper bounds are powers
+ *  of two nanoseconds, so the histogram has a fixed size and recording
+ *  a value does not allocate. The percentiles returned by
+ *  {@link #percentile(double)}
+ *  are the upper bounds of the respective buckets; their relative
+ *  error is therefore less than a factor of two, but the exact
+ *  maximum is recorded separately.
+ *
+ *  Instances of this class are thread-safe.
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class LockHistogram
+{
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The number of buckets.
+     */
+    private static final int BUCKET_COUNT = Long.SIZE;
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The buckets; bucket {@code i} counts the durations {@code d}
+     *  with <code>2<sup>i-1</sup> &lt; d &le; 2<sup>i</sup></code>
+     *  nanoseconds.
+     */
+    private final AtomicLongArray m_Buckets = new AtomicLongArray( BUCKET_COUNT );
+
+    /**
+     *  The maximum duration in nanoseconds.
+     */
+    private final AtomicLong m_Maximum = new AtomicLong();
+
+    /**
+     *  The sum of all durations in nanoseconds.
+     */
+    private final AtomicLong m_Total = new AtomicLong();
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The message for a percentile that is out of range.
+     */
+    private static final MessageTemplate MSG_InvalidPercentile = MessageTemplate.compile( "Argument 'percentile' is out of range: %1$s" );
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new, empty {@code LockHistogram} instance.
+     */
+    LockHistogram() { /* Just exists */ }
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Returns a copy of this histogram.
+     *
+     *  @return The copy.
+     */
+    final LockHistogram copy()
+    {
+        final var retValue = new LockHistogram();
+        for( var i = 0; i < BUCKET_COUNT; ++i ) retValue.m_Buckets.set( i, m_Buckets.get( i ) );
+        retValue.m_Maximum.set( m_Maximum.get() );
+        retValue.m_Total.set( m_Total.get() );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  copy()
+
+    /**
+     *  Returns the number of recorded durations.
+     *
+     *  @return The number of durations.
+     */
+    public final long count()
+    {
+        var retValue = 0L;
+        for( var i = 0; i < BUCKET_COUNT; ++i ) retValue += m_Buckets.get( i );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  count()
+
+    /**
+     *  Returns the longest recorded duration.
+     *
+     *  @return The maximum.
+     */
+    public final Duration maximum() { return Duration.ofNanos( m_Maximum.get() ); }
+
+    /**
+     *  Returns the mean of the recorded durations.
+     *
+     *  @return The mean; {@link Duration#ZERO} if nothing was recorded.
+     */
+    public final Duration mean()
+    {
+        final var count = count();
+        final var retValue = count == 0 ? Duration.ZERO : Duration.ofNanos( m_Total.get() / count );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  mean()
+
+    /**
+     *  Returns an upper bound for the given percentile of the recorded
+     *  durations.
+     *
+     *  @param  percentile  The percentile, between 0 and 100.
+     *  @return The upper bound; {@link Duration#ZERO} if nothing was
+     *      recorded.
+     *  @throws ValidationException The percentile is out of range.
+     */
+    public final Duration percentile( final double percentile ) throws ValidationException
+    {
+        if( (percentile < 0.0) || (percentile > 100.0) ) throw new ValidationException( MSG_InvalidPercentile.format( percentile ) );
+
+        final var counts = new long [BUCKET_COUNT];
+        var total = 0L;
+        for( var i = 0; i < BUCKET_COUNT; ++i ) total += counts [i] = m_Buckets.get( i );
+
+        var retValue = Duration.ZERO;
+        if( total > 0 )
+        {
+            final var threshold = (long) Math.ceil( total * percentile / 100.0 );
+            var accumulated = 0L;
+            var bucket = 0;
+            for( ; bucket < BUCKET_COUNT - 1; ++bucket )
+            {
+                accumulated += counts [bucket];
+                if( (accumulated >= threshold) && (accumulated > 0) ) break;
+            }
+            retValue = Duration.ofNanos( Math.min( bucket == 0 ? 1L : 1L << Math.min( bucket, 62 ), m_Maximum.get() ) );
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  percentile()
+
+    /**
+     *  Records the given duration.
+     *
+     *  @param  nanos   The duration in nanoseconds.
+     */
+    final void record( final long nanos )
+    {
+        final var value = Math.max( nanos, 0L );
+        m_Buckets.incrementAndGet( value <= 1L ? 0 : Long.SIZE - Long.numberOfLeadingZeros( value - 1 ) );
+        m_Total.addAndGet( value );
+        m_Maximum.accumulateAndGet( value, Math::max );
+    }   //  record()
+
+    /**
+     *  Resets this histogram to empty. A duration that is recorded
+     *  concurrently may be counted partly.
+     */
+    final void reset()
+    {
+        for( var i = 0; i < BUCKET_COUNT; ++i ) m_Buckets.set( i, 0L );
+        m_Maximum.set( 0L );
+        m_Total.set( 0L );
+    }   //  reset()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String toString()
+    {
+        final var retValue = "count=%d, mean=%s, p50=%s, p99=%s, max=%s".formatted( count(), mean(), percentile( 50.0 ), percentile( 99.0 ), maximum() );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toString()
+}
+//  class LockHistogram
@@ -0,0 +1,176 @@
+package org.tquadrat.util.concurrent;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ *  The access point for the instrumentation of
+ *  {@link AutoLock}
+ *  instances.
+ *
+ *  Only instances that were created with a name (through
+ *  {@link AutoLock#of(String, java.util.concurrent.locks.Lock)})
+ *  while the instrumentation was
+ *  {@linkplain #enable() enabled}
+ *  will be instrumented; enabling the instrumentation later does not
+ *  affect instances that exist already. For each acquisition, the
+ *  wait time, the hold time (from
+ *  {@link AutoLock#lock()}
+ *  to
+ *  {@link AutoLock#close()})
+ *  and whether the lock was contended will be recorded. The data is
+ *  emitted as the JFR event {@code org.tquadrat.util.concurrent.LockUse},
+ *  and it is aggregated by name; the aggregated data can be retrieved
+ *  through
+ *  {@link #statistics()}.
+ *
+ *  When the system property
+ *  {@value #PROPERTY_ENABLED}
+ *  is set to {@code true}, the instrumentation is enabled from the
+ *  start.
+ *
+ *  As long as no instrumented lock exists, the instrumentation does
+ *  not cost anything.
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class LockMonitor
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The aggregated statistics for all instrumented
+     *  {@link AutoLock}
+     *  instances with the same name.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     *
+     *  @param  name    The name of the locks.
+     *  @param  acquisitions    The number of acquisitions.
+     *  @param  contentions The number of acquisitions that had to
+     *      wait for the lock, including those that timed out.
+     *  @param  timeouts    The number of timed out attempts.
+     *  @param  waitTimes   The times spent waiting for the lock.
+     *  @param  holdTimes   The times the lock was held.
+     */
+    public record Statistics( String name, long acquisitions, long contentions, long timeouts, LockHistogram waitTimes, LockHistogram holdTimes ) {}
+
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The name of the system property that enables the
+     *  instrumentation from the start: {@value}.
+     */
+    public static final String PROPERTY_ENABLED = "org.tquadrat.util.concurrent.LockMonitor.enabled";
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The flag that indicates whether the instrumentation is enabled.
+     */
+    private static volatile boolean m_IsEnabled = Boolean.getBoolean( PROPERTY_ENABLED );
+
+    /**
+     *  The metrics, by the names of the locks.
+     */
+    private static final Map<String,InstrumentedAutoLock.Metrics> m_Metrics = new ConcurrentHashMap<>();
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  No instance allowed for this class.
+     */
+    private LockMonitor() { throw new AssertionError( "No instance allowed" ); }
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Resets all statistics collected so far to zero. The metrics
+     *  are reset in place, because the locks that exist already keep
+     *  recording into them.
+     */
+    public static final void clear() { m_Metrics.values().forEach( InstrumentedAutoLock.Metrics::reset ); }
+
+    /**
+     *  Disables the instrumentation for locks that will be created
+     *  from now on.
+     */
+    public static final void disable() { m_IsEnabled = false; }
+
+    /**
+     *  Enables the instrumentation for named locks that will be
+     *  created from now on.
+     */
+    public static final void enable() { m_IsEnabled = true; }
+
+    /**
+     *  Checks whether the instrumentation is enabled.
+     *
+     *  @return {@code true} if the instrumentation is enabled,
+     *      {@code false} otherwise.
+     */
+    public static final boolean isEnabled() { return m_IsEnabled; }
+
+    /**
+     *  Returns the metrics for the locks with the given name.
+     *
+     *  @param  name    The name.
+     *  @return The metrics.
+     */
+    static final InstrumentedAutoLock.Metrics metrics( final String name )
+    {
+        return m_Metrics.computeIfAbsent( name, key -> new InstrumentedAutoLock.Metrics() );
+    }   //  metrics()
+
+    /**
+     *  Returns the statistics for all instrumented locks.
+     *
+     *  @return The statistics, by the names of the locks.
+     */
+    public static final Map<String,Statistics> statistics()
+    {
+        final var retValue = m_Metrics.entrySet().stream()
+            .collect( Collectors.toUnmodifiableMap( Map.Entry::getKey, entry -> toStatistics( entry.getKey(), entry.getValue() ) ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  statistics()
+
+    /**
+     *  Returns the statistics for the locks with the given name.
+     *
+     *  @param  name    The name.
+     *  @return An instance of
+     *      {@link Optional}
+     *      that holds the statistics.
+     */
+    public static final Optional<Statistics> statistics( final String name )
+    {
+        return Optional.ofNullable( m_Metrics.get( requireNonNull( name ) ) ).map( metrics -> toStatistics( name, metrics ) );
+    }   //  statistics()
+
+    /**
+     *  Creates a snapshot from the given metrics.
+     *
+     *  @param  name    The name of the locks.
+     *  @param  metrics The metrics.
+     *  @return The statistics.
+     */
+    private static final Statistics toStatistics( final String name, final InstrumentedAutoLock.Metrics metrics )
+    {
+        final var retValue = new Statistics( name, metrics.m_Acquisitions.sum(), metrics.m_Contentions.sum(), metrics.m_Timeouts.sum(), metrics.m_WaitTimes.copy(), metrics.m_HoldTimes.copy() );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toStatistics()
+}
+//  class LockMonitor
@@ -0,0 +1,421 @@
+package org.tquadrat.util.concurrent;
+
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ *  The lock order tracking for
+ *  {@link AutoLock}
+ *  instances.
+ *
+ *  When enabled, each acquisition of an {@code AutoLock} while the
+ *  current thread holds other {@code AutoLock} instances adds an edge
+ *  from each of the held locks to the new one to a global graph. The
+ *  first time an edge is added that closes a cycle in that graph, a
+ *  {@link LockOrderViolation}
+ *  will be reported, before the lock is acquired; this happens even
+ *  when the threads involved never ran concurrently, so a potential
+ *  deadlock is detected long before it happens. The violation carries
+ *  the stack trace of the current acquisition and that of the
+ *  acquisition that established the opposite order.
+ *
+ *  The locks held by a thread are kept in a per-thread stack; an
+ *  acquisition that follows an already known order needs only a
+ *  lookup in a
+ *  {@link ConcurrentHashMap},
+ *  so there is no global lock on the hot path. Stack traces are only
+ *  taken for new edges.
+ *
+ *  The tracking is enabled by setting the system property
+ *  {@value #PROPERTY_ENABLED}
+ *  to {@code true}; it cannot be switched on or off at runtime. When
+ *  it is not enabled, the checks in
+ *  {@link AutoLock}
+ *  will be removed by the JIT compiler, so the tracking does not cost
+ *  anything.
+ *
+ *  The graph is built on the {@code AutoLock} instances, not on the
+ *  wrapped locks: two {@code AutoLock} instances that wrap the same
+ *  lock are seen as different locks. A node in the graph does not
+ *  keep its {@code AutoLock} reachable, but the nodes and edges
+ *  themselves will never be removed, as long as the program runs.
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class LockOrderTracker
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  An edge in the lock order graph: the lock {@code to} was
+     *  acquired while the lock {@code from} was held.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     *
+     *  @param  from    The lock that was held.
+     *  @param  to  The lock that was acquired.
+     *  @param  thread  The name of the thread that established the
+     *      order.
+     *  @param  site    The stack trace for the acquisition.
+     */
+    record Edge( Node from, Node to, String thread, StackTraceElement [] site ) {}
+
+    /**
+     *  The stack of the locks held by a thread.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    private static final class HeldLocks
+    {
+            /*------------*\
+        ====** Attributes **=========================================
+            \*------------*/
+        /**
+         *  The held locks, in the order of their acquisition.
+         */
+        Node [] m_Locks = new Node [8];
+
+        /**
+         *  The number of held locks.
+         */
+        int m_Size = 0;
+
+            /*---------*\
+        ====** Methods **============================================
+            \*---------*/
+        /**
+         *  Checks whether the given lock is held already.
+         *
+         *  @param  node    The lock.
+         *  @return {@code true} if the lock is held, {@code false}
+         *      otherwise.
+         */
+        final boolean contains( final Node node )
+        {
+            var retValue = false;
+            for( var i = m_Size - 1; (i >= 0) && !retValue; --i ) retValue = m_Locks [i] == node;
+
+            //---* Done *------------------------------------------------
+            return retValue;
+        }   //  contains()
+
+        /**
+         *  Adds the given lock to the stack.
+         *
+         *  @param  node    The lock.
+         */
+        final void push( final Node node )
+        {
+            if( m_Size == m_Locks.length ) m_Locks = Arrays.copyOf( m_Locks, m_Size * 2 );
+            m_Locks [m_Size++] = node;
+        }   //  push()
+
+        /**
+         *  Removes the most recent entry for the given lock; locks need
+         *  not to be released in the reverse order of their
+         *  acquisition.
+         *
+         *  @param  node    The lock.
+         */
+        final void remove( final Node node )
+        {
+            for( var i = m_Size - 1; i >= 0; --i )
+            {
+                if( m_Locks [i] == node )
+                {
+                    System.arraycopy( m_Locks, i + 1, m_Locks, i, m_Size - i - 1 );
+                    m_Locks [--m_Size] = null;
+                    break;
+                }
+            }
+        }   //  remove()
+    }
+    //  class HeldLocks
+
+    /**
+     *  A node in the lock order graph; there is one node for each
+     *  {@link AutoLock}
+     *  instance.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    static final class Node
+    {
+            /*------------*\
+        ====** Attributes **=========================================
+            \*------------*/
+        /**
+         *  The name of the lock.
+         */
+        final String m_Name;
+
+        /**
+         *  The outgoing edges, by their target.
+         */
+        final Map<Node,Edge> m_Successors = new ConcurrentHashMap<>();
+
+            /*--------------*\
+        ====** Constructors **=======================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code Node} instance.
+         *
+         *  @param  name    The name of the lock.
+         */
+        Node( final String name ) { m_Name = name; }
+
+            /*---------*\
+        ====** Methods **============================================
+            \*---------*/
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final String toString() { return m_Name; }
+    }
+    //  class Node
+
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The name of the system property that enables the lock order
+     *  tracking: {@value}.
+     */
+    public static final String PROPERTY_ENABLED = "org.tquadrat.util.concurrent.LockOrderTracker.enabled";
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The handler for violations.
+     */
+    private static volatile Consumer<? super LockOrderViolation> m_Handler = LockOrderTracker::log;
+
+    /**
+     *  The locks held by the current thread.
+     */
+    private static final ThreadLocal<HeldLocks> m_HeldLocks = ThreadLocal.withInitial( HeldLocks::new );
+
+    /**
+     *  The flag that indicates whether the tracking is enabled.
+     */
+    private static final boolean m_IsEnabled = Boolean.getBoolean( PROPERTY_ENABLED );
+
+    /**
+     *  The counter for the names of unnamed locks.
+     */
+    private static final AtomicLong m_LockCounter = new AtomicLong();
+
+    /**
+     *  The violations that were detected so far.
+     */
+    private static final List<LockOrderViolation> m_Violations = new CopyOnWriteArrayList<>();
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  No instance allowed for this class.
+     */
+    private LockOrderTracker() { throw new AssertionError( "No instance allowed" ); }
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Records that the current thread acquired the given lock.
+     *
+     *  @param  node    The lock.
+     */
+    static final void acquired( final Node node ) { m_HeldLocks.get().push( node ); }
+
+    /**
+     *  Checks the order of the given lock against the locks that are
+     *  held by the current thread, before the given lock will be
+     *  acquired.
+     *
+     *  @param  node    The lock.
+     */
+    static final void beforeLock( final Node node )
+    {
+        final var heldLocks = m_HeldLocks.get();
+        if( !heldLocks.contains( node ) )
+        {
+            for( var i = 0; i < heldLocks.m_Size; ++i )
+            {
+                final var held = heldLocks.m_Locks [i];
+                if( !held.m_Successors.containsKey( node ) )
+                {
+                    /*
+                     * The edge is added before the check, so that of
+                     * two threads that add opposite edges at the same
+                     * time, at least one will see the edge of the
+                     * other.
+                     */
+                    final var edge = new Edge( held, node, Thread.currentThread().getName(), callerSite() );
+                    if( held.m_Successors.putIfAbsent( node, edge ) == null )
+                    {
+                        final var path = findPath( node, held );
+                        if( !path.isEmpty() ) report( new LockOrderViolation( edge, path ) );
+                    }
+                }
+            }
+        }
+    }   //  beforeLock()
+
+    /**
+     *  Returns the stack trace for the current acquisition, without the
+     *  frames for the lock classes themselves.
+     *
+     *  @return The stack trace.
+     */
+    private static final StackTraceElement [] callerSite()
+    {
+        final var stackTrace = new Throwable().getStackTrace();
+        final var packageName = LockOrderTracker.class.getPackageName() + '.';
+        var start = 0;
+        while( (start < stackTrace.length - 1) && stackTrace [start].getClassName().startsWith( packageName ) ) ++start;
+        final var retValue = Arrays.copyOfRange( stackTrace, start, stackTrace.length );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  callerSite()
+
+    /**
+     *  Searches a path in the lock order graph from the given start to
+     *  the given target.
+     *
+     *  @param  start   The start node.
+     *  @param  target  The target node.
+     *  @return The edges of the path; empty if there is none.
+     */
+    private static final List<Edge> findPath( final Node start, final Node target )
+    {
+        final var visited = new HashSet<Node>();
+        final var path = new ArrayDeque<Edge>();
+        final List<Edge> retValue = findPath( start, target, visited, path ) ? new ArrayList<>( path ) : List.of();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  findPath()
+
+    /**
+     *  Searches a path in the lock order graph from the given node to
+     *  the given target, depth first.
+     *
+     *  @param  node    The current node.
+     *  @param  target  The target node.
+     *  @param  visited The nodes that were visited already.
+     *  @param  path    The edges from the start node to the current
+     *      node.
+     *  @return {@code true} if a path was found, {@code false}
+     *      otherwise.
+     */
+    private static final boolean findPath( final Node node, final Node target, final HashSet<Node> visited, final ArrayDeque<Edge> path )
+    {
+        var retValue = false;
+        if( visited.add( node ) )
+        {
+            for( final var edge : node.m_Successors.values() )
+            {
+                path.addLast( edge );
+                retValue = (edge.to() == target) || findPath( edge.to(), target, visited, path );
+                if( retValue ) break;
+                path.removeLast();
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  findPath()
+
+    /**
+     *  Checks whether the lock order tracking is enabled.
+     *
+     *  @return {@code true} if the tracking is enabled, {@code false}
+     *      otherwise.
+     */
+    public static final boolean isEnabled() { return m_IsEnabled; }
+
+    /**
+     *  The default handler for violations: it logs them with the level
+     *  {@link System.Logger.Level#WARNING WARNING}.
+     *
+     *  @param  violation   The violation.
+     */
+    private static final void log( final LockOrderViolation violation )
+    {
+        System.getLogger( LockOrderTracker.class.getName() ).log( WARNING, violation.getMessage(), violation );
+    }   //  log()
+
+    /**
+     *  Creates the node for a new
+     *  {@link AutoLock}
+     *  instance.
+     *
+     *  @param  name    The name of the lock; can be {@code null}.
+     *  @param  lock    The wrapped lock.
+     *  @return The node, or {@code null} if the tracking is not
+     *      enabled.
+     */
+    static final Node node( final String name, final Object lock )
+    {
+        final var retValue = m_IsEnabled
+            ? new Node( name == null ? "%s#%d".formatted( lock.getClass().getSimpleName(), m_LockCounter.incrementAndGet() ) : name )
+            : null;
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  node()
+
+    /**
+     *  Records that the current thread released the given lock.
+     *
+     *  @param  node    The lock.
+     */
+    static final void released( final Node node ) { m_HeldLocks.get().remove( node ); }
+
+    /**
+     *  Reports the given violation.
+     *
+     *  @param  violation   The violation.
+     */
+    private static final void report( final LockOrderViolation violation )
+    {
+        m_Violations.add( violation );
+        m_Handler.accept( violation );
+    }   //  report()
+
+    /**
+     *  Sets the handler for violations; the default handler logs them
+     *  through a
+     *  {@link System.Logger}.
+     *  A handler that throws the violation lets the offending
+     *  acquisition fail, before the lock was acquired.
+     *
+     *  @param  handler The handler.
+     */
+    public static final void setHandler( final Consumer<? super LockOrderViolation> handler ) { m_Handler = requireNonNull( handler ); }
+
+    /**
+     *  Returns the violations that were detected so far.
+     *
+     *  @return The violations.
+     */
+    public static final List<LockOrderViolation> violations() { return Collections.unmodifiableList( new ArrayList<>( m_Violations ) ); }
+}
+//  class LockOrderTracker
@@ -0,0 +1,90 @@
+package org.tquadrat.util.concurrent;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.List;
+
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
+/**
+ *  The report for a lock order inversion that was detected by the
+ *  {@link LockOrderTracker}.
+ *
+ *  The stack trace of this exception is that of the acquisition that
+ *  closed the cycle; for each edge of the opposite order, there is a
+ *  {@linkplain #getSuppressed() suppressed}
+ *  exception whose stack trace is that of the acquisition that
+ *  established it.
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class LockOrderViolation extends RuntimeException
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The site where a lock order was established.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    private static final class OrderSite extends Throwable
+    {
+        /**
+         *  The serial version UID for objects of this class: {@value}.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         *  Creates a new {@code OrderSite} instance.
+         *
+         *  @param  edge    The edge for the lock order.
+         */
+        OrderSite( final LockOrderTracker.Edge edge )
+        {
+            super( MSG_OrderSite.format( edge.to(), edge.from(), edge.thread() ), null, false, true );
+            setStackTrace( edge.site() );
+        }   //  OrderSite()
+    }
+    //  class OrderSite
+
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The serial version UID for objects of this class: {@value}.
+     */
+    private static final long serialVersionUID = 1L;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The message for a lock order inversion.
+     */
+    private static final MessageTemplate MSG_Inversion = MessageTemplate.compile( "Lock order inversion: '%1$s' acquired while holding '%2$s', but before the order was %3$s" );
+
+    /**
+     *  The message for the site where a lock order was established.
+     */
+    private static final MessageTemplate MSG_OrderSite = MessageTemplate.compile( "'%1$s' acquired while holding '%2$s', by thread '%3$s'" );
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code LockOrderViolation} instance.
+     *
+     *  @param  edge    The edge that closed the cycle.
+     *  @param  path    The edges of the opposite order.
+     */
+    LockOrderViolation( final LockOrderTracker.Edge edge, final List<LockOrderTracker.Edge> path )
+    {
+        super( MSG_Inversion.format( edge.to(), edge.from(), path.stream()
+            .map( e -> "'" + e.from() + "'" )
+            .collect( joining( " -> ", "", " -> '" + edge.from() + "'" ) ) ), null, true, true );
+        setStackTrace( edge.site() );
+        for( final var conflicting : path ) addSuppressed( new OrderSite( conflicting ) );
+    }   //  LockOrderViolation()
+}
+//  class LockOrderViolation
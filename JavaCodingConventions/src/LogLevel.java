@@ -63,14 +63,20 @@ public class LogLevel extends Level
     ====** Constructors **===========================================
         \*--------------*/
     /**
-     *  Creates a named LogLevel with a given integer value.
+     *  Creates a named LogLevel with a given integer value, and
+     *  registers it with the
+     *  {@link LogLevelRegistry}.
      *
      *  @param  name    The name of the LogLevel.
      *  @param  value   An integer value for the LogLevel.
      */
+    @SuppressWarnings( "this-escape" )
     protected LogLevel( final String name, final int value )
     {
         super( requireNotBlankArgument( name, "name" ), value );
+
+        //---* Make the new level known to the registry *--------------
+        LogLevelRegistry.register( this );
     }   //  LogLevel()
 
     /**
@@ -81,7 +87,7 @@ public class LogLevel extends Level
      */
     protected LogLevel( final String name, final Level level )
     {
-        super( requireNotBlankArgument( name, "name" ), requireNonNullArgument( level, "level" ).intValue() );
+        this( name, requireNonNullArgument( level, "level" ).intValue() );
     }   //  LogLevel()
 }
 //  class LogLevel
@@ -0,0 +1,329 @@
+package org.tquadrat.foundation.logging;
+
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.logging.Level;
+
+/**
+ *  <p>{@summary A registry for the log levels that finds a level by
+ *  its name or by its int value in constant time, without
+ *  locking.}</p>
+ *  <p>{@link Level#parse(String)}
+ *  searches the list of all known levels, and that list is
+ *  synchronised; this registry keeps immutable hash tables instead,
+ *  that are replaced when a new level is registered. The standard
+ *  levels from
+ *  {@link Level},
+ *  the constants from
+ *  {@link LogLevel},
+ *  and all levels that are created through the constructors of
+ *  {@link LogLevel}
+ *  are registered automatically.</p>
+ *  <p>The constructor of
+ *  {@link LogLevel}
+ *  calls
+ *  {@link #register(Level)},
+ *  so the initialisation of this class must not depend on
+ *  {@link LogLevel};
+ *  otherwise two threads that initialise both classes concurrently
+ *  could wait for each other forever. Therefore the constants from
+ *  {@link LogLevel}
+ *  are registered on the first lookup only.</p>
+ *  <p>When two levels share a name or an int value, the one that was
+ *  registered first wins, as for
+ *  {@link Level#parse(String)};
+ *  so
+ *  {@link #forValue(int)}
+ *  returns
+ *  {@link Level#FINE}
+ *  for the value of
+ *  {@link LogLevel#DEBUG}.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class LogLevelRegistry
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  An immutable hash table for the levels by their int values; a
+     *  lookup does not box the value.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     *
+     *  @param  keys    The int values; the table uses linear probing.
+     *  @param  levels  The levels; {@code null} for an empty slot.
+     */
+    private record ValueTable( int [] keys, Level [] levels )
+    {
+            /*---------*\
+        ====** Methods **============================================
+            \*---------*/
+        /**
+         *  Creates a table from the given levels.
+         *
+         *  @param  levels  The levels; their int values have to be
+         *      unique.
+         *  @return The new table.
+         */
+        static final ValueTable of( final Iterable<Level> levels )
+        {
+            var size = 0;
+            for( final var level : levels ) ++size;
+            final var capacity = Integer.highestOneBit( Math.max( size, 1 ) * 4 - 1 ) << 1;
+            final var retValue = new ValueTable( new int [capacity], new Level [capacity] );
+            for( final var level : levels )
+            {
+                var index = retValue.indexOf( level.intValue() );
+                while( nonNull( retValue.levels() [index] ) ) index = (index + 1) & (capacity - 1);
+                retValue.keys() [index] = level.intValue();
+                retValue.levels() [index] = level;
+            }
+
+            //---* Done *--------------------------------------------
+            return retValue;
+        }   //  of()
+
+        /**
+         *  Returns the level with the given int value.
+         *
+         *  @param  value   The int value.
+         *  @return The level, or {@code null} if there is none.
+         */
+        final Level get( final int value )
+        {
+            var index = indexOf( value );
+            Level retValue = null;
+            while( isNull( retValue ) && nonNull( levels() [index] ) )
+            {
+                if( keys() [index] == value ) retValue = levels() [index];
+                index = (index + 1) & (keys().length - 1);
+            }
+
+            //---* Done *--------------------------------------------
+            return retValue;
+        }   //  get()
+
+        /**
+         *  Returns the first slot for the given int value.
+         *
+         *  @param  value   The int value.
+         *  @return The index of the slot.
+         */
+        private final int indexOf( final int value )
+        {
+            final var hash = value * 0x9E3779B9;
+            final var retValue = (hash ^ (hash >>> 16)) & (keys().length - 1);
+
+            //---* Done *--------------------------------------------
+            return retValue;
+        }   //  indexOf()
+    }
+    //  record ValueTable
+
+    /**
+     *  The holder that registers the constants from
+     *  {@link LogLevel}
+     *  when it is initialised; this happens on the first lookup.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    private static final class Holder
+    {
+            /*------------------------*\
+        ====** Static Initialisations **=============================
+            \*------------------------*/
+        static
+        {
+            for( final var level : new Level [] {LogLevel.DEBUG, LogLevel.ERROR, LogLevel.INFO_FORCED, LogLevel.TRACE} ) register( level );
+        }
+
+            /*---------*\
+        ====** Methods **============================================
+            \*---------*/
+        /**
+         *  Makes sure that this class is initialised.
+         */
+        static final void load() { /* Just triggers the initialisation */ }
+    }
+    //  class Holder
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The levels by name.
+     */
+    private static volatile Map<String,Level> m_Names = Map.of();
+
+    /**
+     *  The standard levels, ordered by their int values.
+     */
+    private static final Level [] m_StandardLevels =
+        { Level.ALL, Level.FINEST, Level.FINER, Level.FINE, Level.CONFIG, Level.INFO, Level.WARNING, Level.SEVERE, Level.OFF };
+
+    /**
+     *  The int values of the standard levels, in ascending order.
+     */
+    private static final int [] m_StandardValues;
+
+    /**
+     *  The levels by int value.
+     */
+    private static volatile ValueTable m_Values = ValueTable.of( List.of() );
+
+    static
+    {
+        m_StandardValues = Arrays.stream( m_StandardLevels ).mapToInt( Level::intValue ).toArray();
+        for( final var level : m_StandardLevels ) register( level );
+    }
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  No instance allowed for this class.
+     */
+    private LogLevelRegistry() { throw new AssertionError( "No instance allowed" ); }
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Returns the level with the given name.
+     *
+     *  @param  name    The name of the level; the case matters.
+     *  @return An instance of
+     *      {@link Optional}
+     *      that holds the level.
+     */
+    public static final Optional<Level> forName( final String name )
+    {
+        requireNonNullArgument( name, "name" );
+        Holder.load();
+        final var retValue = Optional.ofNullable( m_Names.get( name ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  forName()
+
+    /**
+     *  Returns the level with the given int value.
+     *
+     *  @param  value   The int value of the level.
+     *  @return An instance of
+     *      {@link Optional}
+     *      that holds the level.
+     */
+    public static final Optional<Level> forValue( final int value )
+    {
+        Holder.load();
+        final var retValue = Optional.ofNullable( m_Values.get( value ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  forValue()
+
+    /**
+     *  Parses the given String to a level, like
+     *  {@link Level#parse(String)}:
+     *  the String can be the name of a level or an int value. Only if
+     *  it is neither a registered name nor the int value of a
+     *  registered level, this method delegates to
+     *  {@link Level#parse(String)}.
+     *
+     *  @param  name    The name of the level, or its int value.
+     *  @return The level.
+     *  @throws IllegalArgumentException    The String is not valid.
+     */
+    public static final Level parse( final String name ) throws IllegalArgumentException
+    {
+        requireNonNullArgument( name, "name" );
+        Holder.load();
+        var retValue = m_Names.get( name );
+        if( isNull( retValue ) && !name.isEmpty() && (Character.isDigit( name.charAt( 0 ) ) || (name.charAt( 0 ) == '-')) )
+        {
+            try
+            {
+                retValue = m_Values.get( Integer.parseInt( name ) );
+            }
+            catch( final NumberFormatException e )
+            {
+                retValue = null;
+            }
+        }
+        if( isNull( retValue ) ) retValue = Level.parse( name );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  parse()
+
+    /**
+     *  Registers the given level. Names and int values that are already
+     *  registered will not be replaced.
+     *
+     *  @param  level   The level.
+     */
+    public static final synchronized void register( final Level level )
+    {
+        requireNonNullArgument( level, "level" );
+
+        final var name = level.getName();
+        if( !m_Names.containsKey( name ) )
+        {
+            final var names = new HashMap<>( m_Names );
+            names.put( name, level );
+            m_Names = Map.copyOf( names );
+        }
+
+        if( isNull( m_Values.get( level.intValue() ) ) )
+        {
+            final var values = new ArrayList<Level>();
+            for( final var known : m_Values.levels() ) if( nonNull( known ) ) values.add( known );
+            values.add( level );
+            m_Values = ValueTable.of( values );
+        }
+    }   //  register()
+
+    /**
+     *  Returns the standard level that is the threshold for the given
+     *  int value: the standard level with the highest int value that is
+     *  not greater than the given value. A logger with the returned
+     *  level would log a message with the given value.
+     *
+     *  @param  value   The int value of a level.
+     *  @return The standard level.
+     */
+    public static final Level standardLevel( final int value )
+    {
+        var index = Arrays.binarySearch( m_StandardValues, value );
+        if( index < 0 ) index = -index - 2;
+        final var retValue = m_StandardLevels [index];
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  standardLevel()
+
+    /**
+     *  Returns the standard level for the given level.
+     *
+     *  @param  level   The level.
+     *  @return The standard level.
+     *
+     *  @see #standardLevel(int)
+     */
+    public static final Level standardLevel( final Level level )
+    {
+        return standardLevel( requireNonNullArgument( level, "level" ).intValue() );
+    }   //  standardLevel()
+}
+//  class LogLevelRegistry
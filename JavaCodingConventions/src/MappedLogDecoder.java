@@ -0,0 +1,334 @@
+package org.tquadrat.foundation.logging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.logging.MappedLogHandler.ARG_BOOLEAN;
+import static org.tquadrat.foundation.logging.MappedLogHandler.ARG_DOUBLE;
+import static org.tquadrat.foundation.logging.MappedLogHandler.ARG_INT;
+import static org.tquadrat.foundation.logging.MappedLogHandler.ARG_LONG;
+import static org.tquadrat.foundation.logging.MappedLogHandler.ARG_NULL;
+import static org.tquadrat.foundation.logging.MappedLogHandler.ARG_STRING;
+import static org.tquadrat.foundation.logging.MappedLogHandler.FILE_SUFFIX;
+import static org.tquadrat.foundation.logging.MappedLogHandler.KIND_TEMPLATE;
+import static org.tquadrat.foundation.logging.MappedLogHandler.MAGIC;
+import static org.tquadrat.foundation.logging.MappedLogHandler.NULL_ID;
+import static org.tquadrat.foundation.logging.MappedLogHandler.TAG_END;
+import static org.tquadrat.foundation.logging.MappedLogHandler.TAG_RECORD;
+import static org.tquadrat.foundation.logging.MappedLogHandler.TAG_STRING;
+import static org.tquadrat.foundation.logging.MappedLogHandler.VERSION;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
+/**
+ *  <p>{@summary The tool that turns the segments that were written by
+ *  {@link MappedLogHandler}
+ *  into text.}</p>
+ *  <p>Each record is written as one line with the timestamp, the
+ *  level, the name of the logger, the id of the thread and the
+ *  message, followed by the stack trace of the exception, if
+ *  any.</p>
+ *  <p>Call it with the segment files, or with the directories that
+ *  contain them, on the command line; the text goes to
+ *  {@link System#out}:</p>
+ *  <pre><code>java org.tquadrat.foundation.logging.MappedLogDecoder /var/log/myapp</code></pre>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class MappedLogDecoder
+{
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The format for a record: {@value}.
+     */
+    private static final String RECORD_FORMAT = "%1$s %2$-7s %3$s [%4$d] %5$s%n";
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The message for a corrupt segment.
+     */
+    private static final MessageTemplate MSG_Corrupt = MessageTemplate.compile( "'%1$s' is corrupt at position %2$d" );
+
+    /**
+     *  The message for an invalid length of a String.
+     */
+    private static final MessageTemplate MSG_InvalidLength = MessageTemplate.compile( "Invalid String length %1$d at position %2$d" );
+
+    /**
+     *  The message for a file that is not a log segment.
+     */
+    private static final MessageTemplate MSG_NoSegment = MessageTemplate.compile( "'%1$s' is not a log segment" );
+
+    /**
+     *  The message for a truncated segment.
+     */
+    private static final MessageTemplate MSG_Truncated = MessageTemplate.compile( "'%1$s' is truncated" );
+
+    /**
+     *  The message for an undefined String id.
+     */
+    private static final MessageTemplate MSG_UndefinedId = MessageTemplate.compile( "Undefined String id %1$d" );
+
+    /**
+     *  The message for an unknown argument type.
+     */
+    private static final MessageTemplate MSG_UnknownType = MessageTemplate.compile( "Unknown argument type %1$d at position %2$d" );
+
+    /**
+     *  The message for an unsupported version.
+     */
+    private static final MessageTemplate MSG_UnsupportedVersion = MessageTemplate.compile( "'%1$s' has the unsupported version %2$d" );
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  No instance allowed for this class.
+     */
+    private MappedLogDecoder() { throw new AssertionError( "No instance allowed" ); }
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Decodes the given segment. The records before a damaged or
+     *  truncated part of the segment are written to the target.
+     *
+     *  @param  segment The segment file.
+     *  @param  out The target for the text.
+     *  @throws IOException The segment cannot be read, or it is not a
+     *      valid segment, or it is damaged.
+     */
+    public static final void decode( final Path segment, final PrintWriter out ) throws IOException
+    {
+        requireNonNullArgument( out, "out" );
+        final ByteBuffer buffer;
+        try( final var channel = FileChannel.open( requireNonNullArgument( segment, "segment" ) ) )
+        {
+            buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0, channel.size() );
+        }
+        if( (buffer.remaining() < MappedLogHandler.HEADER_SIZE) || (buffer.getInt() != MAGIC) ) throw new IOException( MSG_NoSegment.format( segment ) );
+        final var version = buffer.getInt();
+        if( version != VERSION ) throw new IOException( MSG_UnsupportedVersion.format( segment, version ) );
+
+        final Map<Integer,String> strings = new HashMap<>();
+        try
+        {
+            var tag = buffer.hasRemaining() ? buffer.get() : TAG_END;
+            while( tag != TAG_END )
+            {
+                switch( tag )
+                {
+                    case TAG_STRING ->
+                    {
+                        final var id = buffer.getInt();
+                        strings.put( Integer.valueOf( id ), getString( buffer ) );
+                    }
+                    case TAG_RECORD -> decodeRecord( buffer, strings, out );
+                    default -> throw new IOException( MSG_Corrupt.format( segment, buffer.position() - 1 ) );
+                }
+                tag = buffer.hasRemaining() ? buffer.get() : TAG_END;
+            }
+        }
+        catch( final BufferUnderflowException e )
+        {
+            throw new IOException( MSG_Truncated.format( segment ), e );
+        }
+        catch( final RuntimeException e )
+        {
+            //---* An invalid length, id, type or timestamp *----------
+            throw new IOException( MSG_Corrupt.format( segment, buffer.position() ), e );
+        }
+    }   //  decode()
+
+    /**
+     *  Decodes a record.
+     *
+     *  @param  buffer  The buffer, positioned after the tag.
+     *  @param  strings The Strings that are defined in the segment.
+     *  @param  out The target for the text.
+     */
+    private static final void decodeRecord( final ByteBuffer buffer, final Map<Integer,String> strings, final PrintWriter out )
+    {
+        final var instant = Instant.ofEpochSecond( buffer.getLong(), buffer.getInt() );
+        final var levelValue = buffer.getInt();
+        final var levelName = lookup( strings, buffer.getInt() );
+        final var loggerName = lookup( strings, buffer.getInt() );
+        final var threadId = buffer.getLong();
+        final var kind = buffer.get();
+        final var template = lookup( strings, buffer.getInt() );
+        final var args = new Object [Byte.toUnsignedInt( buffer.get() )];
+        for( var i = 0; i < args.length; ++i ) args [i] = getArgument( buffer );
+        final var thrown = buffer.get() == 0 ? null : getString( buffer );
+
+        out.printf( RECORD_FORMAT, instant, isNull( levelName ) ? Integer.toString( levelValue ) : levelName, loggerName, threadId, format( kind, template, args ) );
+        if( nonNull( thrown ) ) out.print( thrown );
+    }   //  decodeRecord()
+
+    /**
+     *  Formats the message.
+     *
+     *  @param  kind    The kind of the template.
+     *  @param  template    The template.
+     *  @param  args    The arguments.
+     *  @return The message.
+     */
+    private static final String format( final byte kind, final String template, final Object [] args )
+    {
+        var retValue = template;
+        if( nonNull( template ) )
+        {
+            try
+            {
+                if( kind == KIND_TEMPLATE )
+                {
+                    retValue = MessageTemplate.compile( template ).format( args );
+                }
+                else if( (args.length > 0) && template.matches( "(?s).*\\{[0-3].*" ) )
+                {
+                    //---* The same check as in java.util.logging.Formatter *---
+                    retValue = MessageFormat.format( template, args );
+                }
+            }
+            catch( final IllegalArgumentException e )
+            {
+                //---* Includes ValidationException *-------------------
+                retValue = template + ' ' + Arrays.toString( args );
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  format()
+
+    /**
+     *  Reads an argument.
+     *
+     *  @param  buffer  The buffer.
+     *  @return The argument.
+     *  @throws IllegalStateException   The type of the argument is
+     *      unknown.
+     */
+    private static final Object getArgument( final ByteBuffer buffer ) throws IllegalStateException
+    {
+        final var type = buffer.get();
+        final Object retValue = switch( type )
+        {
+            case ARG_NULL -> null;
+            case ARG_INT -> Integer.valueOf( buffer.getInt() );
+            case ARG_LONG -> Long.valueOf( buffer.getLong() );
+            case ARG_DOUBLE -> Double.valueOf( buffer.getDouble() );
+            case ARG_BOOLEAN -> Boolean.valueOf( buffer.get() != 0 );
+            case ARG_STRING -> getString( buffer );
+            default -> throw new IllegalStateException( MSG_UnknownType.format( type, buffer.position() - 1 ) );
+        };
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  getArgument()
+
+    /**
+     *  Reads a String.
+     *
+     *  @param  buffer  The buffer.
+     *  @return The String.
+     *  @throws IllegalStateException   The length of the String is
+     *      invalid.
+     */
+    private static final String getString( final ByteBuffer buffer ) throws IllegalStateException
+    {
+        final var length = buffer.getInt();
+        if( (length < 0) || (length > buffer.remaining()) ) throw new IllegalStateException( MSG_InvalidLength.format( length, buffer.position() - Integer.BYTES ) );
+        final var bytes = new byte [length];
+        buffer.get( bytes );
+        final var retValue = new String( bytes, UTF_8 );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  getString()
+
+    /**
+     *  Returns the String with the given id.
+     *
+     *  @param  strings The Strings that are defined in the segment.
+     *  @param  id  The id.
+     *  @return The String; {@code null} if the id is
+     *      {@link MappedLogHandler#NULL_ID}.
+     *  @throws IllegalStateException   The id is not defined.
+     */
+    private static final String lookup( final Map<Integer,String> strings, final int id ) throws IllegalStateException
+    {
+        String retValue = null;
+        if( id != NULL_ID )
+        {
+            retValue = strings.get( Integer.valueOf( id ) );
+            if( isNull( retValue ) ) throw new IllegalStateException( MSG_UndefinedId.format( id ) );
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  lookup()
+
+    /**
+     *  The entry point for the tool.
+     *
+     *  @param  args    The segment files, or the directories with the
+     *      segment files.
+     */
+    public static final void main( final String... args )
+    {
+        final var out = new PrintWriter( System.out, false, UTF_8 );
+        final List<Path> segments = new ArrayList<>();
+        try
+        {
+            for( final var arg : args )
+            {
+                final var path = Path.of( arg );
+                if( Files.isDirectory( path ) )
+                {
+                    try( final var files = Files.list( path ) )
+                    {
+                        files.filter( file -> file.getFileName().toString().endsWith( FILE_SUFFIX ) )
+                            .sorted()
+                            .forEach( segments::add );
+                    }
+                }
+                else
+                {
+                    segments.add( path );
+                }
+            }
+            for( final var segment : segments ) decode( segment, out );
+        }
+        catch( final IOException e )
+        {
+            throw new UncheckedIOException( e );
+        }
+        finally
+        {
+            out.flush();
+        }
+    }   //  main()
+}
+//  class MappedLogDecoder
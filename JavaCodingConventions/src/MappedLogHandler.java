@@ -0,0 +1,569 @@
+package org.tquadrat.foundation.logging;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.lang.Objects.requireNotBlankArgument;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.LogRecord;
+
+import org.tquadrat.foundation.exception.ValidationException;
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
+/**
+ *  <p>{@summary A
+ *  {@link Handler}
+ *  that writes the log records in a compact binary format to
+ *  memory-mapped segment files.} The records are not formatted; the
+ *  tool
+ *  {@link MappedLogDecoder}
+ *  turns the segments into text.</p>
+ *  <p>Each record holds the timestamp, the int value and the name of
+ *  the level, the name of the logger, the id of the thread, the
+ *  message template and the arguments. The templates, the names of
+ *  the levels and the names of the loggers are written only once per
+ *  segment; the records refer to them by an id. Arguments of type
+ *  {@link Integer},
+ *  {@link Long},
+ *  {@link Double}
+ *  or
+ *  {@link Boolean}
+ *  are stored in their binary form, all other arguments as their
+ *  String representation. For the records from
+ *  {@link LevelLogger},
+ *  the template is a
+ *  {@link org.tquadrat.foundation.lang.internal.MessageTemplate},
+ *  for all others it is the pattern for
+ *  {@link java.text.MessageFormat}
+ *  that is used by
+ *  {@link java.util.logging.Formatter#formatMessage(LogRecord)};
+ *  resource bundles are not supported.</p>
+ *  <p>A segment is a file of a fixed size that is mapped into memory;
+ *  when it is full, the handler continues with the next segment. The
+ *  segments are named
+ *  <code><i>prefix</i>-<i>nnnnnn</i>{@value #FILE_SUFFIX}</code>;
+ *  the numbering continues after the segments that are already in the
+ *  directory. The unused rest of a segment remains filled with zeroes,
+ *  so the decoder knows where the data ends.</p>
+ *  <p>A record is in the page cache of the operating system as soon
+ *  as it is written, so it will not be lost if the process crashes;
+ *  {@link #flush()}
+ *  forces the data to the disk.</p>
+ *  <p>When configured through the
+ *  {@link LogManager},
+ *  the handler reads the following properties, each prefixed with the
+ *  name of this class:</p>
+ *  <ul>
+ *      <li>{@code .directory} – the directory for the segments; the
+ *      default is the directory for temporary files.</li>
+ *      <li>{@code .prefix} – the prefix for the names of the segments;
+ *      the default is {@code java}.</li>
+ *      <li>{@code .segmentSize} – the size of a segment in bytes; the
+ *      default is
+ *      {@value #DEFAULT_SEGMENT_SIZE}.</li>
+ *      <li>{@code .level} – the level of this handler; the default is
+ *      {@link Level#ALL}.</li>
+ *  </ul>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class MappedLogHandler extends Handler
+{
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The type of an argument: {@value}.
+     */
+    static final byte ARG_BOOLEAN = 4;
+
+    /**
+     *  The type of an argument: {@value}.
+     */
+    static final byte ARG_DOUBLE = 3;
+
+    /**
+     *  The type of an argument: {@value}.
+     */
+    static final byte ARG_INT = 1;
+
+    /**
+     *  The type of an argument: {@value}.
+     */
+    static final byte ARG_LONG = 2;
+
+    /**
+     *  The type of an argument: {@value}.
+     */
+    static final byte ARG_NULL = 0;
+
+    /**
+     *  The type of an argument: {@value}.
+     */
+    static final byte ARG_STRING = 5;
+
+    /**
+     *  The default size of a segment: {@value} bytes.
+     */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /**
+     *  The suffix for the segment files: {@value}.
+     */
+    public static final String FILE_SUFFIX = ".tqlog";
+
+    /**
+     *  The size of the segment header in bytes: {@value}.
+     */
+    static final int HEADER_SIZE = 8;
+
+    /**
+     *  The kind of a template: a pattern for
+     *  {@link java.text.MessageFormat}
+     *  ({@value}).
+     */
+    static final byte KIND_JUL = 0;
+
+    /**
+     *  The kind of a template: a
+     *  {@link org.tquadrat.foundation.lang.internal.MessageTemplate}
+     *  ({@value}).
+     */
+    static final byte KIND_TEMPLATE = 1;
+
+    /**
+     *  The magic number at the beginning of each segment: {@value}.
+     */
+    static final int MAGIC = 0x54514C47;
+
+    /**
+     *  The id for a {@code null} String: {@value}.
+     */
+    static final int NULL_ID = -1;
+
+    /**
+     *  The tag for the end of the data in a segment: {@value}.
+     */
+    static final byte TAG_END = 0;
+
+    /**
+     *  The tag for a log record: {@value}.
+     */
+    static final byte TAG_RECORD = 2;
+
+    /**
+     *  The tag for the definition of a String: {@value}.
+     */
+    static final byte TAG_STRING = 1;
+
+    /**
+     *  The version of the format: {@value}.
+     */
+    static final int VERSION = 1;
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The current segment; {@code null} after the handler was closed.
+     */
+    private MappedByteBuffer m_Buffer;
+
+    /**
+     *  The directory for the segments.
+     */
+    private final Path m_Directory;
+
+    /**
+     *  The id for the next String that will be defined in the current
+     *  segment.
+     */
+    private int m_NextId;
+
+    /**
+     *  The prefix for the names of the segments.
+     */
+    private final String m_Prefix;
+
+    /**
+     *  The number of the current segment.
+     */
+    private int m_SegmentNumber;
+
+    /**
+     *  The size of a segment.
+     */
+    private final int m_SegmentSize;
+
+    /**
+     *  The Strings that are defined in the current segment, with their
+     *  ids.
+     */
+    private final Map<String,Integer> m_Strings;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The message for a segment size that is too small.
+     */
+    private static final MessageTemplate MSG_SegmentTooSmall = MessageTemplate.compile( "Segment size is too small: %1$d" );
+
+    /**
+     *  The message for a record with too many arguments.
+     */
+    private static final MessageTemplate MSG_TooManyArguments = MessageTemplate.compile( "Too many arguments: %1$d" );
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code MappedLogHandler} instance that is
+     *  configured through the
+     *  {@link LogManager}.
+     *
+     *  @throws IOException The first segment cannot be created.
+     */
+    public MappedLogHandler() throws IOException
+    {
+        this( Path.of( property( "directory", System.getProperty( "java.io.tmpdir" ) ) ),
+            property( "prefix", "java" ),
+            Integer.parseInt( property( "segmentSize", Integer.toString( DEFAULT_SEGMENT_SIZE ) ) ) );
+        setLevel( Level.parse( property( "level", Level.ALL.getName() ) ) );
+    }   //  MappedLogHandler()
+
+    /**
+     *  Creates a new {@code MappedLogHandler} instance.
+     *
+     *  @param  directory   The directory for the segments; it will be
+     *      created if it does not exist.
+     *  @param  prefix  The prefix for the names of the segments.
+     *  @param  segmentSize The size of a segment in bytes.
+     *  @throws ValidationException The segment size is too small.
+     *  @throws IOException The first segment cannot be created.
+     */
+    public MappedLogHandler( final Path directory, final String prefix, final int segmentSize ) throws ValidationException, IOException
+    {
+        m_Directory = requireNonNullArgument( directory, "directory" );
+        m_Prefix = requireNotBlankArgument( prefix, "prefix" );
+        if( segmentSize < 1024 ) throw new ValidationException( MSG_SegmentTooSmall.format( segmentSize ) );
+        m_SegmentSize = segmentSize;
+        m_Strings = new HashMap<>();
+
+        Files.createDirectories( m_Directory );
+        try( final var files = Files.list( m_Directory ) )
+        {
+            m_SegmentNumber = files.mapToInt( this::segmentNumber )
+                .max()
+                .orElse( 0 );
+        }
+        nextSegment();
+    }   //  MappedLogHandler()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final synchronized void close()
+    {
+        if( nonNull( m_Buffer ) )
+        {
+            m_Buffer.force();
+            m_Buffer = null;
+        }
+    }   //  close()
+
+    /**
+     *  Writes the given record to the current segment.
+     *
+     *  @param  record  The record.
+     *  @throws BufferOverflowException The segment is full.
+     *  @throws ValidationException The record has more than 255
+     *      arguments.
+     */
+    private final void encode( final LogRecord record ) throws BufferOverflowException, ValidationException
+    {
+        final String template;
+        final Object [] args;
+        final byte kind;
+        if( record instanceof final LevelLogger.TemplateLogRecord templateRecord )
+        {
+            template = templateRecord.getTemplate();
+            args = templateRecord.getArguments();
+            kind = KIND_TEMPLATE;
+        }
+        else
+        {
+            template = record.getMessage();
+            args = record.getParameters();
+            kind = KIND_JUL;
+        }
+        final var argCount = isNull( args ) ? 0 : args.length;
+        if( argCount > 255 ) throw new ValidationException( MSG_TooManyArguments.format( argCount ) );
+        String thrown = null;
+        if( nonNull( record.getThrown() ) )
+        {
+            final var writer = new StringWriter();
+            record.getThrown().printStackTrace( new PrintWriter( writer ) );
+            thrown = writer.toString();
+        }
+
+        //---* Define the Strings before the record *------------------
+        final var levelId = intern( record.getLevel().getName() );
+        final var loggerId = intern( record.getLoggerName() );
+        final var templateId = intern( template );
+
+        final var instant = record.getInstant();
+        m_Buffer.put( TAG_RECORD )
+            .putLong( instant.getEpochSecond() )
+            .putInt( instant.getNano() )
+            .putInt( record.getLevel().intValue() )
+            .putInt( levelId )
+            .putInt( loggerId )
+            .putLong( record.getLongThreadID() )
+            .put( kind )
+            .putInt( templateId )
+            .put( (byte) argCount );
+        for( var i = 0; i < argCount; ++i ) putArgument( args [i] );
+        if( isNull( thrown ) )
+        {
+            m_Buffer.put( (byte) 0 );
+        }
+        else
+        {
+            m_Buffer.put( (byte) 1 );
+            putString( thrown );
+        }
+    }   //  encode()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>Forces the current segment to the disk.</p>
+     */
+    @Override
+    public final synchronized void flush()
+    {
+        if( nonNull( m_Buffer ) ) m_Buffer.force();
+    }   //  flush()
+
+    /**
+     *  Returns the id for the given String; if it is not yet defined in
+     *  the current segment, the definition will be written.
+     *
+     *  @param  value   The String; may be {@code null}.
+     *  @return The id.
+     *  @throws BufferOverflowException The segment is full.
+     */
+    private final int intern( final String value ) throws BufferOverflowException
+    {
+        var retValue = NULL_ID;
+        if( nonNull( value ) )
+        {
+            final var id = m_Strings.get( value );
+            if( isNull( id ) )
+            {
+                retValue = m_NextId++;
+                m_Buffer.put( TAG_STRING ).putInt( retValue );
+                putString( value );
+                m_Strings.put( value, Integer.valueOf( retValue ) );
+            }
+            else
+            {
+                retValue = id.intValue();
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  intern()
+
+    /**
+     *  Creates the next segment, and maps it into memory.
+     *
+     *  @throws IOException The segment cannot be created.
+     */
+    private final void nextSegment() throws IOException
+    {
+        if( nonNull( m_Buffer ) ) m_Buffer.force();
+        m_Buffer = null;
+        m_Strings.clear();
+        m_NextId = 0;
+
+        final var path = m_Directory.resolve( "%s-%06d%s".formatted( m_Prefix, ++m_SegmentNumber, FILE_SUFFIX ) );
+        try( final var channel = FileChannel.open( path, CREATE_NEW, READ, WRITE ) )
+        {
+            m_Buffer = channel.map( FileChannel.MapMode.READ_WRITE, 0, m_SegmentSize );
+        }
+        m_Buffer.putInt( MAGIC ).putInt( VERSION );
+    }   //  nextSegment()
+
+    /**
+     *  Returns the value of the configuration property with the given
+     *  name.
+     *
+     *  @param  name    The name of the property, without the prefix.
+     *  @param  defaultValue    The default value.
+     *  @return The value of the property.
+     */
+    private static final String property( final String name, final String defaultValue )
+    {
+        final var value = LogManager.getLogManager().getProperty( MappedLogHandler.class.getName() + '.' + name );
+        final var retValue = isNull( value ) || value.isBlank() ? defaultValue : value.strip();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  property()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final synchronized void publish( final LogRecord record )
+    {
+        if( nonNull( m_Buffer ) && isLoggable( record ) )
+        {
+            try
+            {
+                if( !tryEncode( record ) )
+                {
+                    nextSegment();
+                    if( !tryEncode( record ) ) reportError( "Record is too large for a segment", null, ErrorManager.WRITE_FAILURE );
+                }
+            }
+            catch( final IOException | RuntimeException e )
+            {
+                reportError( null, e, ErrorManager.WRITE_FAILURE );
+            }
+        }
+    }   //  publish()
+
+    /**
+     *  Writes the given argument.
+     *
+     *  @param  arg The argument; may be {@code null}.
+     *  @throws BufferOverflowException The segment is full.
+     */
+    private final void putArgument( final Object arg ) throws BufferOverflowException
+    {
+        switch( arg )
+        {
+            case null -> m_Buffer.put( ARG_NULL );
+            case final Integer value -> m_Buffer.put( ARG_INT ).putInt( value.intValue() );
+            case final Short value -> m_Buffer.put( ARG_INT ).putInt( value.intValue() );
+            case final Byte value -> m_Buffer.put( ARG_INT ).putInt( value.intValue() );
+            case final Long value -> m_Buffer.put( ARG_LONG ).putLong( value.longValue() );
+            case final Double value -> m_Buffer.put( ARG_DOUBLE ).putDouble( value.doubleValue() );
+            case final Float value -> m_Buffer.put( ARG_DOUBLE ).putDouble( value.doubleValue() );
+            case final Boolean value -> m_Buffer.put( ARG_BOOLEAN ).put( value.booleanValue() ? (byte) 1 : (byte) 0 );
+            default ->
+            {
+                m_Buffer.put( ARG_STRING );
+                putString( String.valueOf( arg ) );
+            }
+        }
+    }   //  putArgument()
+
+    /**
+     *  Writes the given String as its length in bytes, followed by its
+     *  UTF-8 encoding.
+     *
+     *  @param  value   The String.
+     *  @throws BufferOverflowException The segment is full.
+     */
+    private final void putString( final String value ) throws BufferOverflowException
+    {
+        final var bytes = value.getBytes( UTF_8 );
+        m_Buffer.putInt( bytes.length ).put( bytes );
+    }   //  putString()
+
+    /**
+     *  Returns the number of the segment with the given path.
+     *
+     *  @param  path    The path.
+     *  @return The number of the segment, or 0 if the path does not
+     *      denote a segment of this handler.
+     */
+    private final int segmentNumber( final Path path )
+    {
+        var retValue = 0;
+        final var name = path.getFileName().toString();
+        final var start = m_Prefix.length() + 1;
+        if( name.startsWith( m_Prefix + '-' ) && name.endsWith( FILE_SUFFIX ) && (name.length() > start + FILE_SUFFIX.length()) )
+        {
+            try
+            {
+                retValue = Integer.parseInt( name.substring( start, name.length() - FILE_SUFFIX.length() ) );
+            }
+            catch( final NumberFormatException e )
+            {
+                retValue = 0;
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  segmentNumber()
+
+    /**
+     *  Tries to write the given record to the current segment. If it
+     *  does not fit, or if it cannot be encoded, the segment is left
+     *  unchanged.
+     *
+     *  @param  record  The record.
+     *  @return {@code true} if the record was written, {@code false} if
+     *      the segment is full.
+     *  @throws RuntimeException    The record cannot be encoded.
+     */
+    private final boolean tryEncode( final LogRecord record )
+    {
+        final var start = m_Buffer.position();
+        final var nextId = m_NextId;
+        var retValue = true;
+        try
+        {
+            encode( record );
+        }
+        catch( final RuntimeException e )
+        {
+            /*
+             * Roll back; the decoder stops at the end tag. Not only an
+             * overflow leaves a partial record behind, but also an
+             * argument whose toString() method fails. The partial
+             * record is erased completely, otherwise a shorter record
+             * that is written later would be followed by its rest.
+             */
+            final var end = m_Buffer.position();
+            for( var i = start; i < end; ++i ) m_Buffer.put( i, TAG_END );
+            m_Buffer.position( start );
+            m_Strings.values().removeIf( id -> id.intValue() >= nextId );
+            m_NextId = nextId;
+            if( !(e instanceof BufferOverflowException) ) throw e;
+            retValue = false;
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  tryEncode()
+}
+//  class MappedLogHandler
@@ -0,0 +1,250 @@
+package org.tquadrat.foundation.lang.internal;
+
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.util.ArrayList;
+import java.util.MissingFormatArgumentException;
+
+import org.tquadrat.foundation.exception.ValidationException;
+
+/**
+ *  <p>{@summary A message template that is parsed once, and can then
+ *  be rendered any number of times, concurrently from multiple
+ *  threads.}</p>
+ *  <p>The template uses a subset of the syntax of
+ *  {@link java.util.Formatter}:</p>
+ *  <ul>
+ *      <li>{@code %1$s}, {@code %2$s}, … refer to the arguments by
+ *      their position,</li>
+ *      <li>{@code %s} refers to the next argument, like for
+ *      {@link String#format(String, Object...)},</li>
+ *      <li>{@code %d} and {@code %1$d} are accepted for numbers, but
+ *      rendered like {@code %s},</li>
+ *      <li>{@code %%} stands for a single percent sign, and {@code %n}
+ *      for the line separator.</li>
+ *  </ul>
+ *  <p>Flags, widths, precisions and all other conversions are not
+ *  supported; they will be rejected when the template is compiled.
+ *  Without these, rendering a template does not need a
+ *  {@link java.util.Formatter}
+ *  and no parsing; it just appends the literal parts and the String
+ *  representations of the arguments to a
+ *  {@link StringBuilder}.
+ *  That builder can be provided by the caller, so it can be reused
+ *  for multiple messages.</p>
+ *  <p>The templates for messages should be compiled once and kept in
+ *  a {@code static final} field.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class MessageTemplate
+{
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The assumed average length of a rendered argument: {@value}.
+     */
+    private static final int AVERAGE_ARGUMENT_LENGTH = 16;
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The positions of the arguments, in the order of their
+     *  occurrence in the template, zero based.
+     */
+    private final int [] m_Indexes;
+
+    /**
+     *  The total length of the literal parts.
+     */
+    private final int m_Length;
+
+    /**
+     *  The literal parts; there is one more than there are arguments.
+     */
+    private final String [] m_Literals;
+
+    /**
+     *  The source of the template.
+     */
+    private final String m_Template;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The message for an incomplete format specifier.
+     */
+    private static final MessageTemplate MSG_IncompleteSpecifier = compile( "Incomplete format specifier at the end of template '%1$s'" );
+
+    /**
+     *  The message for an unsupported format specifier.
+     */
+    private static final MessageTemplate MSG_UnsupportedSpecifier = compile( "Unsupported format specifier '%1$s' in template '%2$s'" );
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code MessageTemplate} instance.
+     *
+     *  @param  template    The source of the template.
+     *  @param  literals    The literal parts.
+     *  @param  indexes The positions of the arguments.
+     */
+    private MessageTemplate( final String template, final String [] literals, final int [] indexes )
+    {
+        m_Template = template;
+        m_Literals = literals;
+        m_Indexes = indexes;
+        var length = 0;
+        for( final var literal : literals ) length += literal.length();
+        m_Length = length;
+    }   //  MessageTemplate()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Renders the message to the given builder.
+     *
+     *  @param  builder The builder.
+     *  @param  args    The arguments.
+     *  @return The builder.
+     *  @throws MissingFormatArgumentException  There are fewer
+     *      arguments than the template refers to.
+     */
+    public final StringBuilder appendTo( final StringBuilder builder, final Object... args ) throws MissingFormatArgumentException
+    {
+        requireNonNullArgument( builder, "builder" );
+        final var argCount = isNull( args ) ? 0 : args.length;
+        for( var i = 0; i < m_Indexes.length; ++i )
+        {
+            builder.append( m_Literals [i] );
+            final var index = m_Indexes [i];
+            if( index >= argCount ) throw new MissingFormatArgumentException( "%" + (index + 1) + "$s" );
+            builder.append( args [index] );
+        }
+        builder.append( m_Literals [m_Indexes.length] );
+
+        //---* Done *------------------------------------------------
+        return builder;
+    }   //  appendTo()
+
+    /**
+     *  Compiles the given template.
+     *
+     *  @param  template    The template.
+     *  @return The compiled template.
+     *  @throws ValidationException The template contains a format
+     *      specifier that is not supported.
+     */
+    public static final MessageTemplate compile( final String template ) throws ValidationException
+    {
+        requireNonNullArgument( template, "template" );
+
+        final var literals = new ArrayList<String>();
+        final var indexes = new ArrayList<Integer>();
+        final var literal = new StringBuilder();
+        var nextIndex = 0;
+        var i = 0;
+        while( i < template.length() )
+        {
+            final var c = template.charAt( i++ );
+            if( c == '%' )
+            {
+                if( i == template.length() ) throw new ValidationException( MSG_IncompleteSpecifier.format( template ) );
+                switch( template.charAt( i ) )
+                {
+                    case '%' ->
+                    {
+                        literal.append( '%' );
+                        ++i;
+                    }
+                    case 'n' ->
+                    {
+                        literal.append( System.lineSeparator() );
+                        ++i;
+                    }
+                    default ->
+                    {
+                        final var start = i - 1;
+                        var position = 0;
+                        while( (i < template.length()) && Character.isDigit( template.charAt( i ) ) )
+                        {
+                            position = position * 10 + (template.charAt( i++ ) - '0');
+                        }
+                        var index = -1;
+                        if( (position > 0) && (i < template.length()) && (template.charAt( i ) == '$') )
+                        {
+                            index = position - 1;
+                            ++i;
+                        }
+                        else if( i == start + 1 )
+                        {
+                            index = nextIndex++;
+                        }
+                        final var isValid = (index >= 0) && (i < template.length()) && ((template.charAt( i ) == 's') || (template.charAt( i ) == 'd'));
+                        if( !isValid ) throw new ValidationException( MSG_UnsupportedSpecifier.format( template.substring( start, Math.min( i + 1, template.length() ) ), template ) );
+                        ++i;
+                        literals.add( literal.toString() );
+                        literal.setLength( 0 );
+                        indexes.add( Integer.valueOf( index ) );
+                    }
+                }
+            }
+            else
+            {
+                literal.append( c );
+            }
+        }
+        literals.add( literal.toString() );
+
+        final var retValue = new MessageTemplate( template, literals.toArray( String []::new ), indexes.stream().mapToInt( Integer::intValue ).toArray() );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  compile()
+
+    /**
+     *  Renders the message.
+     *
+     *  @param  args    The arguments.
+     *  @return The message.
+     *  @throws MissingFormatArgumentException  There are fewer
+     *      arguments than the template refers to.
+     */
+    public final String format( final Object... args ) throws MissingFormatArgumentException
+    {
+        final var retValue = appendTo( new StringBuilder( m_Length + AVERAGE_ARGUMENT_LENGTH * m_Indexes.length ), args ).toString();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  format()
+
+    /**
+     *  Returns the number of arguments the template requires.
+     *
+     *  @return The number of arguments.
+     */
+    public final int getArgumentCount()
+    {
+        var retValue = 0;
+        for( final var index : m_Indexes ) retValue = Math.max( retValue, index + 1 );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  getArgumentCount()
+
+    /**
+     *  Returns the source of the template.
+     *
+     *  @return The template.
+     */
+    @Override
+    public final String toString() { return m_Template; }
+}
+//  class MessageTemplate
@@ -0,0 +1,124 @@
+package org.tquadrat.foundation.lang.benchmark;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
+/**
+ *  <p>{@summary JMH benchmarks that compare
+ *  {@link MessageTemplate}
+ *  with
+ *  {@link String#format(String, Object...)}
+ *  and
+ *  {@link String#formatted(Object...)}.}</p>
+ *  <p>All benchmarks render the message of
+ *  {@link org.tquadrat.foundation.exception.UnsupportedEnumError}
+ *  with two arguments. {@code templateAppendTo} renders into a
+ *  builder that is reused for each call, as it would be done when
+ *  many messages are written in a loop; it returns the length instead
+ *  of a String.</p>
+ *  <p>Run the benchmarks with {@code -prof gc} to compare the
+ *  allocation rates.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+@BenchmarkMode( AverageTime )
+@OutputTimeUnit( NANOSECONDS )
+@Warmup( iterations = 5, time = 1, timeUnit = SECONDS )
+@Measurement( iterations = 5, time = 1, timeUnit = SECONDS )
+@Fork( 2 )
+@State( Scope.Thread )
+public class MessageTemplateBenchmark
+{
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The message template: {@value}.
+     */
+    private static final String TEMPLATE = "The value '%2$s' of enum class '%1$s' is not supported";
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The reusable builder.
+     */
+    private final StringBuilder m_Builder = new StringBuilder( 128 );
+
+    /**
+     *  The first argument.
+     */
+    private String m_Type = "java.time.DayOfWeek";
+
+    /**
+     *  The second argument.
+     */
+    private String m_Value = "SATURDAY";
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The compiled template.
+     */
+    private static final MessageTemplate m_Template = MessageTemplate.compile( TEMPLATE );
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Renders the message with
+     *  {@link String#format(String, Object...)}.
+     *
+     *  @return The message.
+     */
+    @Benchmark
+    public String stringFormat() { return String.format( TEMPLATE, m_Type, m_Value ); }
+
+    /**
+     *  Renders the message with
+     *  {@link String#formatted(Object...)}.
+     *
+     *  @return The message.
+     */
+    @Benchmark
+    public String stringFormatted() { return TEMPLATE.formatted( m_Type, m_Value ); }
+
+    /**
+     *  Renders the message with
+     *  {@link MessageTemplate#appendTo(StringBuilder, Object...)}
+     *  into a reused builder.
+     *
+     *  @return The length of the message.
+     */
+    @Benchmark
+    public int templateAppendTo()
+    {
+        m_Builder.setLength( 0 );
+        final var retValue = m_Template.appendTo( m_Builder, m_Type, m_Value ).length();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  templateAppendTo()
+
+    /**
+     *  Renders the message with
+     *  {@link MessageTemplate#format(Object...)}.
+     *
+     *  @return The message.
+     */
+    @Benchmark
+    public String templateFormat() { return m_Template.format( m_Type, m_Value ); }
+}
+//  class MessageTemplateBenchmark
@@ -1,24 +1,71 @@
 package org.tquadrat.foundation.exception;
 
-import static org.tquadrat.foundation.lang.CommonConstants.EMPTY_STRING;
+import static org.tquadrat.foundation.lang.Objects.isNull;
 import static org.tquadrat.foundation.lang.Objects.nonNull;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serial;
 
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
 /**
  *  This is a specialized implementation for the
  *  {@link IllegalArgumentException}
  *  that should be used instead of the latter in cases where {@code null} is
  *  provided as an illegal argument value.
  *
+ *  The message is not formatted when the exception is created, but
+ *  only when it is requested for the first time; most of these
+ *  exceptions are caught and handled without ever looking at the
+ *  message.
+ *
  *  @author Thomas Thrien - thomas.thrien@tquadrat.org
  */
 public sealed class NullArgumentException extends ValidationException
     permits BlankArgumentException, EmptyArgumentException
 {
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The name of the argument.
+     *
+     *  @serial
+     */
+    private final String m_ArgName;
+
+    /**
+     *  The formatted message; will be set on the first call to
+     *  {@link #getMessage()}.
+     *
+     *  @serial
+     */
+    private String m_Message;
+
+    /**
+     *  The message template that is used when the name of the argument
+     *  is known; it is not needed after deserialisation, as the message
+     *  is formatted before the serialisation.
+     */
+    private final transient MessageTemplate m_MsgName;
+
+    /**
+     *  The message that is used when the name of the argument is not
+     *  known.
+     *
+     *  @serial
+     */
+    private final String m_MsgNone;
+
         /*------------------------*\
     ====** Static Initialisations **=================================
         \*------------------------*/
+    /**
+     *  The message template for the name of the argument.
+     */
+    private static final MessageTemplate MSG_NullArgument = MessageTemplate.compile( "Argument '%1$s' must not be null" );
+
     /**
      *  The serial version UID for objects of this class: {@value}.
      *
@@ -45,7 +92,7 @@ public sealed class NullArgumentException extends ValidationException
      */
     public NullArgumentException( final String argName )
     {
-        this( argName, "Argument '%1$s' must not be null", "Argument must not be null" );
+        this( argName, MSG_NullArgument, "Argument must not be null" );
     }   //  NullArgumentException()
 
     /**
@@ -58,13 +105,69 @@ public sealed class NullArgumentException extends ValidationException
      *      provided as {@code null}; if {@code null} or the empty
      *      String, a default message is used that does not use the
      *      name of the argument.
-     *  @param  msgName The regular message.
+     *  @param  msgName The template for the regular message.
      *  @param  msgNone The default message.
      */
-    protected NullArgumentException( final String argName, final String msgName, final String msgNone )
+    protected NullArgumentException( final String argName, final MessageTemplate msgName, final String msgNone )
     {
-        super( nonNull( argName ) && !argName.isEmpty() ? msgName.formatted( argName ) ) : msgNone );
+        super();
+        m_ArgName = argName;
+        m_Message = null;
+        m_MsgName = msgName;
+        m_MsgNone = msgNone;
     }   //  NullArgumentException()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     *  <p>The message will be formatted on the first call to this
+     *  method.</p>
+     */
+    @Override
+    public final String getMessage()
+    {
+        var retValue = m_Message;
+        if( isNull( retValue ) )
+        {
+            /*
+             * An instance that was deserialised from the stream of an
+             * older version has the formatted message already.
+             */
+            if( isNull( m_MsgNone ) )
+            {
+                retValue = super.getMessage();
+            }
+            else
+            {
+                retValue = nonNull( m_ArgName ) && !m_ArgName.isEmpty() ? m_MsgName.format( m_ArgName ) : m_MsgNone;
+            }
+
+            /*
+             * Concurrent calls may format the message more than once,
+             * but they will always get an equal result.
+             */
+            m_Message = retValue;
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  getMessage()
+
+    /**
+     *  Formats the message before the exception will be serialised, so
+     *  that the deserialised instance will return the same message.
+     *
+     *  @param  stream  The output stream.
+     *  @throws IOException Writing the exception failed.
+     */
+    @Serial
+    private void writeObject( final ObjectOutputStream stream ) throws IOException
+    {
+        getMessage();
+        stream.defaultWriteObject();
+    }   //  writeObject()
 }
 //  class NullArgumentException
 
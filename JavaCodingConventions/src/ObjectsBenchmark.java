@@ -0,0 +1,161 @@
+package org.tquadrat.foundation.lang.benchmark;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static org.tquadrat.foundation.lang.Objects.requireNotBlankArgument;
+import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.tquadrat.foundation.lang.Objects;
+
+/**
+ *  <p>{@summary JMH benchmarks that compare the generic versions of
+ *  {@link Objects#requireNotEmptyArgument(Object, String)}
+ *  and
+ *  {@link Objects#requireNotBlankArgument(CharSequence, String)}
+ *  with their overloads that are specialised by type.}</p>
+ *  <p>The benchmarks with the prefix {@code generic} call the generic
+ *  version (the argument is cast to {@code Object} or
+ *  {@code CharSequence} to enforce that), those with the prefix
+ *  {@code specialised} call the overload that the compiler selects
+ *  for the type of the argument.</p>
+ *  <p>The benchmarks with the suffix {@code Mixed} check values of
+ *  five different types – a String, a
+ *  {@link List},
+ *  a
+ *  {@link Map},
+ *  an {@code int} array and an object array; for the generic
+ *  version, these go through a single call site, so the type check in
+ *  the method is megamorphic, while each of the specialised overloads
+ *  sees one type only. The benchmarks with the suffix {@code String}
+ *  check a String only, so the generic version is monomorphic, too.
+ *  The results are given per check.</p>
+ *  <p>Run the benchmarks with {@code -prof gc} to confirm that none of
+ *  the checks allocates memory.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+@BenchmarkMode( AverageTime )
+@OutputTimeUnit( NANOSECONDS )
+@Warmup( iterations = 5, time = 1, timeUnit = SECONDS )
+@Measurement( iterations = 5, time = 1, timeUnit = SECONDS )
+@Fork( 2 )
+@State( Scope.Benchmark )
+public class ObjectsBenchmark
+{
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  An {@code int} array.
+     */
+    private int [] m_IntArray = {1, 2, 3};
+
+    /**
+     *  A list.
+     */
+    private List<String> m_List = List.of( "value" );
+
+    /**
+     *  A map.
+     */
+    private Map<String,String> m_Map = Map.of( "key", "value" );
+
+    /**
+     *  An object array.
+     */
+    private String [] m_ObjectArray = {"value"};
+
+    /**
+     *  A String.
+     */
+    private String m_String = "value";
+
+    /**
+     *  All the values from above.
+     */
+    private Object [] m_Values = {m_String, m_List, m_Map, m_IntArray, m_ObjectArray};
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Checks a String with the generic version of
+     *  {@code requireNotBlankArgument()}.
+     *
+     *  @return The checked value.
+     */
+    @Benchmark
+    public CharSequence genericBlankString() { return requireNotBlankArgument( (CharSequence) m_String, "arg" ); }
+
+    /**
+     *  Checks values of different types with the generic version of
+     *  {@code requireNotEmptyArgument()}.
+     *
+     *  @param  blackhole   The sink for the checked values.
+     */
+    @Benchmark
+    @OperationsPerInvocation( 5 )
+    public void genericEmptyMixed( final Blackhole blackhole )
+    {
+        for( final var value : m_Values ) blackhole.consume( requireNotEmptyArgument( value, "arg" ) );
+    }   //  genericEmptyMixed()
+
+    /**
+     *  Checks a String with the generic version of
+     *  {@code requireNotEmptyArgument()}.
+     *
+     *  @return The checked value.
+     */
+    @Benchmark
+    public Object genericEmptyString() { return requireNotEmptyArgument( (Object) m_String, "arg" ); }
+
+    /**
+     *  Checks a String with the specialised version of
+     *  {@code requireNotBlankArgument()}.
+     *
+     *  @return The checked value.
+     */
+    @Benchmark
+    public String specialisedBlankString() { return requireNotBlankArgument( m_String, "arg" ); }
+
+    /**
+     *  Checks values of different types with the specialised versions
+     *  of {@code requireNotEmptyArgument()}.
+     *
+     *  @param  blackhole   The sink for the checked values.
+     */
+    @Benchmark
+    @OperationsPerInvocation( 5 )
+    public void specialisedEmptyMixed( final Blackhole blackhole )
+    {
+        blackhole.consume( requireNotEmptyArgument( m_String, "arg" ) );
+        blackhole.consume( requireNotEmptyArgument( m_List, "arg" ) );
+        blackhole.consume( requireNotEmptyArgument( m_Map, "arg" ) );
+        blackhole.consume( requireNotEmptyArgument( m_IntArray, "arg" ) );
+        blackhole.consume( requireNotEmptyArgument( m_ObjectArray, "arg" ) );
+    }   //  specialisedEmptyMixed()
+
+    /**
+     *  Checks a String with the specialised version of
+     *  {@code requireNotEmptyArgument()}.
+     *
+     *  @return The checked value.
+     */
+    @Benchmark
+    public String specialisedEmptyString() { return requireNotEmptyArgument( m_String, "arg" ); }
+}
+//  class ObjectsBenchmark
@@ -0,0 +1,216 @@
+package org.tquadrat.util.concurrent;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ *  A reentrant, non-fair implementation of
+ *  {@link Lock}
+ *  whose synchroniser is padded, so that its state does not share a
+ *  cache line with the state of another instance.
+ *
+ *  The state of a lock is written by each acquisition and each
+ *  release. Locks that are allocated together, like the stripes of a
+ *  {@link StripedAutoLock},
+ *  would otherwise slow each other down even if they are used by
+ *  different threads. The padding follows the fields of the
+ *  synchroniser in the same object, so it does not depend on the
+ *  order in which the garbage collector places the objects: whichever
+ *  of two instances comes first, its padding separates the two
+ *  states.
+ *
+ *  Apart from that, the lock behaves like a non-fair
+ *  {@link java.util.concurrent.locks.ReentrantLock ReentrantLock}.
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+final class PaddedReentrantLock implements Lock
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The synchroniser; the state holds the number of holds of the
+     *  owner.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    @SuppressWarnings( "unused" )
+    private static final class Sync extends AbstractQueuedSynchronizer
+    {
+            /*-----------*\
+        ====** Constants **==========================================
+            \*-----------*/
+        /**
+         *  The serial version UID for objects of this class: {@value}.
+         */
+        private static final long serialVersionUID = 1L;
+
+            /*------------*\
+        ====** Attributes **=========================================
+            \*------------*/
+        /*
+         * The padding: two cache lines of 64 bytes each. The fields of
+         * a subclass are placed after those of its superclasses, so
+         * these follow the state.
+         */
+        private long m_Padding00;
+        private long m_Padding01;
+        private long m_Padding02;
+        private long m_Padding03;
+        private long m_Padding04;
+        private long m_Padding05;
+        private long m_Padding06;
+        private long m_Padding07;
+        private long m_Padding08;
+        private long m_Padding09;
+        private long m_Padding10;
+        private long m_Padding11;
+        private long m_Padding12;
+        private long m_Padding13;
+        private long m_Padding14;
+        private long m_Padding15;
+
+            /*---------*\
+        ====** Methods **============================================
+            \*---------*/
+        /**
+         *  Returns the thread that currently holds the lock.
+         *
+         *  @return The owner, or {@code null} if the lock is free.
+         */
+        final Thread getOwner() { return getExclusiveOwnerThread(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        protected final boolean isHeldExclusively() { return getExclusiveOwnerThread() == Thread.currentThread(); }
+
+        /**
+         *  Creates a new condition for the lock.
+         *
+         *  @return The condition.
+         */
+        final Condition newCondition() { return new ConditionObject(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        protected final boolean tryAcquire( final int arg )
+        {
+            final var current = Thread.currentThread();
+            final var state = getState();
+            var retValue = false;
+            if( state == 0 )
+            {
+                retValue = compareAndSetState( 0, arg );
+                if( retValue ) setExclusiveOwnerThread( current );
+            }
+            else if( getExclusiveOwnerThread() == current )
+            {
+                final var holds = state + arg;
+                if( holds < 0 ) throw new Error( "Maximum lock count exceeded" );
+                setState( holds );
+                retValue = true;
+            }
+
+            //---* Done *------------------------------------------------
+            return retValue;
+        }   //  tryAcquire()
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        protected final boolean tryRelease( final int arg )
+        {
+            if( getExclusiveOwnerThread() != Thread.currentThread() ) throw new IllegalMonitorStateException();
+            final var holds = getState() - arg;
+            final var retValue = holds == 0;
+            if( retValue ) setExclusiveOwnerThread( null );
+            setState( holds );
+
+            //---* Done *------------------------------------------------
+            return retValue;
+        }   //  tryRelease()
+    }
+    //  class Sync
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The synchroniser.
+     */
+    private final Sync m_Sync = new Sync();
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code PaddedReentrantLock} instance.
+     */
+    PaddedReentrantLock() { /* Just exists */ }
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void lock() { m_Sync.acquire( 1 ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void lockInterruptibly() throws InterruptedException { m_Sync.acquireInterruptibly( 1 ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Condition newCondition() { return m_Sync.newCondition(); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String toString()
+    {
+        final var owner = m_Sync.getOwner();
+        final var retValue = "%s[%s]".formatted( super.toString(), owner == null ? "Unlocked" : "Locked by thread %s".formatted( owner.getName() ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toString()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean tryLock() { return m_Sync.tryAcquire( 1 ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean tryLock( final long time, final TimeUnit unit ) throws InterruptedException
+    {
+        return m_Sync.tryAcquireNanos( 1, requireNonNull( unit ).toNanos( time ) );
+    }   //  tryLock()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void unlock() { m_Sync.release( 1 ); }
+}
+//  class PaddedReentrantLock
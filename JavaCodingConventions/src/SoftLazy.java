@@ -0,0 +1,107 @@
+package org.tquadrat.foundation.lang;
+
+import java.util.function.Supplier;
+
+import org.tquadrat.foundation.lang.internal.SoftLazyImpl;
+
+/**
+ *  <p>{@summary A
+ *  {@link Lazy}
+ *  whose value may be reclaimed by the garbage collector when the heap
+ *  runs short, and that will be computed again on the next
+ *  access.}</p>
+ *  <p>Different from the instances returned by
+ *  {@link Lazy#use(Supplier)},
+ *  a {@code SoftLazy} keeps its supplier and holds the value only
+ *  through a
+ *  {@link java.lang.ref.SoftReference}.
+ *  When the garbage collector has cleared that reference, the next
+ *  call to
+ *  {@link #get()}
+ *  calls the supplier again; concurrent callers will wait for that
+ *  new value, so the supplier is called only once per
+ *  computation.</p>
+ *  <p>This is meant for values that are large, but cheap enough to be
+ *  computed again, like decoded images or parsed schemas. The supplier
+ *  should return a new, equal value each time.</p>
+ *  <p>The value can be dropped explicitly through
+ *  {@link #release()},
+ *  for example from a listener for memory pressure.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @param  <T> The type of the value for this instance of
+ *      {@code SoftLazy}.
+ */
+public sealed interface SoftLazy<T> extends Lazy<T>
+    permits org.tquadrat.foundation.lang.internal.SoftLazyImpl
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The usage statistics for a
+     *  {@link SoftLazy}.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     *
+     *  @param  hits    The number of calls to
+     *      {@link SoftLazy#get()}
+     *      that returned a value that was still held.
+     *  @param  computations    The number of calls to the supplier,
+     *      including the first one.
+     */
+    public record Statistics( long hits, long computations )
+    {
+        /**
+         *  Returns the number of times the value had to be computed
+         *  again after it was reclaimed or released.
+         *
+         *  @return The number of recomputations.
+         */
+        public final long recomputations() { return Math.max( 0L, computations - 1 ); }
+    }
+    //  record Statistics
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     *  <p>For a {@code SoftLazy}, this returns {@code true} only when
+     *  the value is currently held; it may be reclaimed right after
+     *  this method returned.</p>
+     */
+    @Override
+    public boolean isPresent();
+
+    /**
+     *  Drops the current value; the next call to
+     *  {@link #get()}
+     *  will compute it again.
+     */
+    public void release();
+
+    /**
+     *  Returns the usage statistics for this instance.
+     *
+     *  @return The statistics.
+     */
+    public Statistics statistics();
+
+    /**
+     *  Creates a new {@code SoftLazy} instance that uses the given
+     *  supplier to compute the value, initially and each time after
+     *  the value was reclaimed.
+     *
+     *  @param  <T> The type of the value for the new instance of
+     *      {@code SoftLazy}.
+     *  @param  supplier    The supplier for the value.
+     *  @return The new instance.
+     */
+    public static <T> SoftLazy<T> use( final Supplier<T> supplier )
+    {
+        return new SoftLazyImpl<>( supplier );
+    }   //  use()
+}
+//  interface SoftLazy
@@ -0,0 +1,268 @@
+package org.tquadrat.foundation.lang.internal;
+
+import static org.tquadrat.foundation.lang.CommonConstants.NULL_STRING;
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.SoftReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.tquadrat.foundation.lang.AutoLock;
+import org.tquadrat.foundation.lang.Lazy;
+import org.tquadrat.foundation.lang.Objects;
+import org.tquadrat.foundation.lang.SoftLazy;
+
+/**
+ *  <p>{@summary The implementation of the interface
+ *  {@link SoftLazy}.}</p>
+ *  <p>The
+ *  {@link SoftReference}
+ *  for the value is published through a
+ *  {@link VarHandle}
+ *  with acquire/release semantics, like
+ *  {@link LazyImpl}
+ *  does it for its value. As long as the value is held,
+ *  {@link #get()}
+ *  does not lock. The computation of a missing value is guarded by an
+ *  {@link AutoLock}.</p>
+ *  <p>A {@code null} value is represented by a sentinel that is
+ *  strongly reachable through this class, so it will never be
+ *  reclaimed.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @param  <T> The type of the value for this instance of
+ *      {@code SoftLazy}.
+ */
+public final class SoftLazyImpl<T> implements SoftLazy<T>
+{
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The counter for the calls to the supplier.
+     */
+    private final LongAdder m_Computations = new LongAdder();
+
+    /**
+     *  The counter for the hits.
+     */
+    private final LongAdder m_Hits = new LongAdder();
+
+    /**
+     *  The lock that guards the computation of the value.
+     */
+    private final AutoLock m_Lock = AutoLock.of();
+
+    /**
+     *  The reference to the value; it is {@code null} if the value was
+     *  not yet computed, or if it was released. It will be accessed
+     *  only through
+     *  {@link #m_ReferenceHandle}.
+     */
+    @SuppressWarnings( "unused" )
+    private SoftReference<Object> m_Reference;
+
+    /**
+     *  The supplier for the value.
+     */
+    private final Supplier<T> m_Supplier;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The sentinel for a {@code null} value.
+     */
+    private static final Object m_NullValue = new Object();
+
+    /**
+     *  The handle for
+     *  {@link #m_Reference}.
+     */
+    private static final VarHandle m_ReferenceHandle;
+
+    static
+    {
+        try
+        {
+            m_ReferenceHandle = MethodHandles.lookup().findVarHandle( SoftLazyImpl.class, "m_Reference", SoftReference.class );
+        }
+        catch( final NoSuchFieldException | IllegalAccessException e )
+        {
+            throw new ExceptionInInitializerError( e );
+        }
+    }
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code SoftLazyImpl} instance.
+     *
+     *  @param  supplier    The supplier for the value.
+     */
+    public SoftLazyImpl( final Supplier<T> supplier )
+    {
+        m_Supplier = requireNonNullArgument( supplier, "supplier" );
+    }   //  SoftLazyImpl()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Returns the current value, in its masked form.
+     *
+     *  @return The masked value, or {@code null} if the value was not
+     *      yet computed, was released or was reclaimed.
+     */
+    private final Object current()
+    {
+        @SuppressWarnings( "unchecked" )
+        final var reference = (SoftReference<Object>) m_ReferenceHandle.getAcquire( this );
+        final var retValue = isNull( reference ) ? null : reference.get();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  current()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean equals( final Object obj )
+    {
+        var retValue = this == obj;
+        if( !retValue && nonNull( obj ) )
+        {
+            if( obj instanceof Lazy<?> other )
+            {
+                retValue = get().equals( other.get() );
+            }
+            else
+            {
+                retValue = get().equals( obj );
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  equals()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final T get()
+    {
+        var value = current();
+        if( isNull( value ) )
+        {
+            value = load();
+        }
+        else
+        {
+            m_Hits.increment();
+        }
+
+        //---* Done *------------------------------------------------
+        return unmask( value );
+    }   //  get()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final int hashCode() { return get().hashCode(); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean isPresent() { return nonNull( current() ); }
+
+    /**
+     *  Computes the value, unless another thread did that already;
+     *  this is the slow path for
+     *  {@link #get()}.
+     *
+     *  @return The masked value.
+     */
+    private final Object load()
+    {
+        Object retValue;
+        try( @SuppressWarnings( "unused" ) final var lock = m_Lock.lock() )
+        {
+            retValue = current();
+            if( isNull( retValue ) )
+            {
+                final var value = m_Supplier.get();
+                m_Computations.increment();
+                retValue = isNull( value ) ? m_NullValue : value;
+                m_ReferenceHandle.setRelease( this, new SoftReference<>( retValue ) );
+            }
+            else
+            {
+                m_Hits.increment();
+            }
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  load()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public <X extends Throwable> T orElseThrow( final Supplier<? extends X> exceptionSupplier ) throws X
+    {
+        final var value = current();
+        if( isNull( value ) ) throw exceptionSupplier.get();
+
+        //---* Done *------------------------------------------------
+        return unmask( value );
+    }   //  orElseThrow()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void release() { m_ReferenceHandle.setRelease( this, null ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final Statistics statistics() { return new Statistics( m_Hits.sum(), m_Computations.sum() ); }
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String toString()
+    {
+        final var value = current();
+        final var retValue = isNull( value )
+            ? "[Not initialized]"
+            : Objects.toString( unmask( value ), NULL_STRING );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toString()
+
+    /**
+     *  Replaces the sentinel for {@code null} by {@code null}.
+     *
+     *  @param  <T> The type of the value.
+     *  @param  value   The masked value.
+     *  @return The value.
+     */
+    @SuppressWarnings( "unchecked" )
+    private static final <T> T unmask( final Object value ) { return value == m_NullValue ? null : (T) value; }
+}
+//  class SoftLazyImpl
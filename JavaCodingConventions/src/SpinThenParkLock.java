@@ -0,0 +1,352 @@
+package org.tquadrat.util.concurrent;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ *  A non-reentrant implementation of
+ *  {@link Lock}
+ *  that spins for a short time before it parks the waiting thread.
+ *
+ *  When the lock is free, acquiring it costs a single CAS operation.
+ *  Otherwise the waiting thread spins, calling
+ *  {@link Thread#onSpinWait()},
+ *  for a time that is derived from the hold times that were sampled
+ *  for the recent acquisitions; only when the lock was not released
+ *  within that time, the thread will be parked, like it is done by
+ *  {@link java.util.concurrent.locks.ReentrantLock ReentrantLock}.
+ *  If the lock is usually held longer than it is reasonable to spin,
+ *  waiting threads will be parked immediately.
+ *
+ *  A virtual thread spins for a shorter time than a platform thread,
+ *  as it blocks its carrier thread while spinning, and unmounting it
+ *  is cheaper than parking a platform thread. On a machine with a
+ *  single processor, there is no spinning at all.
+ *
+ *  The lock is not reentrant: a thread that tries to acquire the lock
+ *  that it holds already gets an
+ *  {@link IllegalMonitorStateException}.
+ *  This check is done only when the lock is not free, so it does not
+ *  affect the cost of an uncontended acquisition.
+ *
+ *  The lock is meant to be wrapped by an
+ *  {@link AutoLock}.
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class SpinThenParkLock implements Lock
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The synchroniser that queues and parks the waiting threads.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    private static final class Sync extends AbstractQueuedSynchronizer
+    {
+        /**
+         *  The serial version UID for objects of this class: {@value}.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         *  Returns the thread that currently holds the lock.
+         *
+         *  @return The owner, or {@code null} if the lock is free.
+         */
+        final Thread getOwner() { return getExclusiveOwnerThread(); }
+
+        /**
+         *  Checks whether the lock is currently free.
+         *
+         *  @return {@code true} if the lock is free, {@code false}
+         *      otherwise.
+         */
+        final boolean isFree() { return getState() == 0; }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        protected final boolean isHeldExclusively() { return getExclusiveOwnerThread() == Thread.currentThread(); }
+
+        /**
+         *  Creates a new condition for the lock.
+         *
+         *  @return The condition.
+         */
+        final Condition newCondition() { return new ConditionObject(); }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        protected final boolean tryAcquire( final int arg )
+        {
+            final var retValue = compareAndSetState( 0, 1 );
+            if( retValue ) setExclusiveOwnerThread( Thread.currentThread() );
+
+            //---* Done *------------------------------------------------
+            return retValue;
+        }   //  tryAcquire()
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        protected final boolean tryRelease( final int arg )
+        {
+            if( getExclusiveOwnerThread() != Thread.currentThread() ) throw new IllegalMonitorStateException();
+            setExclusiveOwnerThread( null );
+            setState( 0 );
+
+            //---* Done *------------------------------------------------
+            return true;
+        }   //  tryRelease()
+    }
+    //  class Sync
+
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The maximum time in nanoseconds a platform thread will spin:
+     *  {@value}.
+     */
+    private static final long MAX_SPIN_PLATFORM = 20_000L;
+
+    /**
+     *  The maximum time in nanoseconds a virtual thread will spin:
+     *  {@value}.
+     */
+    private static final long MAX_SPIN_VIRTUAL = 2_000L;
+
+    /**
+     *  The mask that determines how often the hold time is sampled;
+     *  with a value of {@value}, it will be sampled for one in 16
+     *  acquisitions.
+     */
+    private static final int SAMPLE_MASK = 0xF;
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The number of acquisitions; only modified by the owner of the
+     *  lock.
+     */
+    private int m_Acquisitions;
+
+    /**
+     *  The moving average of the sampled hold times, in nanoseconds.
+     */
+    private volatile long m_AverageHoldTime;
+
+    /**
+     *  The time when the current owner acquired the lock, if the hold
+     *  time is sampled for this acquisition, otherwise 0; only used by
+     *  the owner of the lock.
+     */
+    private long m_SampleStart;
+
+    /**
+     *  The synchroniser.
+     */
+    private final Sync m_Sync = new Sync();
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The flag that indicates whether spinning makes sense at all.
+     */
+    private static final boolean m_IsMultiProcessor = Runtime.getRuntime().availableProcessors() > 1;
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code SpinThenParkLock} instance.
+     */
+    public SpinThenParkLock()
+    {
+        m_Acquisitions = 0;
+        m_AverageHoldTime = 0L;
+        m_SampleStart = 0L;
+    }   //  SpinThenParkLock()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Called by the new owner after the lock was acquired.
+     */
+    private final void acquired()
+    {
+        if( (++m_Acquisitions & SAMPLE_MASK) == 0 ) m_SampleStart = System.nanoTime();
+    }   //  acquired()
+
+    /**
+     *  Checks that the current thread does not already hold the lock.
+     *
+     *  @throws IllegalMonitorStateException    The current thread holds
+     *      the lock already.
+     */
+    private final void checkNotOwner() throws IllegalMonitorStateException
+    {
+        if( m_Sync.getOwner() == Thread.currentThread() ) throw new IllegalMonitorStateException( "SpinThenParkLock is not reentrant" );
+    }   //  checkNotOwner()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void lock()
+    {
+        if( !m_Sync.tryAcquire( 1 ) )
+        {
+            checkNotOwner();
+            if( !spin( spinTime() ) ) m_Sync.acquire( 1 );
+        }
+        acquired();
+    }   //  lock()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void lockInterruptibly() throws InterruptedException
+    {
+        if( Thread.interrupted() ) throw new InterruptedException();
+        if( !m_Sync.tryAcquire( 1 ) )
+        {
+            checkNotOwner();
+            if( !spin( spinTime() ) ) m_Sync.acquireInterruptibly( 1 );
+        }
+        acquired();
+    }   //  lockInterruptibly()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The condition does not support the reacquisition of the lock
+     *  by spinning.</p>
+     */
+    @Override
+    public final Condition newCondition() { return m_Sync.newCondition(); }
+
+    /**
+     *  Spins until the lock was acquired, or the given time has
+     *  passed.
+     *
+     *  @param  spinTime    The time to spin, in nanoseconds.
+     *  @return {@code true} if the lock was acquired, {@code false}
+     *      otherwise.
+     */
+    private final boolean spin( final long spinTime )
+    {
+        var retValue = false;
+        if( spinTime > 0 )
+        {
+            final var start = System.nanoTime();
+            do
+            {
+                Thread.onSpinWait();
+                retValue = m_Sync.isFree() && m_Sync.tryAcquire( 1 );
+            }
+            while( !retValue && (System.nanoTime() - start < spinTime) );
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  spin()
+
+    /**
+     *  Returns the time the current thread should spin before it will
+     *  be parked.
+     *
+     *  @return The time to spin, in nanoseconds; 0 if the thread
+     *      should not spin at all.
+     */
+    private final long spinTime()
+    {
+        var retValue = 0L;
+        if( m_IsMultiProcessor )
+        {
+            final var limit = Thread.currentThread().isVirtual() ? MAX_SPIN_VIRTUAL : MAX_SPIN_PLATFORM;
+            final var estimate = 2 * m_AverageHoldTime;
+            if( estimate <= limit ) retValue = Math.max( estimate, limit / 10 );
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  spinTime()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String toString()
+    {
+        final var owner = m_Sync.getOwner();
+        final var retValue = "%s[%s]".formatted( super.toString(), owner == null ? "Unlocked" : "Locked by thread %s".formatted( owner.getName() ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toString()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean tryLock()
+    {
+        final var retValue = m_Sync.tryAcquire( 1 );
+        if( retValue ) acquired();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  tryLock()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final boolean tryLock( final long time, final TimeUnit unit ) throws InterruptedException
+    {
+        if( Thread.interrupted() ) throw new InterruptedException();
+        final var timeout = requireNonNull( unit ).toNanos( time );
+        var retValue = m_Sync.tryAcquire( 1 );
+        if( !retValue && (timeout > 0) )
+        {
+            checkNotOwner();
+            final var start = System.nanoTime();
+            retValue = spin( Math.min( spinTime(), timeout ) ) || m_Sync.tryAcquireNanos( 1, timeout - (System.nanoTime() - start) );
+        }
+        if( retValue ) acquired();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  tryLock()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final void unlock()
+    {
+        if( m_SampleStart != 0L && m_Sync.isHeldExclusively() )
+        {
+            final var holdTime = System.nanoTime() - m_SampleStart;
+            m_SampleStart = 0L;
+            m_AverageHoldTime = (7 * m_AverageHoldTime + holdTime) / 8;
+        }
+        m_Sync.release( 1 );
+    }   //  unlock()
+}
+//  class SpinThenParkLock
@@ -0,0 +1,196 @@
+package org.tquadrat.foundation.lang.benchmark;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.openjdk.jmh.annotations.Mode.AverageTime;
+import static org.openjdk.jmh.annotations.Mode.SingleShotTime;
+
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ *  <p>{@summary JMH benchmarks for
+ *  {@code StableValue},
+ *  to be compared with those from
+ *  {@link LazyBenchmark}.}</p>
+ *  <p>{@code StableValue} (JEP&nbsp;502) is a preview API in Java 25;
+ *  therefore this class is kept apart from
+ *  {@link LazyBenchmark},
+ *  and it has to be compiled with {@code --release 25 --enable-preview}.
+ *  The forked JVMs get {@code --enable-preview} through
+ *  {@link Fork#jvmArgsAppend()}.
+ *  The benchmarks use the same settings and the same naming as those
+ *  in
+ *  {@link LazyBenchmark}.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+@BenchmarkMode( AverageTime )
+@OutputTimeUnit( NANOSECONDS )
+@Warmup( iterations = 5, time = 1, timeUnit = SECONDS )
+@Measurement( iterations = 5, time = 1, timeUnit = SECONDS )
+@Fork( value = 2, jvmArgsAppend = "--enable-preview" )
+@State( Scope.Benchmark )
+public class StableValueBenchmark
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The holders for the contended {@code cold} benchmark; a new
+     *  batch of uninitialised holders is created for each iteration,
+     *  and it is shared by all threads.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    @State( Scope.Benchmark )
+    public static class ColdState
+    {
+        /**
+         *  The suppliers that were created by
+         *  {@code StableValue.supplier()}.
+         */
+        final Supplier<?> [] m_StableSupplier = new Supplier<?> [LazyBenchmark.COLD_BATCH];
+
+        /**
+         *  Creates the uninitialised holders.
+         */
+        @Setup( Level.Iteration )
+        public void setup()
+        {
+            for( var i = 0; i < LazyBenchmark.COLD_BATCH; ++i ) m_StableSupplier [i] = StableValue.supplier( m_Supplier );
+        }   //  setup()
+    }
+    //  class ColdState
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The supplier that was created by
+     *  {@code StableValue.supplier()}.
+     */
+    private Supplier<Object> m_StableSupplier;
+
+    /**
+     *  The instance of {@code StableValue}.
+     */
+    private StableValue<Object> m_StableValue;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The supplier for the value.
+     */
+    private static final Supplier<Object> m_Supplier;
+
+    static
+    {
+        final var value = new Object();
+        m_Supplier = () -> value;
+    }
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Creates a supplier through {@code StableValue.supplier()} and
+     *  accesses its value.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object coldStableSupplier() { return StableValue.supplier( m_Supplier ).get(); }
+
+    /**
+     *  Accesses the values of a batch of fresh, shared suppliers that
+     *  were created through {@code StableValue.supplier()}, contended.
+     *
+     *  @param  state   The holders.
+     *  @param  blackhole   The sink for the values.
+     */
+    @Benchmark
+    @BenchmarkMode( SingleShotTime )
+    @Warmup( iterations = 20 )
+    @Measurement( iterations = 50 )
+    @OperationsPerInvocation( LazyBenchmark.COLD_BATCH )
+    @Threads( Threads.MAX )
+    public void coldStableSupplierContended( final ColdState state, final Blackhole blackhole )
+    {
+        for( final var holder : state.m_StableSupplier ) blackhole.consume( holder.get() );
+    }   //  coldStableSupplierContended()
+
+    /**
+     *  Creates an instance of {@code StableValue} and accesses its
+     *  value through {@code orElseSet()}.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object coldStableValue() { return StableValue.of().orElseSet( m_Supplier ); }
+
+    /**
+     *  Accesses the value of an initialised supplier that was created
+     *  through {@code StableValue.supplier()}.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object initialisedStableSupplier() { return m_StableSupplier.get(); }
+
+    /**
+     *  Accesses the value of an initialised supplier that was created
+     *  through {@code StableValue.supplier()}, contended.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    @Threads( Threads.MAX )
+    public Object initialisedStableSupplierContended() { return m_StableSupplier.get(); }
+
+    /**
+     *  Accesses the value of an initialised instance of
+     *  {@code StableValue} through {@code orElseSet()}.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    public Object initialisedStableValue() { return m_StableValue.orElseSet( m_Supplier ); }
+
+    /**
+     *  Accesses the value of an initialised instance of
+     *  {@code StableValue} through {@code orElseSet()}, contended.
+     *
+     *  @return The value.
+     */
+    @Benchmark
+    @Threads( Threads.MAX )
+    public Object initialisedStableValueContended() { return m_StableValue.orElseSet( m_Supplier ); }
+
+    /**
+     *  Creates and initialises the holders.
+     */
+    @Setup( Level.Trial )
+    public void setup()
+    {
+        m_StableSupplier = StableValue.supplier( m_Supplier );
+        m_StableSupplier.get();
+        m_StableValue = StableValue.of();
+        m_StableValue.orElseSet( m_Supplier );
+    }   //  setup()
+}
+//  class StableValueBenchmark
@@ -0,0 +1,277 @@
+package org.tquadrat.foundation.exception;
+
+import static java.lang.StackWalker.Option.RETAIN_CLASS_REFERENCE;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
+/**
+ *  <p>{@summary Controls whether the exceptions of the
+ *  {@link ValidationException}
+ *  hierarchy capture their stack trace.}</p>
+ *  <p>Capturing the stack trace is the most expensive part of creating
+ *  an exception, and for exceptions that are thrown at high rates and
+ *  caught close to the throw site, the stack trace is usually never
+ *  looked at. For each exception type, the depth of the stack trace
+ *  can be configured:</p>
+ *  <ul>
+ *      <li>{@value #FULL} captures the full stack trace; this is the
+ *      default,</li>
+ *      <li>{@value #NONE} does not capture the stack trace at all,
+ *      and</li>
+ *      <li>any positive number captures only that number of frames,
+ *      starting with the frame of the code that created the exception,
+ *      or that called the helper class that created it.</li>
+ *  </ul>
+ *  <p>A setting for a type applies to its subclasses as well, unless
+ *  these have their own setting; types without a setting use the
+ *  {@linkplain #setDefaultDepth(int) default depth}.
+ *  The default depth can also be configured with the system property
+ *  {@value #PROPERTY_DEFAULT_DEPTH}.</p>
+ *  <p>The type of the exceptions does not change with the setting, so
+ *  callers that catch them by type are not affected.</p>
+ *  <p>The frames of the constructors of the exception, of the classes
+ *  in this package and of the
+ *  {@linkplain #addHelperClass(Class) helper classes}
+ *  that check arguments on behalf of their callers are not counted;
+ *  the first frame that is kept belongs to the caller of the
+ *  helper. By default, the helper classes are
+ *  {@code org.tquadrat.foundation.lang.Objects},
+ *  {@link org.tquadrat.foundation.lang.ValidationResult}
+ *  and
+ *  {@link org.tquadrat.foundation.lang.ValidationCollector}.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class StackTracePolicy
+{
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The depth for a full stack trace: {@value}.
+     */
+    public static final int FULL = -1;
+
+    /**
+     *  The depth for no stack trace at all: {@value}.
+     */
+    public static final int NONE = 0;
+
+    /**
+     *  The name of the system property for the default depth:
+     *  {@value}.
+     */
+    public static final String PROPERTY_DEFAULT_DEPTH = "org.tquadrat.foundation.exception.stackTraceDepth";
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The default depth.
+     */
+    private static volatile int m_DefaultDepth = Math.max( FULL, Integer.getInteger( PROPERTY_DEFAULT_DEPTH, FULL ) );
+
+    /**
+     *  The depths for specific types; the map will be replaced on each
+     *  modification, so it can be read without locking.
+     */
+    private static volatile Map<Class<?>,Integer> m_Depths = Map.of();
+
+    /**
+     *  The names of the helper classes; the set will be replaced on
+     *  each modification, so it can be read without locking. The names
+     *  are used instead of the classes, so that these need not be
+     *  loaded.
+     */
+    private static volatile Set<String> m_HelperClasses = Set.of( "org.tquadrat.foundation.lang.Objects", "org.tquadrat.foundation.lang.ValidationCollector", "org.tquadrat.foundation.lang.ValidationResult" );
+
+    /**
+     *  The message for an invalid depth.
+     */
+    private static final MessageTemplate MSG_InvalidDepth = MessageTemplate.compile( "Argument 'depth' must not be less than %1$d" );
+
+    /**
+     *  The stack walker for truncated stack traces.
+     */
+    private static final StackWalker m_StackWalker = StackWalker.getInstance( RETAIN_CLASS_REFERENCE );
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  No instance allowed for this class.
+     */
+    private StackTracePolicy() { throw new AssertionError( "No instance allowed" ); }
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Adds a helper class: a class that checks arguments, or creates
+     *  exceptions, on behalf of its callers. Its frames at the top of
+     *  the stack are skipped when the stack trace is captured and when
+     *  the throw site is determined.
+     *
+     *  @param  type    The helper class.
+     */
+    public static final synchronized void addHelperClass( final Class<?> type )
+    {
+        final var helperClasses = new HashSet<>( m_HelperClasses );
+        helperClasses.add( requireNonNullArgument( type, "type" ).getName() );
+        m_HelperClasses = Set.copyOf( helperClasses );
+    }   //  addHelperClass()
+
+    /**
+     *  Captures the given number of stack frames, omitting those for
+     *  the constructors of the exception and for the
+     *  {@linkplain #addHelperClass(Class) helper classes},
+     *  so that a truncated stack trace starts with the calling code.
+     *
+     *  @param  depth   The number of frames.
+     *  @return The stack trace.
+     */
+    static final StackTraceElement [] capture( final int depth )
+    {
+        final var retValue = m_StackWalker.walk( frames -> frames
+            .dropWhile( StackTracePolicy::isInternal )
+            .limit( depth )
+            .map( StackWalker.StackFrame::toStackTraceElement )
+            .toArray( StackTraceElement []::new ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  capture()
+
+    /**
+     *  Returns the stack trace depth for the given exception type.
+     *
+     *  @param  type    The exception type.
+     *  @return The depth; {@value #FULL} for a full stack trace.
+     */
+    public static final int depthFor( final Class<? extends Throwable> type )
+    {
+        final var depths = m_Depths;
+        Integer depth = null;
+        if( !depths.isEmpty() )
+        {
+            for( Class<?> current = type; (depth == null) && (current != null); current = current.getSuperclass() )
+            {
+                depth = depths.get( current );
+            }
+        }
+        final var retValue = depth == null ? m_DefaultDepth : depth.intValue();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  depthFor()
+
+    /**
+     *  Fills in the stack trace for the given exception, according to
+     *  the configured depth for its type; this is called from
+     *  {@link Throwable#fillInStackTrace()}.
+     *
+     *  @param  exception   The exception.
+     *  @return {@code true} if the full stack trace should be filled
+     *      in by the caller, {@code false} if this was done already.
+     */
+    static final boolean fillInStackTrace( final Throwable exception )
+    {
+        final var depth = depthFor( exception.getClass() );
+        final var retValue = depth == FULL;
+        if( depth > 0 ) exception.setStackTrace( capture( depth ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  fillInStackTrace()
+
+    /**
+     *  Checks whether the given stack frame belongs to the creation of
+     *  the exception, either to one of its constructors, to this
+     *  package, or to a
+     *  {@linkplain #addHelperClass(Class) helper class}.
+     *
+     *  @param  frame   The stack frame.
+     *  @return {@code true} if the frame is internal, {@code false}
+     *      if it belongs to the code that creates the exception.
+     */
+    private static final boolean isInternal( final StackWalker.StackFrame frame )
+    {
+        final var declaringClass = frame.getDeclaringClass();
+        final var retValue = Throwable.class.isAssignableFrom( declaringClass ) || (declaringClass.getPackage() == StackTracePolicy.class.getPackage()) || m_HelperClasses.contains( declaringClass.getName() );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  isInternal()
+
+    /**
+     *  Removes the setting for the given type; it will use the setting
+     *  of its superclass again.
+     *
+     *  @param  type    The exception type.
+     */
+    public static final synchronized void reset( final Class<? extends Throwable> type )
+    {
+        requireNonNullArgument( type, "type" );
+        final var depths = new HashMap<>( m_Depths );
+        depths.remove( type );
+        m_Depths = Map.copyOf( depths );
+    }   //  reset()
+
+    /**
+     *  Sets the default depth for the stack traces.
+     *
+     *  @param  depth   The depth: {@value #FULL}, {@value #NONE} or
+     *      the number of frames.
+     *  @throws ValidationException {@code depth} is less than
+     *      {@value #FULL}.
+     */
+    public static final void setDefaultDepth( final int depth ) throws ValidationException
+    {
+        if( depth < FULL ) throw new ValidationException( MSG_InvalidDepth.format( FULL ) );
+        m_DefaultDepth = depth;
+    }   //  setDefaultDepth()
+
+    /**
+     *  Sets the depth for the stack traces of the given exception type
+     *  and its subclasses.
+     *
+     *  @param  type    The exception type.
+     *  @param  depth   The depth: {@value #FULL}, {@value #NONE} or
+     *      the number of frames.
+     *  @throws ValidationException {@code depth} is less than
+     *      {@value #FULL}.
+     */
+    public static final synchronized void setDepth( final Class<? extends Throwable> type, final int depth ) throws ValidationException
+    {
+        requireNonNullArgument( type, "type" );
+        if( depth < FULL ) throw new ValidationException( MSG_InvalidDepth.format( FULL ) );
+        final var depths = new HashMap<>( m_Depths );
+        depths.put( type, Integer.valueOf( depth ) );
+        m_Depths = Map.copyOf( depths );
+    }   //  setDepth()
+
+    /**
+     *  Returns the location where the current exception is created.
+     *
+     *  @return The location; {@code null} if it cannot be
+     *      determined.
+     */
+    static final StackTraceElement throwSite()
+    {
+        final var retValue = m_StackWalker.walk( frames -> frames
+            .dropWhile( StackTracePolicy::isInternal )
+            .findFirst()
+            .map( StackWalker.StackFrame::toStackTraceElement )
+            .orElse( null ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  throwSite()
+}
+//  class StackTracePolicy
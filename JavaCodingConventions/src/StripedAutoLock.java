@@ -0,0 +1,248 @@
+package org.tquadrat.util.concurrent;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+import org.tquadrat.foundation.exception.ValidationException;
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
+/**
+ *  A fixed number of
+ *  {@link AutoLock}
+ *  instances (the &quot;stripes&quot;) that are selected by the hash
+ *  code of a key.
+ *
+ *  This provides &quot;one lock per key&quot; semantics without
+ *  creating a lock for each key: two keys may share a stripe, but the
+ *  same key will always get the same stripe. The number of stripes
+ *  limits both the memory consumption and the achievable
+ *  parallelism.
+ *
+ *  {@link #lockAll(Object...)}
+ *  acquires the stripes for several keys always in the order of their
+ *  index, so two multi-key operations cannot deadlock each other.
+ *
+ *  By default, the stripes are reentrant locks whose synchronisers
+ *  are padded, so that the states of two stripes never share a cache
+ *  line, regardless of where the garbage collector places them.
+ *  Locks that are created by a
+ *  {@linkplain #StripedAutoLock(String, int, Supplier) factory}
+ *  are used as they are.
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class StripedAutoLock
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The handle for a group of stripes that were acquired together
+     *  by
+     *  {@link StripedAutoLock#lockAll(Object...)};
+     *  closing it releases all of them, in the reverse order of their
+     *  acquisition.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     */
+    public static final class Group implements AutoCloseable
+    {
+            /*------------*\
+        ====** Attributes **=========================================
+            \*------------*/
+        /**
+         *  The acquired stripes.
+         */
+        private final AutoLock [] m_Acquired;
+
+        /**
+         *  The number of acquired stripes.
+         */
+        private int m_Count;
+
+            /*--------------*\
+        ====** Constructors **=======================================
+            \*--------------*/
+        /**
+         *  Creates a new {@code Group} instance.
+         *
+         *  @param  size    The number of stripes in the group.
+         */
+        Group( final int size )
+        {
+            m_Acquired = new AutoLock [size];
+            m_Count = 0;
+        }   //  Group()
+
+            /*---------*\
+        ====** Methods **============================================
+            \*---------*/
+        /**
+         *  Adds the given stripe to this group.
+         *
+         *  @param  lock    The acquired stripe.
+         */
+        final void add( final AutoLock lock ) { m_Acquired [m_Count++] = lock; }
+
+        /**
+         *  {@inheritDoc}
+         */
+        @Override
+        public final void close()
+        {
+            while( m_Count > 0 )
+            {
+                m_Acquired [--m_Count].close();
+            }
+        }   //  close()
+    }
+    //  class Group
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The mask that selects a stripe from a hash code.
+     */
+    private final int m_Mask;
+
+    /**
+     *  The stripes.
+     */
+    private final AutoLock [] m_Stripes;
+
+        /*------------------------*\
+    ====** Static Initialisations **=================================
+        \*------------------------*/
+    /**
+     *  The message for an invalid number of stripes.
+     */
+    private static final MessageTemplate MSG_InvalidStripes = MessageTemplate.compile( "Argument 'stripes' is not a positive power of two: %1$d" );
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code StripedAutoLock} instance whose stripes are
+     *  padded reentrant locks.
+     *
+     *  @param  stripes The number of stripes; it must be a power of
+     *      two.
+     *  @throws ValidationException The number of stripes is not
+     *      a positive power of two.
+     */
+    public StripedAutoLock( final int stripes ) throws ValidationException
+    {
+        this( null, stripes, PaddedReentrantLock::new );
+    }   //  StripedAutoLock()
+
+    /**
+     *  Creates a new {@code StripedAutoLock} instance.
+     *
+     *  @param  name    The name for the stripes; if not {@code null},
+     *      all stripes will be created by
+     *      {@link AutoLock#of(String, Lock)}
+     *      with this name, so they can be instrumented.
+     *  @param  stripes The number of stripes; it must be a power of
+     *      two.
+     *  @param  lockFactory The factory for the locks of the stripes.
+     *  @throws ValidationException The number of stripes is not
+     *      a positive power of two.
+     */
+    public StripedAutoLock( final String name, final int stripes, final Supplier<? extends Lock> lockFactory ) throws ValidationException
+    {
+        requireNonNull( lockFactory );
+        if( (stripes <= 0) || (Integer.bitCount( stripes ) != 1) ) throw new ValidationException( MSG_InvalidStripes.format( stripes ) );
+
+        m_Mask = stripes - 1;
+        m_Stripes = new AutoLock [stripes];
+        for( var i = 0; i < stripes; ++i )
+        {
+            final var lock = requireNonNull( lockFactory.get() );
+            m_Stripes [i] = name == null ? new AutoLock( lock ) : AutoLock.of( name, lock );
+        }
+    }   //  StripedAutoLock()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Returns the index of the stripe for the given key.
+     *
+     *  @param  key The key.
+     *  @return The index of the stripe.
+     */
+    private final int indexOf( final Object key )
+    {
+        final var hash = requireNonNull( key ).hashCode();
+        final var retValue = (hash ^ (hash >>> 16)) & m_Mask;
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  indexOf()
+
+    /**
+     *  Acquires the stripe for the given key.
+     *
+     *  @param  key The key.
+     *  @return The {@code AutoLock} instance for the stripe; closing it
+     *      releases the stripe.
+     */
+    public final AutoLock lock( final Object key ) { return m_Stripes [indexOf( key )].lock(); }
+
+    /**
+     *  Acquires the stripes for all the given keys, in the order of
+     *  their indexes. Each stripe is acquired only once, even if more
+     *  than one of the keys maps to it.
+     *
+     *  @param  keys    The keys.
+     *  @return The handle for the acquired stripes; closing it
+     *      releases all of them.
+     */
+    public final Group lockAll( final Collection<?> keys ) { return lockAll( requireNonNull( keys ).toArray() ); }
+
+    /**
+     *  Acquires the stripes for all the given keys, in the order of
+     *  their indexes. Each stripe is acquired only once, even if more
+     *  than one of the keys maps to it.
+     *
+     *  @param  keys    The keys.
+     *  @return The handle for the acquired stripes; closing it
+     *      releases all of them.
+     */
+    public final Group lockAll( final Object... keys )
+    {
+        final var indexes = new int [requireNonNull( keys ).length];
+        for( var i = 0; i < keys.length; ++i ) indexes [i] = indexOf( keys [i] );
+        Arrays.sort( indexes );
+
+        final var retValue = new Group( indexes.length );
+        try
+        {
+            for( var i = 0; i < indexes.length; ++i )
+            {
+                if( (i == 0) || (indexes [i] != indexes [i - 1]) ) retValue.add( m_Stripes [indexes [i]].lock() );
+            }
+        }
+        catch( final RuntimeException | Error e )
+        {
+            retValue.close();
+            throw e;
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  lockAll()
+
+    /**
+     *  Returns the number of stripes.
+     *
+     *  @return The number of stripes.
+     */
+    public final int stripes() { return m_Stripes.length; }
+}
+//  class StripedAutoLock
@@ -1,11 +1,15 @@
 package org.tquadrat.foundation.exception;
 
+import static org.tquadrat.foundation.lang.Objects.isNull;
 import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
 import static org.tquadrat.foundation.lang.Objects.requireNotEmptyArgument;
-import static org.tquadrat.foundation.lang.internal.SharedFormatter.format;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serial;
 
+import org.tquadrat.foundation.lang.internal.MessageTemplate;
+
 /**
  *  This is a specialized implementation for
  *  {@link Error}
@@ -13,21 +17,46 @@ import java.io.Serial;
  *  of a {@code switch} statement that uses an {@code enum} type as
  *  selector.
  *
+ *  The message will be formatted only when it is requested for the
+ *  first time.
+ *
  *  @author Thomas Thrien - thomas.thrien@tquadrat.org
  */
 public final class UnsupportedEnumError extends Error
 {
-        /*-----------*\
-    ====** Constants **==============================================
-        \*-----------*/
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The formatted message; will be set on the first call to
+     *  {@link #getMessage()}.
+     *
+     *  @serial
+     */
+    private String m_Message;
+
+    /**
+     *  The name of the enum class.
+     *
+     *  @serial
+     */
+    private final String m_Type;
+
     /**
-     *  The message text.
+     *  The unsupported value.
+     *
+     *  @serial
      */
-    private static final String MSG_UnsupportedEnum = "The value '%2$s' of enum class '%1$s' is not supported";
+    private final String m_Value;
 
         /*------------------------*\
     ====** Static Initialisations **=================================
         \*------------------------*/
+    /**
+     *  The message template.
+     */
+    private static final MessageTemplate MSG_UnsupportedEnum = MessageTemplate.compile( "The value '%2$s' of enum class '%1$s' is not supported" );
+
     /**
      *  The serial version UID for objects of this class: {@value}.
      *
@@ -47,7 +76,10 @@ public final class UnsupportedEnumError extends Error
      */
     public <T extends Enum<T>> UnsupportedEnumError( final T value )
     {
-        super( format( MSG_UnsupportedEnum, requireNonNullArgument( value, "value" ).getClass().getName(), value.name() ) );
+        super();
+        m_Message = null;
+        m_Type = requireNonNullArgument( value, "value" ).getClass().getName();
+        m_Value = value.name();
     }   //  UnsupportedEnumError()
 
     /**
@@ -58,8 +90,72 @@ public final class UnsupportedEnumError extends Error
      */
     public UnsupportedEnumError( final Class<? extends Enum<?>> type, final String value )
     {
-        super( format( MSG_UnsupportedEnum, requireNonNullArgument( type, "type" ).getName(), requireNotEmptyArgument( value, "value" ) ) );
+        super();
+        m_Message = null;
+        m_Type = requireNonNullArgument( type, "type" ).getName();
+        m_Value = requireNotEmptyArgument( value, "value" );
     }   //  UnsupportedEnumError()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     *  <p>As this method is called when the error is created, it
+     *  reports the error to the
+     *  {@link ExceptionMonitor}.</p>
+     */
+    @Override
+    public Throwable fillInStackTrace()
+    {
+        ExceptionMonitor.record( this );
+        final var retValue = super.fillInStackTrace();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  fillInStackTrace()
+
+    /**
+     *  {@inheritDoc}
+     *  <p>The message will be formatted on the first call to this
+     *  method.</p>
+     */
+    @Override
+    public final String getMessage()
+    {
+        var retValue = m_Message;
+        if( isNull( retValue ) )
+        {
+            /*
+             * An instance that was deserialised from the stream of an
+             * older version has the formatted message already.
+             */
+            retValue = isNull( m_Type ) ? super.getMessage() : MSG_UnsupportedEnum.format( m_Type, m_Value );
+
+            /*
+             * Concurrent calls may format the message more than once,
+             * but they will always get an equal result.
+             */
+            m_Message = retValue;
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  getMessage()
+
+    /**
+     *  Formats the message before the error will be serialised, so
+     *  that the deserialised instance will return the same message.
+     *
+     *  @param  stream  The output stream.
+     *  @throws IOException Writing the error failed.
+     */
+    @Serial
+    private void writeObject( final ObjectOutputStream stream ) throws IOException
+    {
+        getMessage();
+        stream.defaultWriteObject();
+    }   //  writeObject()
 }
 //  class UnsupportedEnumError
 
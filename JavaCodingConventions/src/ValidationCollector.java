@@ -0,0 +1,272 @@
+package org.tquadrat.foundation.lang;
+
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+import static org.tquadrat.foundation.lang.ValidationResult.VALID;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import org.tquadrat.foundation.exception.ValidationException;
+
+/**
+ *  <p>{@summary A reusable collector for the violations that were
+ *  found when validating the values of a record.}</p>
+ *  <p>Instead of throwing an exception on the first invalid value,
+ *  the {@code check…()} methods record each violation, together with
+ *  the name of the argument, and return whether the value was valid;
+ *  so all violations for a record can be reported at once. After the
+ *  record was processed, the collector will be
+ *  {@linkplain #clear() cleared}
+ *  and can be used for the next record.</p>
+ *  <p>A check that succeeds does not allocate any memory; a failed
+ *  check allocates only when the internal buffers have to grow, and
+ *  that happens only for the first records.</p>
+ *  <p>If required, the exception that
+ *  {@link Objects}
+ *  would have thrown can be created with
+ *  {@link #toException()},
+ *  or thrown with
+ *  {@link #throwIfInvalid()}.</p>
+ *  <p>Instances of this class are not thread-safe; usually, each
+ *  thread will use its own instance.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public final class ValidationCollector
+{
+        /*-----------*\
+    ====** Constants **==============================================
+        \*-----------*/
+    /**
+     *  The initial capacity of the buffers: {@value}.
+     */
+    private static final int INITIAL_CAPACITY = 8;
+
+        /*------------*\
+    ====** Attributes **=============================================
+        \*------------*/
+    /**
+     *  The names of the arguments with a violation.
+     */
+    private String [] m_ArgNames;
+
+    /**
+     *  The number of violations.
+     */
+    private int m_Count;
+
+    /**
+     *  The violations.
+     */
+    private ValidationResult [] m_Results;
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code ValidationCollector} instance.
+     */
+    public ValidationCollector()
+    {
+        m_ArgNames = new String [INITIAL_CAPACITY];
+        m_Count = 0;
+        m_Results = new ValidationResult [INITIAL_CAPACITY];
+    }   //  ValidationCollector()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Records the given result, if it is a violation.
+     *
+     *  @param  result  The result of a check.
+     *  @param  argName The name of the argument that was checked; may
+     *      be {@code null}.
+     *  @return {@code true} if the result is
+     *      {@link ValidationResult#VALID},
+     *      {@code false} otherwise.
+     */
+    public final boolean check( final ValidationResult result, final String argName )
+    {
+        final var retValue = requireNonNullArgument( result, "result" ) == VALID;
+        if( !retValue )
+        {
+            if( m_Count == m_Results.length )
+            {
+                m_ArgNames = Arrays.copyOf( m_ArgNames, m_Count * 2 );
+                m_Results = Arrays.copyOf( m_Results, m_Count * 2 );
+            }
+            m_ArgNames [m_Count] = argName;
+            m_Results [m_Count] = result;
+            ++m_Count;
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  check()
+
+    /**
+     *  Checks whether the given value is not {@code null}.
+     *
+     *  @param  value   The value to check.
+     *  @param  argName The name of the argument.
+     *  @return {@code true} if the value is valid, {@code false}
+     *      otherwise.
+     *
+     *  @see ValidationResult#checkNonNull(Object)
+     */
+    public final boolean checkNonNull( final Object value, final String argName )
+    {
+        return check( ValidationResult.checkNonNull( value ), argName );
+    }   //  checkNonNull()
+
+    /**
+     *  Checks whether the given value is neither {@code null}, nor
+     *  empty, nor blank.
+     *
+     *  @param  value   The value to check.
+     *  @param  argName The name of the argument.
+     *  @return {@code true} if the value is valid, {@code false}
+     *      otherwise.
+     *
+     *  @see ValidationResult#checkNotBlank(CharSequence)
+     */
+    public final boolean checkNotBlank( final CharSequence value, final String argName )
+    {
+        return check( ValidationResult.checkNotBlank( value ), argName );
+    }   //  checkNotBlank()
+
+    /**
+     *  Checks whether the given value is neither {@code null} nor
+     *  empty. For values whose type is known at compile time, prefer
+     *  {@link #check(ValidationResult, String)}
+     *  with the matching specialised overload of
+     *  {@link ValidationResult#checkNotEmpty(Object)}.
+     *
+     *  @param  value   The value to check.
+     *  @param  argName The name of the argument.
+     *  @return {@code true} if the value is valid, {@code false}
+     *      otherwise.
+     *
+     *  @see ValidationResult#checkNotEmpty(Object)
+     */
+    public final boolean checkNotEmpty( final Object value, final String argName )
+    {
+        return check( ValidationResult.checkNotEmpty( value ), argName );
+    }   //  checkNotEmpty()
+
+    /**
+     *  Removes all violations, so that the collector can be used for
+     *  the next record. The buffers are kept.
+     */
+    public final void clear()
+    {
+        Arrays.fill( m_ArgNames, 0, m_Count, null );
+        m_Count = 0;
+    }   //  clear()
+
+    /**
+     *  Calls the given action for each violation, in the order they
+     *  were recorded.
+     *
+     *  @param  action  The action; it takes the violation and the name
+     *      of the argument.
+     */
+    public final void forEach( final BiConsumer<ValidationResult,String> action )
+    {
+        requireNonNullArgument( action, "action" );
+        for( var i = 0; i < m_Count; ++i ) action.accept( m_Results [i], m_ArgNames [i] );
+    }   //  forEach()
+
+    /**
+     *  Returns the name of the argument for the violation with the
+     *  given index.
+     *
+     *  @param  index   The index of the violation.
+     *  @return The name of the argument; may be {@code null}.
+     *  @throws IndexOutOfBoundsException   The index is not valid.
+     */
+    public final String getArgName( final int index ) throws IndexOutOfBoundsException
+    {
+        return m_ArgNames [java.util.Objects.checkIndex( index, m_Count )];
+    }   //  getArgName()
+
+    /**
+     *  Returns the violation with the given index.
+     *
+     *  @param  index   The index of the violation.
+     *  @return The violation.
+     *  @throws IndexOutOfBoundsException   The index is not valid.
+     */
+    public final ValidationResult getResult( final int index ) throws IndexOutOfBoundsException
+    {
+        return m_Results [java.util.Objects.checkIndex( index, m_Count )];
+    }   //  getResult()
+
+    /**
+     *  Checks whether any violations were recorded.
+     *
+     *  @return {@code true} if there are violations, {@code false}
+     *      if all checks were successful.
+     */
+    public final boolean hasViolations() { return m_Count > 0; }
+
+    /**
+     *  Returns the number of violations.
+     *
+     *  @return The number of violations.
+     */
+    public final int size() { return m_Count; }
+
+    /**
+     *  Throws the exception that is returned by
+     *  {@link #toException()}
+     *  if there are any violations.
+     *
+     *  @throws ValidationException There are violations.
+     */
+    public final void throwIfInvalid() throws ValidationException
+    {
+        if( m_Count > 0 ) throw toException();
+    }   //  throwIfInvalid()
+
+    /**
+     *  Creates the exception for the first violation, as it would have
+     *  been thrown by the respective {@code require…()} method from
+     *  {@link Objects};
+     *  the exceptions for the other violations are added as
+     *  {@linkplain Throwable#addSuppressed(Throwable) suppressed}
+     *  exceptions.
+     *
+     *  @return The exception.
+     *  @throws IllegalStateException   There are no violations.
+     */
+    public final ValidationException toException() throws IllegalStateException
+    {
+        if( m_Count == 0 ) throw new IllegalStateException( "No violations" );
+        final var retValue = m_Results [0].toException( m_ArgNames [0] );
+        for( var i = 1; i < m_Count; ++i ) retValue.addSuppressed( m_Results [i].toException( m_ArgNames [i] ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toException()
+
+    /**
+     *  {@inheritDoc}
+     */
+    @Override
+    public final String toString()
+    {
+        final var builder = new StringBuilder( "ValidationCollector[" );
+        for( var i = 0; i < m_Count; ++i )
+        {
+            if( i > 0 ) builder.append( ", " );
+            builder.append( m_ArgNames [i] ).append( '=' ).append( m_Results [i] );
+        }
+        final var retValue = builder.append( ']' ).toString();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toString()
+}
+//  class ValidationCollector
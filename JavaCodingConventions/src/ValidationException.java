@@ -10,6 +10,12 @@ import java.io.Serial;
  *  that is meant as the root for a hierarchy of exceptions caused by
  *  validation errors.
  *
+ *  Whether the exceptions of this hierarchy capture a stack trace, and
+ *  how many frames, is controlled by the
+ *  {@link StackTracePolicy};
+ *  how often they are thrown, and where, is counted by the
+ *  {@link ExceptionMonitor}.
+ *
  *  @author Thomas Thrien - thomas.thrien@tquadrat.org
  */
 public class ValidationException extends IllegalArgumentException
@@ -78,6 +84,28 @@ public class ValidationException extends IllegalArgumentException
     {
         super( MSG_ValidationFailed, cause );
     }   //  ValidationException()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  {@inheritDoc}
+     *  <p>The stack trace is captured according to the
+     *  {@link StackTracePolicy}
+     *  for the type of this exception.</p>
+     *  <p>As this method is called when the exception is created, it
+     *  reports the exception to the
+     *  {@link ExceptionMonitor}.</p>
+     */
+    @Override
+    public Throwable fillInStackTrace()
+    {
+        ExceptionMonitor.record( this );
+        final var retValue = StackTracePolicy.fillInStackTrace( this ) ? super.fillInStackTrace() : this;
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  fillInStackTrace()
 }
 //  class ValidationException
 
@@ -0,0 +1,326 @@
+package org.tquadrat.foundation.lang;
+
+import static org.tquadrat.foundation.lang.Objects.isNull;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.Optional;
+
+import org.tquadrat.foundation.exception.BlankArgumentException;
+import org.tquadrat.foundation.exception.EmptyArgumentException;
+import org.tquadrat.foundation.exception.NullArgumentException;
+import org.tquadrat.foundation.exception.ValidationException;
+
+/**
+ *  <p>{@summary The result of a validation that does not throw an
+ *  exception.}</p>
+ *  <p>The methods
+ *  {@link #checkNonNull(Object)},
+ *  {@link #checkNotEmpty(Object)}
+ *  and
+ *  {@link #checkNotBlank(CharSequence)}
+ *  perform the same checks as
+ *  {@link Objects#requireNonNullArgument(Object, String)},
+ *  {@link Objects#requireNotEmptyArgument(Object, String)}
+ *  and
+ *  {@link Objects#requireNotBlankArgument(CharSequence, String)},
+ *  but instead of throwing an exception, they return one of the
+ *  constants of this enum. As these are singletons, neither a
+ *  successful nor a failed check allocates any memory; the exception
+ *  that the respective {@code require…()} method would have thrown
+ *  can be created on demand with
+ *  {@link #toException(String)}.</p>
+ *  <p>A
+ *  {@link ValidationCollector}
+ *  collects the violations for all the values of a record.</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ */
+public enum ValidationResult
+{
+        /*------------------*\
+    ====** Enum Declaration **=======================================
+        \*------------------*/
+    /**
+     *  The value is valid.
+     */
+    VALID,
+
+    /**
+     *  The value is {@code null}.
+     */
+    NULL,
+
+    /**
+     *  The value is empty.
+     */
+    EMPTY,
+
+    /**
+     *  The value is blank; that means it is not empty, but consists of
+     *  whitespace only.
+     */
+    BLANK;
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Checks whether the given value is not {@code null}.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     *
+     *  @see Objects#requireNonNullArgument(Object, String)
+     */
+    public static final ValidationResult checkNonNull( final Object value )
+    {
+        final var retValue = isNull( value ) ? NULL : VALID;
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  checkNonNull()
+
+    /**
+     *  Checks whether the given value is neither {@code null}, nor
+     *  empty, nor blank.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     *
+     *  @see Objects#requireNotBlankArgument(CharSequence, String)
+     */
+    public static final ValidationResult checkNotBlank( final CharSequence value )
+    {
+        var retValue = checkNotEmpty( value );
+        if( (retValue == VALID) && isBlank( value ) ) retValue = BLANK;
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  checkNotBlank()
+
+    /**
+     *  <p>{@summary Checks whether the given value is neither
+     *  {@code null} nor empty.}</p>
+     *  <p>A value is empty if it is</p>
+     *  <ul>
+     *      <li>a
+     *      {@link CharSequence}
+     *      with the length 0,</li>
+     *      <li>an empty
+     *      {@link Collection}
+     *      or
+     *      {@link Map},</li>
+     *      <li>an empty
+     *      {@link Optional},</li>
+     *      <li>an
+     *      {@link Enumeration}
+     *      without more elements, or</li>
+     *      <li>an array with the length 0.</li>
+     *  </ul>
+     *  <p>This method has to determine the type of the value on each
+     *  call; where the type is known at compile time, the compiler
+     *  selects one of the specialised overloads instead.</p>
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     *
+     *  @see Objects#requireNotEmptyArgument(Object, String)
+     */
+    public static final ValidationResult checkNotEmpty( final Object value )
+    {
+        final var retValue = isNull( value ) ? NULL : isEmpty( value ) ? EMPTY : VALID;
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  checkNotEmpty()
+
+    /**
+     *  Checks whether the given {@code boolean} array is neither
+     *  {@code null} nor empty.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     */
+    public static final ValidationResult checkNotEmpty( final boolean [] value ) { return isNull( value ) ? NULL : (value.length == 0) ? EMPTY : VALID; }
+
+    /**
+     *  Checks whether the given {@code byte} array is neither
+     *  {@code null} nor empty.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     */
+    public static final ValidationResult checkNotEmpty( final byte [] value ) { return isNull( value ) ? NULL : (value.length == 0) ? EMPTY : VALID; }
+
+    /**
+     *  Checks whether the given {@code char} array is neither
+     *  {@code null} nor empty.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     */
+    public static final ValidationResult checkNotEmpty( final char [] value ) { return isNull( value ) ? NULL : (value.length == 0) ? EMPTY : VALID; }
+
+    /**
+     *  Checks whether the given {@link CharSequence} is neither
+     *  {@code null} nor empty.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     */
+    public static final ValidationResult checkNotEmpty( final CharSequence value ) { return isNull( value ) ? NULL : value.isEmpty() ? EMPTY : VALID; }
+
+    /**
+     *  Checks whether the given {@link Collection} is neither
+     *  {@code null} nor empty.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     */
+    public static final ValidationResult checkNotEmpty( final Collection<?> value ) { return isNull( value ) ? NULL : value.isEmpty() ? EMPTY : VALID; }
+
+    /**
+     *  Checks whether the given {@code double} array is neither
+     *  {@code null} nor empty.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     */
+    public static final ValidationResult checkNotEmpty( final double [] value ) { return isNull( value ) ? NULL : (value.length == 0) ? EMPTY : VALID; }
+
+    /**
+     *  Checks whether the given {@code float} array is neither
+     *  {@code null} nor empty.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     */
+    public static final ValidationResult checkNotEmpty( final float [] value ) { return isNull( value ) ? NULL : (value.length == 0) ? EMPTY : VALID; }
+
+    /**
+     *  Checks whether the given {@code int} array is neither
+     *  {@code null} nor empty.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     */
+    public static final ValidationResult checkNotEmpty( final int [] value ) { return isNull( value ) ? NULL : (value.length == 0) ? EMPTY : VALID; }
+
+    /**
+     *  Checks whether the given {@code long} array is neither
+     *  {@code null} nor empty.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     */
+    public static final ValidationResult checkNotEmpty( final long [] value ) { return isNull( value ) ? NULL : (value.length == 0) ? EMPTY : VALID; }
+
+    /**
+     *  Checks whether the given {@link Map} is neither
+     *  {@code null} nor empty.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     */
+    public static final ValidationResult checkNotEmpty( final Map<?,?> value ) { return isNull( value ) ? NULL : value.isEmpty() ? EMPTY : VALID; }
+
+    /**
+     *  Checks whether the given object array is neither
+     *  {@code null} nor empty.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     */
+    public static final ValidationResult checkNotEmpty( final Object [] value ) { return isNull( value ) ? NULL : (value.length == 0) ? EMPTY : VALID; }
+
+    /**
+     *  Checks whether the given {@code short} array is neither
+     *  {@code null} nor empty.
+     *
+     *  @param  value   The value to check.
+     *  @return The result.
+     */
+    public static final ValidationResult checkNotEmpty( final short [] value ) { return isNull( value ) ? NULL : (value.length == 0) ? EMPTY : VALID; }
+
+    /**
+     *  Checks whether the given non-empty
+     *  {@link CharSequence}
+     *  consists of whitespace only.
+     *
+     *  @param  value   The value to check.
+     *  @return {@code true} if the value is blank, {@code false}
+     *      otherwise.
+     */
+    private static final boolean isBlank( final CharSequence value )
+    {
+        var retValue = true;
+        for( var i = 0; retValue && (i < value.length()); ++i )
+        {
+            retValue = Character.isWhitespace( value.charAt( i ) );
+        }
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  isBlank()
+
+    /**
+     *  Checks whether the given value is empty.
+     *
+     *  @param  value   The value to check; may not be {@code null}.
+     *  @return {@code true} if the value is empty, {@code false}
+     *      otherwise.
+     */
+    private static final boolean isEmpty( final Object value )
+    {
+        final var retValue = switch( value )
+        {
+            case CharSequence charSequence -> charSequence.isEmpty();
+            case Collection<?> collection -> collection.isEmpty();
+            case Map<?,?> map -> map.isEmpty();
+            case Optional<?> optional -> optional.isEmpty();
+            case Enumeration<?> enumeration -> !enumeration.hasMoreElements();
+            default -> value.getClass().isArray() && (Array.getLength( value ) == 0);
+        };
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  isEmpty()
+
+    /**
+     *  Checks whether this result indicates a valid value.
+     *
+     *  @return {@code true} if the value is valid, {@code false}
+     *      otherwise.
+     */
+    public final boolean isValid() { return this == VALID; }
+
+    /**
+     *  Creates the exception that the respective {@code require…()}
+     *  method from
+     *  {@link Objects}
+     *  would have thrown for this result.
+     *
+     *  @param  argName The name of the argument that was checked; may
+     *      be {@code null}.
+     *  @return The exception.
+     *  @throws IllegalStateException   This result is
+     *      {@link #VALID}.
+     */
+    public final ValidationException toException( final String argName ) throws IllegalStateException
+    {
+        final ValidationException retValue = switch( this )
+        {
+            case VALID -> throw new IllegalStateException( "The value is valid" );
+            case NULL -> new NullArgumentException( argName );
+            case EMPTY -> new EmptyArgumentException( argName );
+            case BLANK -> new BlankArgumentException( argName );
+        };
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  toException()
+}
+//  enum ValidationResult
@@ -0,0 +1,155 @@
+package org.tquadrat.foundation.lang;
+
+import static org.tquadrat.foundation.lang.Objects.isNull;
+import static org.tquadrat.foundation.lang.Objects.nonNull;
+import static org.tquadrat.foundation.lang.Objects.requireNonNullArgument;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ *  <p>{@summary The summary for the initialisation of a bunch of
+ *  {@link Lazy}
+ *  instances by
+ *  {@link Lazy#initializeAll(Collection)}.}</p>
+ *
+ *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+ *
+ *  @param  entries The results for the single {@code Lazy} instances,
+ *      in the order of the collection that was provided to
+ *      {@link Lazy#initializeAll(Collection)}.
+ *  @param  elapsed The wall clock time for the initialisation of all
+ *      instances.
+ */
+public record WarmUpReport( List<Entry> entries, Duration elapsed )
+{
+        /*---------------*\
+    ====** Inner Classes **==========================================
+        \*---------------*/
+    /**
+     *  The result for the initialisation of a single
+     *  {@link Lazy}
+     *  instance.
+     *
+     *  @author Thomas Thrien - thomas.thrien@tquadrat.org
+     *
+     *  @param  instance    The {@code Lazy} instance.
+     *  @param  duration    The time that was needed for the
+     *      initialisation.
+     *  @param  failure The exception that was thrown by the
+     *      initialisation; {@code null} if the initialisation was
+     *      successful.
+     */
+    public record Entry( Lazy<?> instance, Duration duration, Throwable failure )
+    {
+        /**
+         *  Checks whether the initialisation was successful.
+         *
+         *  @return {@code true} if the initialisation was successful,
+         *      {@code false} if it failed.
+         */
+        public final boolean isSuccessful() { return isNull( failure ); }
+    }
+    //  record Entry
+
+        /*--------------*\
+    ====** Constructors **===========================================
+        \*--------------*/
+    /**
+     *  Creates a new {@code WarmUpReport} instance.
+     *
+     *  @param  entries The results for the single {@code Lazy}
+     *      instances.
+     *  @param  elapsed The wall clock time for the initialisation of
+     *      all instances.
+     */
+    public WarmUpReport
+    {
+        entries = List.copyOf( requireNonNullArgument( entries, "entries" ) );
+        requireNonNullArgument( elapsed, "elapsed" );
+    }   //  WarmUpReport()
+
+        /*---------*\
+    ====** Methods **================================================
+        \*---------*/
+    /**
+     *  Initialises the given
+     *  {@link Lazy}
+     *  instances in parallel.
+     *
+     *  @param  instances   The instances to initialise.
+     *  @param  executor    The executor that performs the
+     *      initialisations.
+     *  @return The report on the initialisation.
+     */
+    static WarmUpReport execute( final Collection<? extends Lazy<?>> instances, final Executor executor )
+    {
+        requireNonNullArgument( instances, "instances" );
+        requireNonNullArgument( executor, "executor" );
+
+        final var start = System.nanoTime();
+        final var futures = instances.stream()
+            .map( instance -> CompletableFuture.supplyAsync( () -> initialize( instance ), executor ) )
+            .toList();
+        final var entries = futures.stream()
+            .map( CompletableFuture::join )
+            .toList();
+        final var retValue = new WarmUpReport( entries, Duration.ofNanos( System.nanoTime() - start ) );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  execute()
+
+    /**
+     *  Returns the results for the failed initialisations.
+     *
+     *  @return The failed initialisations.
+     */
+    public final List<Entry> failures()
+    {
+        final var retValue = entries.stream()
+            .filter( entry -> nonNull( entry.failure() ) )
+            .toList();
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  failures()
+
+    /**
+     *  Initialises a single
+     *  {@link Lazy}
+     *  instance and measures the time for it.
+     *
+     *  @param  instance    The instance to initialise.
+     *  @return The result.
+     */
+    private static Entry initialize( final Lazy<?> instance )
+    {
+        Throwable failure = null;
+        final var start = System.nanoTime();
+        try
+        {
+            instance.get();
+        }
+        catch( final Throwable t )
+        {
+            failure = t;
+        }
+        final var retValue = new Entry( instance, Duration.ofNanos( System.nanoTime() - start ), failure );
+
+        //---* Done *------------------------------------------------
+        return retValue;
+    }   //  initialize()
+
+    /**
+     *  Checks whether all initialisations were successful.
+     *
+     *  @return {@code true} if all initialisations were successful,
+     *      {@code false} if at least one failed.
+     */
+    public final boolean isSuccessful() { return entries.stream().allMatch( Entry::isSuccessful ); }
+}
+//  record WarmUpReport